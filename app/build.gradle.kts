@@ -17,6 +17,8 @@ android {
         versionName = "1.0"
 
         testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+
+        buildConfigField("boolean", "BENCHMARK", "false")
     }
 
     buildTypes {
@@ -31,6 +33,15 @@ android {
             // optional: biar jelas ada debug type
             isMinifyEnabled = false
         }
+        // Release code, debug signing, profileable; extra fixtures in src/benchmark.
+        // Used by the :benchmark macrobenchmarks and the baseline profile generator.
+        create("benchmark") {
+            initWith(getByName("release"))
+            signingConfig = signingConfigs.getByName("debug")
+            matchingFallbacks += listOf("release")
+            isDebuggable = false
+            buildConfigField("boolean", "BENCHMARK", "true")
+        }
     }
 
     compileOptions {
@@ -43,9 +54,23 @@ android {
     buildFeatures {
         buildConfig = true
     }
+
+    testOptions {
+        unitTests {
+            isIncludeAndroidResources = true
+            all {
+                // JVM microbenchmarks (AppDatabaseMicrobenchmark) only run when sizes are given:
+                // ./gradlew :app:testDebugUnitTest -PbenchSizes=1000,10000,100000
+                it.systemProperty("rusdihari.bench.sizes", project.findProperty("benchSizes") ?: "")
+                it.maxHeapSize = "2g"
+            }
+        }
+    }
 }
 
 dependencies {
+    implementation(project(":core"))
+
     implementation("com.google.firebase:firebase-auth:22.3.0")
     implementation(platform("com.google.firebase:firebase-bom:32.7.0"))
     implementation("com.google.firebase:firebase-messaging")
@@ -63,7 +88,14 @@ dependencies {
     implementation("com.google.zxing:core:3.5.3")
     implementation("com.journeyapps:zxing-android-embedded:4.3.0")
     implementation("androidx.activity:activity:1.8.2")
+    implementation(libs.profileinstaller)
     implementation(libs.credentials)
     implementation(libs.credentials.play.services.auth)
     implementation(libs.googleid)
+
+    testImplementation(libs.junit)
+    testImplementation(libs.robolectric)
+    testImplementation(libs.test.core)
+    androidTestImplementation(libs.ext.junit)
+    androidTestImplementation(libs.test.runner)
 }
\ No newline at end of file
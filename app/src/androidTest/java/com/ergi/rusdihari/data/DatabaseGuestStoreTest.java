@@ -0,0 +1,96 @@
+package com.ergi.rusdihari.data;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.ergi.rusdihari.AppDatabase;
+import com.ergi.rusdihari.core.CheckInEngine;
+import com.ergi.rusdihari.core.TicketTokens;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * CheckInEngine on the real guests table: same rules as the in-memory store, and two doors
+ * scanning the same tickets check each guest in once.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DatabaseGuestStoreTest {
+
+    private static final String DB_NAME = "test_guest_store.db";
+    private static final int GUESTS = 300;
+
+    private TestDatabase fixture;
+    private AppDatabase db;
+    private long eventId;
+
+    @Before
+    public void setUp() {
+        fixture = TestDatabase.open(DB_NAME);
+        db = fixture.db;
+        eventId = fixture.insertEvent("door");
+    }
+
+    @After
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Test
+    public void rulesMatchTheScanner() {
+        String named = insert("Ana");
+        String unnamed = insert(null);
+        CheckInEngine engine = new CheckInEngine(new DatabaseGuestStore(db), eventId);
+
+        assertEquals(CheckInEngine.Outcome.NOT_FOUND, engine.scan(TicketTokens.newToken(), 1L, null, null).outcome);
+        assertEquals(CheckInEngine.Outcome.NAME_REQUIRED, engine.scan(unnamed, 1L, null, null).outcome);
+        assertEquals(CheckInEngine.Outcome.CHECKED_IN, engine.scan(TicketTokens.link(named), 1L, -6.2, 106.8).outcome);
+        assertEquals(CheckInEngine.Outcome.ALREADY_CHECKED_IN, engine.scan(named, 2L, null, null).outcome);
+        assertEquals(CheckInEngine.Outcome.WRONG_EVENT,
+                new CheckInEngine(new DatabaseGuestStore(db), eventId + 1).scan(unnamed, 1L, null, null).outcome);
+    }
+
+    @Test
+    public void twoDoorsCheckEachGuestInOnce() throws Exception {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < GUESTS; i++) tokens.add(insert("Guest " + i));
+        CheckInEngine engine = new CheckInEngine(new DatabaseGuestStore(db), eventId);
+
+        ExecutorService doors = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Integer>> admitted = new ArrayList<>();
+            for (int d = 0; d < 2; d++) {
+                admitted.add(doors.submit(() -> {
+                    int n = 0;
+                    for (String t : tokens) {
+                        if (engine.scan(t, System.currentTimeMillis(), null, null).outcome
+                                == CheckInEngine.Outcome.CHECKED_IN) n++;
+                    }
+                    return n;
+                }));
+            }
+            int total = 0;
+            for (Future<Integer> f : admitted) total += f.get(60, TimeUnit.SECONDS);
+            assertEquals(GUESTS, total);
+        } finally {
+            doors.shutdownNow();
+        }
+        assertEquals(GUESTS, db.countCheckedIn(eventId));
+    }
+
+    private String insert(String name) {
+        AppDatabase.Guest g = TestDatabase.guest(eventId, name);
+        db.insertGuest(g);
+        return g.token;
+    }
+}
@@ -0,0 +1,99 @@
+package com.ergi.rusdihari.data;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.Bundle;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.ergi.rusdihari.AppDatabase;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Export throughput for a 100k-guest event, CSV and binary (GuestExporter.exportNow into a
+ * file uri), plus the Java heap still held after each export (after a GC) as a check that
+ * nothing scales with the guest count.
+ * Results go to logcat (tag GuestExportBenchmark) and the instrumentation status, e.g.
+ * ./gradlew connectedDebugAndroidTest -Pandroid.testInstrumentationRunnerArguments.class=com.ergi.rusdihari.data.GuestExportBenchmark
+ */
+@RunWith(AndroidJUnit4.class)
+public class GuestExportBenchmark {
+
+    private static final String TAG = "GuestExportBenchmark";
+    private static final String DB_NAME = "bench_export.db";
+    private static final int GUESTS = 100_000;
+
+    @Test
+    public void export100k() {
+        try (TestDatabase fixture = TestDatabase.open(DB_NAME)) {
+            Context ctx = fixture.ctx;
+            AppDatabase db = fixture.db;
+            long eventId = seed(fixture);
+            StringBuilder report = new StringBuilder("guests=" + GUESTS);
+            for (GuestExporter.Format format : GuestExporter.Format.values()) {
+                File out = new File(ctx.getCacheDir(), "bench_export" + format.extension);
+                long heapBefore = usedHeap();
+                GuestExporter.Result r = GuestExporter.exportNow(db, ctx.getContentResolver(), eventId,
+                        Uri.fromFile(out), format);
+                long retained = usedHeap() - heapBefore;
+
+                assertNull(r.failure);
+                assertEquals(GUESTS, r.rows);
+                assertEquals(r.bytes, out.length());
+                report.append(String.format(Locale.US,
+                        "%n  %-6s %d ms  %.0f rows/s  %.1f MB/s  file=%d KB  retained heap=%d KB",
+                        format, r.elapsedMillis, r.rowsPerSecond(), r.megabytesPerSecond(),
+                        r.bytes / 1024, retained / 1024));
+                //noinspection ResultOfMethodCallIgnored
+                out.delete();
+            }
+
+            Log.i(TAG, report.toString());
+            Bundle status = new Bundle();
+            status.putString("stream", report + "\n");
+            InstrumentationRegistry.getInstrumentation().sendStatus(0, status);
+        }
+    }
+
+    private static long seed(@NonNull TestDatabase fixture) {
+        long eventId = fixture.insertEvent("export");
+
+        List<AppDatabase.Guest> chunk = new ArrayList<>(1000);
+        for (int i = 0; i < GUESTS; i++) {
+            AppDatabase.Guest g = TestDatabase.guest(eventId, "Guest, " + i); // needs quoting in CSV
+            g.rsvpStatus = (i % 7 == 0) ? AppDatabase.RSVP_NO : AppDatabase.RSVP_YES;
+            g.menuChoice = (i % 3 == 0) ? "Vegetarian" : "Regular";
+            if (i % 2 == 0) {
+                g.checkedInAt = 1_700_000_000_000L + i;
+                g.checkedInLat = -6.2 + i * 1e-6;
+                g.checkedInLng = 106.8 + i * 1e-6;
+            }
+            chunk.add(g);
+            if (chunk.size() == 1000) {
+                fixture.db.insertGuestsBatch(chunk);
+                chunk.clear();
+            }
+        }
+        fixture.db.insertGuestsBatch(chunk);
+        return eventId;
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        rt.gc();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
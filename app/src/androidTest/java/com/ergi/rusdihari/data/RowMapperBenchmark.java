@@ -0,0 +1,175 @@
+package com.ergi.rusdihari.data;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.ergi.rusdihari.AppDatabase;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Per-row mapping cost for one 10k-guest event:
+ *
+ * - legacy: SELECT * and getColumnIndexOrThrow() for every column of every row (the old
+ *   AppDatabase.readGuest());
+ * - mapper/all: GuestRowMapper over the full projection (indices resolved once);
+ * - mapper/scanner: GuestRowMapper over GuestRowMapper.SCANNER_COLUMNS.
+ *
+ * "map" times moveToNext()+mapping once the query has run (later cursor window refills
+ * included, which is where the narrow projection also pays off); "total" is the whole pass.
+ * Results go to logcat (tag RowMapperBenchmark) and the instrumentation status, e.g.
+ * ./gradlew connectedDebugAndroidTest -Pandroid.testInstrumentationRunnerArguments.class=com.ergi.rusdihari.data.RowMapperBenchmark
+ */
+@RunWith(AndroidJUnit4.class)
+public class RowMapperBenchmark {
+
+    private static final String TAG = "RowMapperBenchmark";
+    private static final String DB_NAME = "bench_row_mapper.db";
+    private static final int GUESTS = 10_000;
+    private static final int WARMUP = 3;
+    private static final int RUNS = 10;
+
+    private interface Variant {
+        int pass(@NonNull SQLiteDatabase db, long eventId, long[] mapNanos);
+    }
+
+    @Test
+    public void compareMappers() {
+        try (TestDatabase fixture = TestDatabase.open(DB_NAME)) {
+            AppDatabase db = fixture.db;
+            long eventId = seed(fixture);
+            SQLiteDatabase r = db.getReadableDatabase();
+
+            StringBuilder report = new StringBuilder("guests=" + GUESTS);
+            report.append(measure("legacy", r, eventId, (d, id, t) -> {
+                Cursor c = query(d, null, id);
+                try {
+                    c.getCount();
+                    long s = SystemClock.elapsedRealtimeNanos();
+                    int n = 0;
+                    while (c.moveToNext()) {
+                        legacyReadGuest(c);
+                        n++;
+                    }
+                    t[0] = SystemClock.elapsedRealtimeNanos() - s;
+                    return n;
+                } finally {
+                    c.close();
+                }
+            }));
+            report.append(measure("mapper/all", r, eventId,
+                    (d, id, t) -> mapWith(query(d, GuestRowMapper.DETAIL_COLUMNS, id), t)));
+            report.append(measure("mapper/scanner", r, eventId,
+                    (d, id, t) -> mapWith(query(d, GuestRowMapper.SCANNER_COLUMNS, id), t)));
+
+            Log.i(TAG, report.toString());
+            Bundle status = new Bundle();
+            status.putString("stream", report + "\n");
+            InstrumentationRegistry.getInstrumentation().sendStatus(0, status);
+        }
+    }
+
+    @NonNull
+    private static String measure(@NonNull String label, @NonNull SQLiteDatabase db, long eventId,
+                                  @NonNull Variant variant) {
+        long[] map = new long[RUNS];
+        long[] total = new long[RUNS];
+        long[] t = new long[1];
+        for (int i = 0; i < WARMUP; i++) variant.pass(db, eventId, t);
+        for (int i = 0; i < RUNS; i++) {
+            long s = SystemClock.elapsedRealtimeNanos();
+            int rows = variant.pass(db, eventId, t);
+            total[i] = SystemClock.elapsedRealtimeNanos() - s;
+            map[i] = t[0];
+            assertEquals(GUESTS, rows);
+        }
+        return String.format(Locale.US, "%n  %-15s map p50=%.0f ns/row  total p50=%.2f ms (max %.2f ms)",
+                label, (double) percentile(map, 50) / GUESTS,
+                percentile(total, 50) / 1e6, percentile(total, 100) / 1e6);
+    }
+
+    private static int mapWith(@NonNull Cursor c, long[] t) {
+        try {
+            c.getCount();
+            long s = SystemClock.elapsedRealtimeNanos();
+            GuestRowMapper mapper = new GuestRowMapper(c);
+            int n = 0;
+            while (c.moveToNext()) {
+                mapper.map(c);
+                n++;
+            }
+            t[0] = SystemClock.elapsedRealtimeNanos() - s;
+            return n;
+        } finally {
+            c.close();
+        }
+    }
+
+    @NonNull
+    private static Cursor query(@NonNull SQLiteDatabase db, String[] columns, long eventId) {
+        return db.query(AppDatabase.TABLE_GUESTS, columns, AppDatabase.COL_GUEST_EVENT_ID + "=?",
+                new String[]{String.valueOf(eventId)}, null, null, AppDatabase.COL_GUEST_CREATED_AT + " DESC");
+    }
+
+    /** The per-row lookup mapper this benchmark compares against. */
+    @NonNull
+    private static AppDatabase.Guest legacyReadGuest(@NonNull Cursor c) {
+        AppDatabase.Guest g = new AppDatabase.Guest();
+        g.id = c.getLong(c.getColumnIndexOrThrow(AppDatabase.COL_GUEST_ID));
+        g.eventId = c.getLong(c.getColumnIndexOrThrow(AppDatabase.COL_GUEST_EVENT_ID));
+        g.name = c.getString(c.getColumnIndexOrThrow(AppDatabase.COL_GUEST_NAME));
+        g.token = c.getString(c.getColumnIndexOrThrow(AppDatabase.COL_GUEST_TOKEN));
+        g.rsvpStatus = c.getString(c.getColumnIndexOrThrow(AppDatabase.COL_GUEST_RSVP_STATUS));
+        g.menuChoice = c.getString(c.getColumnIndexOrThrow(AppDatabase.COL_GUEST_MENU_CHOICE));
+        g.preferenceNote = c.getString(c.getColumnIndexOrThrow(AppDatabase.COL_GUEST_PREFERENCE_NOTE));
+        g.createdAt = c.getLong(c.getColumnIndexOrThrow(AppDatabase.COL_GUEST_CREATED_AT));
+        int idxChecked = c.getColumnIndex(AppDatabase.COL_GUEST_CHECKED_IN_AT);
+        if (idxChecked >= 0 && !c.isNull(idxChecked)) g.checkedInAt = c.getLong(idxChecked);
+        int idxLat = c.getColumnIndex(AppDatabase.COL_GUEST_CHECKED_IN_LAT);
+        if (idxLat >= 0 && !c.isNull(idxLat)) g.checkedInLat = c.getDouble(idxLat);
+        int idxLng = c.getColumnIndex(AppDatabase.COL_GUEST_CHECKED_IN_LNG);
+        if (idxLng >= 0 && !c.isNull(idxLng)) g.checkedInLng = c.getDouble(idxLng);
+        return g;
+    }
+
+    private static long seed(@NonNull TestDatabase fixture) {
+        AppDatabase db = fixture.db;
+        long eventId = fixture.insertEvent("bench");
+
+        SQLiteDatabase w = db.getWritableDatabase();
+        w.beginTransaction();
+        try {
+            for (int i = 0; i < GUESTS; i++) {
+                AppDatabase.Guest g = TestDatabase.guest(eventId, "Guest " + i);
+                g.menuChoice = (i % 3 == 0) ? "Vegetarian" : "Regular";
+                g.preferenceNote = (i % 5 == 0) ? "No peanuts, table near the stage please" : null;
+                g.createdAt = 1_700_000_000_000L + i;
+                db.insertGuest(g);
+            }
+            w.setTransactionSuccessful();
+        } finally {
+            w.endTransaction();
+        }
+        return eventId;
+    }
+
+    private static long percentile(@NonNull long[] values, int p) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int idx = (int) Math.ceil(p / 100d * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, idx))];
+    }
+}
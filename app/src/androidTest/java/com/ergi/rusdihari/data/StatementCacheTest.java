@@ -0,0 +1,172 @@
+package com.ergi.rusdihari.data;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.annotation.NonNull;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.ergi.rusdihari.AppDatabase;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Thread-safety contract of the shared statements behind AppDatabase's hot writes
+ * (see StatementCache): shared statements are never used by two threads at once, and
+ * single writes cannot deadlock against a batch holding a transaction.
+ */
+@RunWith(AndroidJUnit4.class)
+public class StatementCacheTest {
+
+    private static final String DB_NAME = "test_statement_cache.db";
+    private static final int THREADS = 4;
+    private static final int PER_THREAD = 250;
+
+    private TestDatabase fixture;
+    private AppDatabase db;
+    private long eventId;
+
+    @Before
+    public void setUp() {
+        fixture = TestDatabase.open(DB_NAME);
+        db = fixture.db;
+        eventId = fixture.insertEvent("cache");
+    }
+
+    @After
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Test
+    public void concurrentInsertsAndCheckInsKeepEveryRow() throws Exception {
+        List<String> tokens = Collections.synchronizedList(new ArrayList<>());
+        runConcurrently(t -> {
+            for (int i = 0; i < PER_THREAD; i++) {
+                AppDatabase.Guest g = guest("T" + t + "-" + i);
+                assertTrue(db.insertGuest(g) > 0);
+                tokens.add(g.token);
+            }
+        });
+        assertEquals(THREADS * PER_THREAD, db.countInvited(eventId));
+
+        List<String> all = new ArrayList<>(tokens);
+        runConcurrently(t -> {
+            for (int i = t; i < all.size(); i += THREADS) {
+                assertTrue(db.markCheckedIn(all.get(i), System.currentTimeMillis(), 1.5, null));
+            }
+        });
+        assertEquals(THREADS * PER_THREAD, db.countCheckedIn(eventId));
+        assertEquals(1.5, db.getGuestByToken(all.get(0)).checkedInLat, 0.0);
+    }
+
+    @Test
+    public void singleWritesDoNotDeadlockAgainstBatches() throws Exception {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            AppDatabase.Guest g = guest("G" + i);
+            db.insertGuest(g);
+            tokens.add(g.token);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> batches = pool.submit(() -> {
+                for (int i = 0; i < tokens.size(); i += 20) {
+                    List<CheckInJournal.Entry> batch = new ArrayList<>();
+                    for (String t : tokens.subList(i, i + 20)) {
+                        CheckInJournal.Entry e = new CheckInJournal.Entry();
+                        e.token = t;
+                        e.checkedInAt = System.currentTimeMillis();
+                        batch.add(e);
+                    }
+                    db.markCheckedInBatch(batch);
+                }
+            });
+            Future<?> singles = pool.submit(() -> {
+                for (String t : tokens) {
+                    db.updateGuestNameByToken(t, "Renamed");
+                    db.insertGuest(guest("late"));
+                }
+            });
+            batches.get(60, TimeUnit.SECONDS);
+            singles.get(60, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(tokens.size(), db.countCheckedIn(eventId));
+        assertEquals("Renamed", db.getGuestByToken(tokens.get(tokens.size() - 1)).name);
+    }
+
+    @Test
+    public void failedInsertLeavesSurroundingTransactionUsable() {
+        AppDatabase.Guest first = guest("first");
+        AppDatabase.Guest duplicate = guest("duplicate");
+        duplicate.token = first.token;
+
+        SQLiteDatabase w = db.getWritableDatabase();
+        w.beginTransaction();
+        try {
+            assertTrue(db.insertGuest(first) > 0);
+            assertEquals(-1L, db.insertGuest(duplicate));
+            assertTrue(db.insertGuest(guest("second")) > 0);
+            w.setTransactionSuccessful();
+        } finally {
+            w.endTransaction();
+        }
+        assertEquals(2, db.countInvited(eventId));
+    }
+
+    @Test
+    public void statementsAreRecompiledAfterReopen() {
+        AppDatabase.Guest g = guest("before");
+        assertTrue(db.insertGuest(g) > 0);
+        db.close();
+        assertTrue(db.insertGuest(guest("after")) > 0);
+        assertTrue(db.markCheckedIn(g.token, System.currentTimeMillis(), null, null));
+        assertEquals(2, db.countInvited(eventId));
+    }
+
+    // -----------------------------
+    // Helpers
+    // -----------------------------
+    private interface Body {
+        void run(int thread) throws Exception;
+    }
+
+    private static void runConcurrently(@NonNull Body body) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                final int thread = t;
+                futures.add(pool.submit(() -> {
+                    body.run(thread);
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures) f.get(60, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @NonNull
+    private AppDatabase.Guest guest(@NonNull String name) {
+        return TestDatabase.guest(eventId, name);
+    }
+}
@@ -0,0 +1,163 @@
+package com.ergi.rusdihari.data;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.ergi.rusdihari.AppDatabase;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Before/after numbers for StorageProfile.legacy() vs StorageProfile.tuned().
+ *
+ * - check-in write throughput, one commit per guest (AppDatabase.markCheckedIn) and
+ *   batched like CheckInJournal (markCheckedInBatch);
+ * - stats read latency (getGuestStats) while the door keeps writing check-ins.
+ *
+ * Results go to logcat (tag StorageBenchmark) and the instrumentation status, e.g.
+ * ./gradlew connectedDebugAndroidTest -Pandroid.testInstrumentationRunnerArguments.class=com.ergi.rusdihari.data.StorageProfileBenchmark
+ */
+@RunWith(AndroidJUnit4.class)
+public class StorageProfileBenchmark {
+
+    private static final String TAG = "StorageBenchmark";
+    private static final int GUESTS = 1000;
+    private static final int BATCH = 32;
+
+    @Test
+    public void compareProfiles() {
+        run("legacy", StorageProfile.legacy());
+        run("tuned", StorageProfile.tuned());
+    }
+
+    private void run(@NonNull String label, @NonNull StorageProfile profile) {
+        try (TestDatabase fixture = TestDatabase.open("bench_" + label + ".db", profile)) {
+            AppDatabase db = fixture.db;
+            long eventId = fixture.insertEvent("single");
+            List<String> tokens = seedGuests(db, eventId);
+            long start = SystemClock.elapsedRealtimeNanos();
+            for (String t : tokens) db.markCheckedIn(t, System.currentTimeMillis(), null, null);
+            double singlePerSec = perSecond(tokens.size(), SystemClock.elapsedRealtimeNanos() - start);
+            assertEquals(GUESTS, db.getGuestStats(eventId).checkedIn);
+
+            eventId = fixture.insertEvent("batched");
+            tokens = seedGuests(db, eventId);
+            start = SystemClock.elapsedRealtimeNanos();
+            for (int i = 0; i < tokens.size(); i += BATCH) {
+                db.markCheckedInBatch(entries(tokens.subList(i, Math.min(tokens.size(), i + BATCH))));
+            }
+            double batchedPerSec = perSecond(tokens.size(), SystemClock.elapsedRealtimeNanos() - start);
+            assertEquals(GUESTS, db.getGuestStats(eventId).checkedIn);
+
+            eventId = fixture.insertEvent("concurrent");
+            tokens = seedGuests(db, eventId);
+            long[] readNanos = readWhileWriting(db, eventId, tokens);
+            assertEquals(GUESTS, db.getGuestStats(eventId).checkedIn);
+
+            String line = label + " " + profile
+                    + String.format(Locale.US,
+                    "%n  writes/s single=%.0f batched=%.0f%n  stats read under load: n=%d p50=%.2fms p95=%.2fms max=%.2fms",
+                    singlePerSec, batchedPerSec, readNanos.length,
+                    millis(percentile(readNanos, 50)), millis(percentile(readNanos, 95)),
+                    millis(percentile(readNanos, 100)));
+            Log.i(TAG, line);
+
+            Bundle status = new Bundle();
+            status.putString("stream", line + "\n");
+            InstrumentationRegistry.getInstrumentation().sendStatus(0, status);
+        }
+    }
+
+    // -----------------------------
+    // Workloads
+    // -----------------------------
+    @NonNull
+    private static long[] readWhileWriting(@NonNull AppDatabase db, long eventId, @NonNull List<String> tokens) {
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            for (String t : tokens) db.markCheckedIn(t, System.currentTimeMillis(), null, null);
+            writing.set(false);
+        }, "bench-writer");
+
+        List<Long> samples = new ArrayList<>();
+        writer.start();
+        while (writing.get()) {
+            long s = SystemClock.elapsedRealtimeNanos();
+            db.getGuestStats(eventId);
+            samples.add(SystemClock.elapsedRealtimeNanos() - s);
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        long[] out = new long[samples.size()];
+        for (int i = 0; i < out.length; i++) out[i] = samples.get(i);
+        return out;
+    }
+
+    @NonNull
+    private static List<String> seedGuests(@NonNull AppDatabase db, long eventId) {
+        List<String> tokens = new ArrayList<>(GUESTS);
+        SQLiteDatabase w = db.getWritableDatabase();
+        w.beginTransaction();
+        try {
+            for (int i = 0; i < GUESTS; i++) {
+                AppDatabase.Guest g = TestDatabase.guest(eventId, "Guest " + i);
+                db.insertGuest(g);
+                tokens.add(g.token);
+            }
+            w.setTransactionSuccessful();
+        } finally {
+            w.endTransaction();
+        }
+        return tokens;
+    }
+
+    @NonNull
+    private static List<CheckInJournal.Entry> entries(@NonNull List<String> tokens) {
+        List<CheckInJournal.Entry> out = new ArrayList<>(tokens.size());
+        for (String t : tokens) {
+            CheckInJournal.Entry e = new CheckInJournal.Entry();
+            e.token = t;
+            e.checkedInAt = System.currentTimeMillis();
+            out.add(e);
+        }
+        return out;
+    }
+
+    // -----------------------------
+    // Helpers
+    // -----------------------------
+    private static double perSecond(int count, long nanos) {
+        return count / (nanos / 1e9);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static long percentile(@NonNull long[] values, int p) {
+        if (values.length == 0) return 0L;
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int idx = (int) Math.ceil(p / 100d * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, idx))];
+    }
+}
@@ -0,0 +1,65 @@
+package com.ergi.rusdihari.data;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.ergi.rusdihari.AppDatabase;
+
+/**
+ * TestDatabase - a throw-away AppDatabase file for instrumented tests and benchmarks.
+ *
+ * open() deletes any leftover file with that name first; close() closes the database and
+ * deletes the file again, so it works with @Before / @After as well as try-with-resources.
+ */
+final class TestDatabase implements AutoCloseable {
+
+    @NonNull final Context ctx;
+    @NonNull final AppDatabase db;
+    @NonNull private final String name;
+
+    private TestDatabase(@NonNull Context ctx, @NonNull String name, @NonNull StorageProfile profile) {
+        this.ctx = ctx;
+        this.name = name;
+        ctx.deleteDatabase(name);
+        db = new AppDatabase(ctx, name, profile);
+    }
+
+    @NonNull
+    static TestDatabase open(@NonNull String name) {
+        return open(name, StorageProfile.tuned());
+    }
+
+    @NonNull
+    static TestDatabase open(@NonNull String name, @NonNull StorageProfile profile) {
+        Context ctx = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        return new TestDatabase(ctx, name, profile);
+    }
+
+    /** Inserts an event happening now and returns its id. */
+    long insertEvent(@NonNull String title) {
+        AppDatabase.Event e = new AppDatabase.Event();
+        e.title = title;
+        e.datetimeMillis = System.currentTimeMillis();
+        return db.insertEvent(e);
+    }
+
+    /** An RSVP-yes guest of {@code eventId} with a fresh token; not inserted yet. */
+    @NonNull
+    static AppDatabase.Guest guest(long eventId, @Nullable String name) {
+        AppDatabase.Guest g = new AppDatabase.Guest();
+        g.eventId = eventId;
+        g.name = name;
+        g.token = AppDatabase.generateToken();
+        g.rsvpStatus = AppDatabase.RSVP_YES;
+        return g;
+    }
+
+    @Override
+    public void close() {
+        db.close();
+        ctx.deleteDatabase(name);
+    }
+}
@@ -0,0 +1,108 @@
+package com.ergi.rusdihari;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.ergi.rusdihari.data.DbExecutors;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * BenchmarkFixtureReceiver - seeds data for the :benchmark macrobenchmarks (benchmark build only).
+ *
+ * adb shell am broadcast -n com.ergi.rusdihari/.BenchmarkFixtureReceiver --ei events 300 --ei guests 2000
+ * - events: makes sure at least that many events exist (dashboard scrolling);
+ * - guests: recreates the "Benchmark scanner" event with that many named guests, none checked
+ *   in, with predictable tokens (see token()).
+ *
+ * Runs on the DbExecutors writer; "am broadcast" returns once seeding is done, with the
+ * scanner event id as the result data.
+ */
+public class BenchmarkFixtureReceiver extends BroadcastReceiver {
+
+    private static final String TAG = "BenchmarkFixture";
+    private static final String PREF = "benchmark_fixture";
+    private static final String KEY_SCANNER_EVENT = "scanner_event_id";
+    private static final long TOKEN_HIGH = 0x42454E4348000000L; // "BENCH"
+    private static final int CHUNK = 1000;
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        int events = intent.getIntExtra("events", 0);
+        int guests = intent.getIntExtra("guests", 0);
+        Context app = context.getApplicationContext();
+        PendingResult result = goAsync();
+
+        DbExecutors.writer().execute(() -> {
+            try {
+                AppDatabase db = AppDatabase.getInstance(app);
+                seedEvents(db, events);
+                long eventId = guests > 0 ? seedScannerEvent(app, db, guests) : -1L;
+                result.setResultData(String.valueOf(eventId));
+                Log.i(TAG, "Seeded events>=" + events + ", scanner event " + eventId + " with " + guests + " guests");
+            } catch (RuntimeException ex) {
+                Log.e(TAG, "Seeding failed", ex);
+                result.setResultCode(1);
+            } finally {
+                result.finish();
+            }
+        });
+    }
+
+    /** Token of scanner guest {@code i}; the benchmarks compute the same strings. */
+    @NonNull
+    static String token(int i) {
+        return new UUID(TOKEN_HIGH, i).toString();
+    }
+
+    private static void seedEvents(@NonNull AppDatabase db, int wanted) {
+        long now = System.currentTimeMillis();
+        for (int i = db.countEvents(); i < wanted; i++) {
+            AppDatabase.Event e = new AppDatabase.Event();
+            e.title = "Benchmark event " + i;
+            e.description = "Seeded for scrolling benchmarks.";
+            e.location = "Jakarta";
+            e.datetimeMillis = now + i * 3_600_000L;
+            e.createdAt = now;
+            db.insertEvent(e);
+        }
+    }
+
+    private static long seedScannerEvent(@NonNull Context app, @NonNull AppDatabase db, int guests) {
+        SharedPreferences prefs = app.getSharedPreferences(PREF, Context.MODE_PRIVATE);
+        long previous = prefs.getLong(KEY_SCANNER_EVENT, -1L);
+        if (previous > 0) db.deleteEvent(previous);
+
+        AppDatabase.Event e = new AppDatabase.Event();
+        e.title = "Benchmark scanner";
+        e.datetimeMillis = System.currentTimeMillis();
+        e.createdAt = e.datetimeMillis;
+        long eventId = db.insertEvent(e);
+
+        List<AppDatabase.Guest> chunk = new ArrayList<>(CHUNK);
+        for (int i = 0; i < guests; i++) {
+            AppDatabase.Guest g = new AppDatabase.Guest();
+            g.eventId = eventId;
+            g.name = "Guest " + i;
+            g.token = token(i);
+            g.rsvpStatus = AppDatabase.RSVP_YES;
+            g.createdAt = e.createdAt;
+            chunk.add(g);
+            if (chunk.size() == CHUNK) {
+                db.insertGuestsBatch(chunk);
+                chunk.clear();
+            }
+        }
+        db.insertGuestsBatch(chunk);
+
+        prefs.edit().putLong(KEY_SCANNER_EVENT, eventId).commit();
+        return eventId;
+    }
+}
@@ -2,9 +2,14 @@ package com.ergi.rusdihari;
 import android.content.Intent;
 import android.net.Uri;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.text.Editable;
 import android.text.TextWatcher;
+import android.util.Log;
 import android.view.View;
+import android.view.ViewTreeObserver;
 import android.widget.ArrayAdapter;
 import android.widget.ImageView;
 import android.widget.LinearLayout;
@@ -15,6 +20,12 @@ import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
+import com.ergi.rusdihari.adapter.LoadMoreScrollListener;
+import com.ergi.rusdihari.data.AppRepository;
+import com.ergi.rusdihari.data.CallScope;
+import com.ergi.rusdihari.data.DbCall;
+import com.ergi.rusdihari.image.CoverVariant;
+import com.ergi.rusdihari.image.ImageLoader;
 import com.google.android.material.appbar.MaterialToolbar;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import java.text.SimpleDateFormat;
@@ -24,15 +35,37 @@ import java.util.List;
 import java.util.Locale;
 /**
  * AdminDashboardActivity
- * - List events (RecyclerView)
- * - Search
+ * - List events (RecyclerView, loaded page by page while scrolling)
+ * - Search (debounced, runs off the main thread, only the latest result is shown)
  * - Sort
  * - FAB create event
  *
  * UI goal: fun modern, gradient header, card list.
  */
 public class AdminDashboardActivity extends AppCompatActivity {
-    private AppDatabase database;
+    private static final String TAG = "AdminDashboard";
+    // Wait for a pause in typing before querying.
+    private static final long SEARCH_DEBOUNCE_MS = 250L;
+    private static final int EVENT_PAGE_SIZE = 40;
+    private static final int PREFETCH_ROWS = 10;
+
+    private AppRepository repository;
+    private CallScope scope;
+    private DbCall pendingLoad;
+    private final Handler searchHandler = new Handler(Looper.getMainLooper());
+    private final Runnable searchRunnable = this::loadEventsAndRender;
+    private int loadGeneration = 0;
+    private String shownQuery = null;
+    private AppDatabase.EventSortMode shownSort = null;
+    // Unfiltered list is keyset-paged; search results come in one ranked list.
+    private boolean hasMoreEvents = false;
+    private LoadMoreScrollListener loadMoreListener;
+
+    // Keystroke-to-render latency (uptime ms); 0 = no keystroke waiting for its result.
+    private long lastKeystrokeAt = 0L;
+    private int latencySamples = 0;
+    private long latencyTotalMs = 0L;
+    private long latencyMaxMs = 0L;
     private MaterialToolbar toolbar;
     private com.google.android.material.textfield.TextInputEditText searchEditText;
     private Spinner sortSpinner;
@@ -49,8 +82,8 @@ public class AdminDashboardActivity extends AppCompatActivity {
     protected void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_admin_dashboard);
-        database = new AppDatabase(this);
-        database.ensureSeedDataIfEmpty();
+        repository = AppRepository.getInstance(this);
+        scope = CallScope.bindTo(this);
         bindViews();
 
         btnLogout.setOnClickListener(v -> {
@@ -71,13 +104,19 @@ public class AdminDashboardActivity extends AppCompatActivity {
         setupSearch();
         setupFab();
 
-        loadEventsAndRender();
+        repository.ensureSeedDataIfEmpty(scope, result -> refreshEvents());
     }
     @Override
     protected void onResume() {
         super.onResume();
         // Refresh list when returning from CreateEventActivity or after edits.
-        loadEventsAndRender();
+        refreshEvents();
+    }
+
+    @Override
+    protected void onDestroy() {
+        searchHandler.removeCallbacks(searchRunnable);
+        super.onDestroy();
     }
     private void bindViews() {
         toolbar = findViewById(R.id.toolbar);
@@ -131,15 +170,20 @@ public class AdminDashboardActivity extends AppCompatActivity {
                 openEventAsGuest(event.id);
             }
         });
-        eventsRecyclerView.setLayoutManager(new LinearLayoutManager(this));
+        LinearLayoutManager layoutManager = new LinearLayoutManager(this);
+        eventsRecyclerView.setLayoutManager(layoutManager);
         eventsRecyclerView.setAdapter(adapter);
+        loadMoreListener = new LoadMoreScrollListener(layoutManager, PREFETCH_ROWS, this::loadNextEventPage);
+        eventsRecyclerView.addOnScrollListener(loadMoreListener);
     }
     private void setupSearch() {
         searchEditText.addTextChangedListener(new TextWatcher() {
             @Override public void beforeTextChanged(CharSequence s, int start, int count, int after) { }
             @Override public void onTextChanged(CharSequence s, int start, int before, int count) {
                 currentQuery = s == null ? "" : s.toString();
-                loadEventsAndRender();
+                lastKeystrokeAt = SystemClock.uptimeMillis();
+                searchHandler.removeCallbacks(searchRunnable);
+                searchHandler.postDelayed(searchRunnable, SEARCH_DEBOUNCE_MS);
             }
             @Override public void afterTextChanged(Editable s) { }
         });
@@ -150,14 +194,92 @@ public class AdminDashboardActivity extends AppCompatActivity {
             startActivity(i);
         });
     }
+    /** Reloads even if query and sort are unchanged (the data may have changed). */
+    private void refreshEvents() {
+        shownQuery = null;
+        loadEventsAndRender();
+    }
+
     private void loadEventsAndRender() {
-        List<AppDatabase.Event> fromDb = database.listEvents(currentQuery, currentSort);
-        items.clear();
-        items.addAll(fromDb);
+        searchHandler.removeCallbacks(searchRunnable);
+
+        final String query = currentQuery.trim();
+        final AppDatabase.EventSortMode sort = currentSort;
+        final long keystrokeAt = lastKeystrokeAt;
+        lastKeystrokeAt = 0L;
 
-        if (adapter != null) {
-            adapter.notifyDataSetChanged();
+        // Same list as on screen (e.g. a trailing space was typed): nothing to do.
+        if (query.equals(shownQuery) && sort == shownSort
+                && (pendingLoad == null || pendingLoad.isDone())) {
+            return;
         }
+
+        // A newer query/sort supersedes whatever is still loading.
+        if (pendingLoad != null) pendingLoad.cancel();
+        final int generation = ++loadGeneration;
+        final long issuedAt = SystemClock.uptimeMillis();
+        final boolean paged = query.isEmpty();
+        // A refresh keeps as many rows as were already scrolled into view.
+        final int limit = Math.max(EVENT_PAGE_SIZE, items.size());
+
+        AppRepository.Callback<List<AppDatabase.Event>> onLoaded = fromDb -> {
+            if (generation != loadGeneration) return;
+            shownQuery = query;
+            shownSort = sort;
+            hasMoreEvents = paged && fromDb.size() >= limit;
+
+            items.clear();
+            items.addAll(fromDb);
+
+            if (adapter != null) {
+                adapter.notifyDataSetChanged();
+            }
+            if (keystrokeAt > 0L) reportSearchLatency(keystrokeAt, issuedAt, fromDb.size());
+            eventsRecyclerView.post(loadMoreListener::check);
+        };
+
+        pendingLoad = paged
+                ? repository.listEventsPage(scope, sort, null, limit, onLoaded)
+                : repository.listEvents(scope, query, sort, onLoaded);
+    }
+
+    private void loadNextEventPage() {
+        if (!hasMoreEvents || items.isEmpty() || shownSort == null) return;
+        if (pendingLoad != null && !pendingLoad.isDone()) return;
+
+        final int generation = loadGeneration;
+        AppDatabase.Event after = items.get(items.size() - 1);
+        pendingLoad = repository.listEventsPage(scope, shownSort, after, EVENT_PAGE_SIZE, page -> {
+            if (generation != loadGeneration) return;
+            hasMoreEvents = page.size() >= EVENT_PAGE_SIZE;
+            if (page.isEmpty()) return;
+
+            int start = items.size();
+            items.addAll(page);
+            adapter.notifyItemRangeInserted(start, page.size());
+        });
+    }
+
+    /** Logs keystroke -> first frame showing its results, once the list has been laid out. */
+    private void reportSearchLatency(long keystrokeAt, long issuedAt, int resultCount) {
+        final long queryMs = SystemClock.uptimeMillis() - issuedAt;
+        final ViewTreeObserver vto = eventsRecyclerView.getViewTreeObserver();
+        vto.addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                if (vto.isAlive()) vto.removeOnPreDrawListener(this);
+                else eventsRecyclerView.getViewTreeObserver().removeOnPreDrawListener(this);
+
+                long latency = SystemClock.uptimeMillis() - keystrokeAt;
+                latencySamples++;
+                latencyTotalMs += latency;
+                if (latency > latencyMaxMs) latencyMaxMs = latency;
+                Log.d(TAG, "search keystroke->render " + latency + " ms (query " + queryMs + " ms, "
+                        + resultCount + " results); avg " + (latencyTotalMs / latencySamples)
+                        + " ms, max " + latencyMaxMs + " ms over " + latencySamples);
+                return true;
+            }
+        });
     }
     private void openEventAsAdmin(long eventId) {
         Intent i = new Intent(this, EventDetailActivity.class);
@@ -198,6 +320,10 @@ public class AdminDashboardActivity extends AppCompatActivity {
             holder.bind(e, listener);
         }
         @Override
+        public void onViewRecycled(@NonNull Holder holder) {
+            ImageLoader.getInstance(holder.itemView.getContext()).cancel(holder.coverImageView);
+        }
+        @Override
         public int getItemCount() {
             return items.size();
         }
@@ -216,44 +342,18 @@ public class AdminDashboardActivity extends AppCompatActivity {
                 titleTextView.setText(event.title != null ? event.title : "(untitled)");
                 String subtitle = buildSubtitle(itemView.getContext(), event);
                 subtitleTextView.setText(subtitle);
-                renderCoverUri(event.coverUri);
+                renderCover(event);
                 itemView.setOnClickListener(v -> listener.onEventClicked(event));
                 itemView.setOnLongClickListener(v -> {
                     listener.onEventLongPressed(event);
                     return true;
                 });
             }
-            private void renderCoverUri(@Nullable String coverUri) {
-                coverImageView.setImageDrawable(null);
+            private void renderCover(@NonNull AppDatabase.Event event) {
                 coverImageView.setBackgroundColor(0xFF111827);
-
-                if (coverUri == null) return;
-
-                try {
-                    android.net.Uri uri = android.net.Uri.parse(coverUri);
-
-                    android.graphics.Bitmap bmp;
-                    if (android.os.Build.VERSION.SDK_INT >= 28) {
-                        android.graphics.ImageDecoder.Source src =
-                                android.graphics.ImageDecoder.createSource(itemView.getContext().getContentResolver(), uri);
-                        bmp = android.graphics.ImageDecoder.decodeBitmap(src);
-                    } else {
-                        bmp = android.provider.MediaStore.Images.Media.getBitmap(
-                                itemView.getContext().getContentResolver(), uri
-                        );
-                    }
-
-                    if (bmp != null) {
-                        coverImageView.setImageBitmap(bmp);
-                    }
-                } catch (SecurityException se) {
-                    // URI picker lama -> abaikan (jangan crash)
-                    coverImageView.setImageDrawable(null);
-                    coverImageView.setBackgroundColor(0xFF111827);
-                } catch (Exception ignored) {
-                    coverImageView.setImageDrawable(null);
-                    coverImageView.setBackgroundColor(0xFF111827);
-                }
+                // List-size variant, decoded off the main thread; a failed/old picker URI just stays blank.
+                ImageLoader.getInstance(itemView.getContext())
+                        .loadCover(event, CoverVariant.THUMB, coverImageView, null);
             }
             private String buildSubtitle(@NonNull android.content.Context context, @NonNull AppDatabase.Event event) {
                 String loc = event.location == null ? "Unknown location" : event.location;
@@ -265,10 +365,10 @@ public class AdminDashboardActivity extends AppCompatActivity {
     }
     /*
      * Extra implementation notes (kept as comments to make file standalone & future-friendly):
-     * - Search: currently live filtering via DB query LIKE.
+     * - Search: debounced full-text query (events_fts), superseded queries are cancelled.
      * - Sort: spinner changes orderBy.
-     * - For huge datasets, consider paging (Paging3) and indexing.
-     * - For cover images, a proper image loader is recommended.
+     * - Paging: keyset pages (AppDatabase.listEventsPage) appended near the end of the list.
+     * - Cover images: ImageLoader (async decode at row size, memory + disk thumbnail cache).
      * - For admin delete/edit, add contextual menu on long-press.
      */
 }
\ No newline at end of file
@@ -3,33 +3,54 @@ package com.ergi.rusdihari;
 import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
+import android.database.SQLException;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
 import android.net.Uri;
+import android.os.Build;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.ergi.rusdihari.core.TicketTokens;
+import com.ergi.rusdihari.data.CheckInJournal;
+import com.ergi.rusdihari.data.EventRowMapper;
+import com.ergi.rusdihari.data.EventSearchIndex;
+import com.ergi.rusdihari.data.GuestRowMapper;
+import com.ergi.rusdihari.data.GuestTokenIndex;
+import com.ergi.rusdihari.data.StatementCache;
+import com.ergi.rusdihari.data.StorageProfile;
+import com.ergi.rusdihari.image.CoverVariant;
+
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
-import java.util.Locale;
-import java.util.UUID;
 
 /**
  * AppDatabase - SQLiteOpenHelper (simple, no Room).
  *
  * Tables:
- * - events: id, title, description, location, datetimeMillis, coverUri, createdAt
+ * - events: id, title, description, location, datetimeMillis, coverUri, createdAt,
+ *           coverThumbUri, coverHeroUri, coverTicketUri (pre-sized variants, nullable)
  * - guests: id, eventId, name (nullable), token UNIQUE, rsvpStatus, menuChoice, preferenceNote,
  *           createdAt, checkedInAt, checkedInLat, checkedInLng
+ * - events_fts: FTS4 index over events (title, location, description), see EventSearchIndex
+ * - my_tickets: token PRIMARY KEY, eventId, addedAt - tickets joined on this device (TicketStorage)
  *
  * Notes:
  * - This database is local to one device.
+ * - Background components (CheckInJournal) share one helper via getInstance() so all
+ *   writes go through a single connection.
+ * - Connection settings (WAL, synchronous, caches) come from a StorageProfile.
+ * - Hot guest writes (insert, check-in, rename) reuse SQLiteStatement objects (StatementCache).
  */
 public class AppDatabase extends SQLiteOpenHelper {
 
     public static final String DATABASE_NAME = "rusdihari_local.db";
-    public static final int DATABASE_VERSION = 3; // <- bump
+    public static final int DATABASE_VERSION = 7; // <- bump
 
     // Events table
     public static final String TABLE_EVENTS = "events";
@@ -42,6 +63,9 @@ public class AppDatabase extends SQLiteOpenHelper {
     public static final String COL_EVENT_DATETIME_MILLIS = "datetimeMillis";
     public static final String COL_EVENT_COVER_URI = "coverUri";
     public static final String COL_EVENT_CREATED_AT = "createdAt";
+    public static final String COL_EVENT_COVER_THUMB_URI = "coverThumbUri";
+    public static final String COL_EVENT_COVER_HERO_URI = "coverHeroUri";
+    public static final String COL_EVENT_COVER_TICKET_URI = "coverTicketUri";
 
     // Guests table
     public static final String TABLE_GUESTS = "guests";
@@ -57,6 +81,34 @@ public class AppDatabase extends SQLiteOpenHelper {
     public static final String COL_GUEST_CHECKED_IN_LAT = "checkedInLat";
     public static final String COL_GUEST_CHECKED_IN_LNG = "checkedInLng";
 
+    // My tickets table (tokens joined on this device)
+    public static final String TABLE_MY_TICKETS = "my_tickets";
+    public static final String COL_MY_TICKET_TOKEN = "token";
+    public static final String COL_MY_TICKET_EVENT_ID = "eventId";
+    public static final String COL_MY_TICKET_ADDED_AT = "addedAt";
+
+    // Hot paths, one SQLiteStatement each per database (see StatementCache / statements()).
+    private static final String SQL_INSERT_GUEST = "INSERT INTO " + TABLE_GUESTS + " ("
+            + COL_GUEST_EVENT_ID + ", " + COL_GUEST_NAME + ", " + COL_GUEST_TOKEN + ", "
+            + COL_GUEST_RSVP_STATUS + ", " + COL_GUEST_MENU_CHOICE + ", " + COL_GUEST_PREFERENCE_NOTE + ", "
+            + COL_GUEST_CREATED_AT + ", " + COL_GUEST_CHECKED_IN_AT + ", "
+            + COL_GUEST_CHECKED_IN_LAT + ", " + COL_GUEST_CHECKED_IN_LNG
+            + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SQL_MARK_CHECKED_IN = "UPDATE " + TABLE_GUESTS + " SET "
+            + COL_GUEST_CHECKED_IN_AT + "=?, "
+            + COL_GUEST_CHECKED_IN_LAT + "=COALESCE(?, " + COL_GUEST_CHECKED_IN_LAT + "), "
+            + COL_GUEST_CHECKED_IN_LNG + "=COALESCE(?, " + COL_GUEST_CHECKED_IN_LNG + ") "
+            + "WHERE " + COL_GUEST_TOKEN + "=?";
+    private static final String SQL_MARK_CHECKED_IN_IF_NOT_YET = SQL_MARK_CHECKED_IN
+            + " AND " + COL_GUEST_CHECKED_IN_AT + " IS NULL";
+    private static final String SQL_UPDATE_GUEST_NAME = "UPDATE " + TABLE_GUESTS + " SET "
+            + COL_GUEST_NAME + "=? WHERE " + COL_GUEST_TOKEN + "=?";
+    private static final String SQL_GUEST_BY_TOKEN = "SELECT " + String.join(", ", GuestRowMapper.DETAIL_COLUMNS)
+            + " FROM " + TABLE_GUESTS + " WHERE " + COL_GUEST_TOKEN + "=?";
+
+    // Rows per query when streaming a whole roster (forEachGuest); well inside one CursorWindow.
+    private static final int EXPORT_PAGE_ROWS = 2000;
+
     // RSVP enum-ish values
     public static final String RSVP_YES = "YES";
     public static final String RSVP_NO = "NO";
@@ -67,8 +119,106 @@ public class AppDatabase extends SQLiteOpenHelper {
         TITLE_ASC
     }
 
+    private static AppDatabase instance;
+
+    private final StorageProfile storageProfile;
+    private StatementCache statements;
+
     public AppDatabase(@NonNull Context context) {
-        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+        this(context, DATABASE_NAME, StorageProfile.tuned());
+    }
+
+    /** Custom file / profile, e.g. for benchmarks comparing profiles side by side. */
+    public AppDatabase(@NonNull Context context, @Nullable String name, @NonNull StorageProfile profile) {
+        super(context, name, null, DATABASE_VERSION);
+        this.storageProfile = profile;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
+            // The framework sets synchronous on every connection it opens (and again when it
+            // reconfigures one), so a PRAGMA would be overridden; hand it the mode instead.
+            // Before API 28 there is no way in: the platform's WAL / journal default applies.
+            setOpenParams(new SQLiteDatabase.OpenParams.Builder()
+                    .setSynchronousMode(profile.synchronous)
+                    .build());
+        }
+    }
+
+    /** Process-wide helper (application context). */
+    @NonNull
+    public static synchronized AppDatabase getInstance(@NonNull Context context) {
+        if (instance == null) instance = new AppDatabase(context.getApplicationContext());
+        return instance;
+    }
+
+    /** Statements of the current database object (rebuilt if the helper reopens it). */
+    @NonNull
+    private synchronized StatementCache statements() {
+        SQLiteDatabase db = getWritableDatabase();
+        if (statements == null || !statements.isFor(db)) {
+            if (statements != null) statements.close();
+            statements = new StatementCache(db);
+        }
+        return statements;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (statements != null) {
+            statements.close();
+            statements = null;
+        }
+        super.close();
+    }
+
+    @Override
+    public void onConfigure(@NonNull SQLiteDatabase db) {
+        super.onConfigure(db);
+        StorageProfile p = storageProfile;
+
+        // Must precede WAL: page size is fixed once the WAL exists (and once tables exist).
+        // Without WAL the pool holds only the primary connection, so this runs there.
+        execPragma(db, "PRAGMA page_size=" + p.pageSizeBytes);
+
+        if (p.walEnabled) db.enableWriteAheadLogging();
+        else db.disableWriteAheadLogging();
+
+        // Cache and mmap are per connection, and with WAL reads run on pooled secondary
+        // connections opened later. API 30+ replays them on every connection; before that
+        // only the primary (write) connection gets them and pooled readers keep the defaults.
+        String cacheSize = "PRAGMA cache_size=-" + p.cacheSizeKib;
+        String mmapSize = "PRAGMA mmap_size=" + p.mmapSizeBytes;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+            db.execPerConnectionSQL(cacheSize, null);
+            db.execPerConnectionSQL(mmapSize, null);
+        }
+
+        // A transaction pins the session to the primary connection (a bare rawQuery may be
+        // handed a new secondary one). Checkpoints and commits only happen on the writer.
+        db.beginTransaction();
+        try {
+            if (Build.VERSION.SDK_INT < Build.VERSION_CODES.R) {
+                execPragma(db, cacheSize);
+                execPragma(db, mmapSize);
+            }
+            if (p.walEnabled) execPragma(db, "PRAGMA wal_autocheckpoint=" + p.walAutoCheckpointPages);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /** PRAGMAs may return a row, which execSQL() rejects; step them through a cursor. */
+    private static void execPragma(@NonNull SQLiteDatabase db, @NonNull String pragma) {
+        Cursor c = db.rawQuery(pragma, null);
+        try {
+            c.moveToFirst();
+        } finally {
+            c.close();
+        }
+    }
+
+    @NonNull
+    public StorageProfile getStorageProfile() {
+        return storageProfile;
     }
 
     @Override
@@ -86,7 +236,10 @@ public class AppDatabase extends SQLiteOpenHelper {
                 + COL_EVENT_LONGITUDE + " REAL, "
                 + COL_EVENT_DATETIME_MILLIS + " INTEGER NOT NULL, "
                 + COL_EVENT_COVER_URI + " TEXT, "
-                + COL_EVENT_CREATED_AT + " INTEGER NOT NULL"
+                + COL_EVENT_CREATED_AT + " INTEGER NOT NULL, "
+                + COL_EVENT_COVER_THUMB_URI + " TEXT, "
+                + COL_EVENT_COVER_HERO_URI + " TEXT, "
+                + COL_EVENT_COVER_TICKET_URI + " TEXT"
                 + ");";
 
         // IMPORTANT: name is nullable now (no NOT NULL)
@@ -109,6 +262,35 @@ public class AppDatabase extends SQLiteOpenHelper {
 
         db.execSQL("CREATE INDEX idx_guests_eventId ON " + TABLE_GUESTS + "(" + COL_GUEST_EVENT_ID + ");");
         db.execSQL("CREATE INDEX idx_guests_token ON " + TABLE_GUESTS + "(" + COL_GUEST_TOKEN + ");");
+
+        createEventSearchIndex(db);
+        createPagingIndexes(db);
+        createMyTickets(db);
+    }
+
+    /** Keyed by token (WITHOUT ROWID): add / remove / lookup are a single B-tree probe. */
+    private void createMyTickets(@NonNull SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE IF NOT EXISTS " + TABLE_MY_TICKETS + " ("
+                + COL_MY_TICKET_TOKEN + " TEXT PRIMARY KEY, "
+                + COL_MY_TICKET_EVENT_ID + " INTEGER NOT NULL, "
+                + COL_MY_TICKET_ADDED_AT + " INTEGER NOT NULL"
+                + ") WITHOUT ROWID;");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_my_tickets_addedAt ON " + TABLE_MY_TICKETS
+                + "(" + COL_MY_TICKET_ADDED_AT + ");");
+    }
+
+    /** One index per keyset order (see listEventsPage / listGuestsPage); id rides along as rowid. */
+    private void createPagingIndexes(@NonNull SQLiteDatabase db) {
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_events_createdAt ON " + TABLE_EVENTS + "(" + COL_EVENT_CREATED_AT + ");");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_events_datetime ON " + TABLE_EVENTS + "(" + COL_EVENT_DATETIME_MILLIS + ");");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_events_title ON " + TABLE_EVENTS + "(" + COL_EVENT_TITLE + " COLLATE NOCASE);");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_guests_event_created ON " + TABLE_GUESTS
+                + "(" + COL_GUEST_EVENT_ID + ", " + COL_GUEST_CREATED_AT + ");");
+    }
+
+    private void createEventSearchIndex(@NonNull SQLiteDatabase db) {
+        EventSearchIndex.create(db, TABLE_EVENTS, COL_EVENT_ID,
+                COL_EVENT_TITLE, COL_EVENT_LOCATION, COL_EVENT_DESCRIPTION);
     }
 
     @Override
@@ -123,6 +305,23 @@ public class AppDatabase extends SQLiteOpenHelper {
 
             migrateGuestsNameNullable(db);
         }
+        if (oldVersion < 4) {
+            createEventSearchIndex(db);
+            EventSearchIndex.rebuild(db);
+        }
+        if (oldVersion < 5) {
+            createPagingIndexes(db);
+        }
+        if (oldVersion < 6) {
+            // Existing events keep rendering from coverUri until a new cover is picked.
+            db.execSQL("ALTER TABLE " + TABLE_EVENTS + " ADD COLUMN " + COL_EVENT_COVER_THUMB_URI + " TEXT");
+            db.execSQL("ALTER TABLE " + TABLE_EVENTS + " ADD COLUMN " + COL_EVENT_COVER_HERO_URI + " TEXT");
+            db.execSQL("ALTER TABLE " + TABLE_EVENTS + " ADD COLUMN " + COL_EVENT_COVER_TICKET_URI + " TEXT");
+        }
+        if (oldVersion < 7) {
+            // Filled from the old SharedPreferences set on first use, see TicketStorage.
+            createMyTickets(db);
+        }
     }
 
     private void migrateGuestsNameNullable(@NonNull SQLiteDatabase db) {
@@ -234,6 +433,9 @@ public class AppDatabase extends SQLiteOpenHelper {
         cv.put(COL_EVENT_LONGITUDE, event.longitude);
         cv.put(COL_EVENT_DATETIME_MILLIS, event.datetimeMillis);
         cv.put(COL_EVENT_COVER_URI, event.coverUri != null ? event.coverUri : null);
+        cv.put(COL_EVENT_COVER_THUMB_URI, event.coverThumbUri);
+        cv.put(COL_EVENT_COVER_HERO_URI, event.coverHeroUri);
+        cv.put(COL_EVENT_COVER_TICKET_URI, event.coverTicketUri);
         cv.put(COL_EVENT_CREATED_AT, event.createdAt > 0 ? event.createdAt : System.currentTimeMillis());
         return db.insert(TABLE_EVENTS, null, cv);
     }
@@ -249,6 +451,9 @@ public class AppDatabase extends SQLiteOpenHelper {
         cv.put(COL_EVENT_LONGITUDE, event.longitude);
         cv.put(COL_EVENT_DATETIME_MILLIS, event.datetimeMillis);
         cv.put(COL_EVENT_COVER_URI, event.coverUri != null ? event.coverUri : null);
+        cv.put(COL_EVENT_COVER_THUMB_URI, event.coverThumbUri);
+        cv.put(COL_EVENT_COVER_HERO_URI, event.coverHeroUri);
+        cv.put(COL_EVENT_COVER_TICKET_URI, event.coverTicketUri);
         int rows = db.update(TABLE_EVENTS, cv, COL_EVENT_ID + "=?", new String[]{String.valueOf(event.id)});
         return rows > 0;
     }
@@ -263,115 +468,337 @@ public class AppDatabase extends SQLiteOpenHelper {
     @Nullable
     public Event getEventById(long eventId) {
         SQLiteDatabase db = getReadableDatabase();
-        Cursor c = db.query(TABLE_EVENTS, null, COL_EVENT_ID + "=?",
+        Cursor c = db.query(TABLE_EVENTS, EventRowMapper.DETAIL_COLUMNS, COL_EVENT_ID + "=?",
                 new String[]{String.valueOf(eventId)}, null, null, null);
         Event e = null;
-        if (c.moveToFirst()) e = readEvent(c);
+        if (c.moveToFirst()) e = new EventRowMapper(c).map(c);
         c.close();
         return e;
     }
 
+    /**
+     * All events, or only those matching {@code query}. A query goes through the full-text
+     * index (prefix match on every word) and results come back most relevant first;
+     * sortMode then only breaks ties. Rows carry EventRowMapper.LIST_COLUMNS only; use
+     * getEventById() for the full event.
+     */
     @NonNull
     public List<Event> listEvents(@Nullable String query, @NonNull EventSortMode sortMode) {
+        String match = EventSearchIndex.toMatchQuery(query);
+        if (match != null) return searchEvents(match, sortMode);
+
         SQLiteDatabase db = getReadableDatabase();
-        List<String> args = new ArrayList<>();
-        String selection = null;
+        Cursor c = db.query(TABLE_EVENTS, EventRowMapper.LIST_COLUMNS, null, null, null, null,
+                eventOrderBy(sortMode, ""));
 
-        if (query != null && query.trim().length() > 0) {
-            String q = "%" + query.trim() + "%";
-            selection = "(" + COL_EVENT_TITLE + " LIKE ? OR " + COL_EVENT_LOCATION + " LIKE ? OR " + COL_EVENT_DESCRIPTION + " LIKE ?)";
-            args.add(q);
-            args.add(q);
-            args.add(q);
-        }
+        EventRowMapper mapper = new EventRowMapper(c);
+        List<Event> out = new ArrayList<>(c.getCount());
+        while (c.moveToNext()) out.add(mapper.map(c));
+        c.close();
+        return out;
+    }
 
-        String orderBy;
-        if (sortMode == EventSortMode.DATE_ASC) {
-            orderBy = COL_EVENT_DATETIME_MILLIS + " ASC";
-        } else if (sortMode == EventSortMode.TITLE_ASC) {
-            orderBy = COL_EVENT_TITLE + " COLLATE NOCASE ASC";
-        } else {
-            orderBy = COL_EVENT_CREATED_AT + " DESC";
+    /**
+     * One page of all events in sortMode order, starting right after {@code after} (null = first
+     * page). Keyset paging: the WHERE clause seeks past the last row shown via the sort index,
+     * so page 50 costs the same as page 1 (unlike OFFSET). Fewer than {@code limit} rows means
+     * there is nothing more.
+     */
+    @NonNull
+    public List<Event> listEventsPage(@NonNull EventSortMode sortMode, @Nullable Event after, int limit) {
+        String selection = null;
+        String[] args = null;
+        if (after != null) {
+            String id = String.valueOf(after.id);
+            if (sortMode == EventSortMode.DATE_ASC) {
+                String v = String.valueOf(after.datetimeMillis);
+                selection = "(" + COL_EVENT_DATETIME_MILLIS + " > ? OR (" + COL_EVENT_DATETIME_MILLIS + " = ? AND "
+                        + COL_EVENT_ID + " > ?))";
+                args = new String[]{v, v, id};
+            } else if (sortMode == EventSortMode.TITLE_ASC) {
+                String v = after.title != null ? after.title : "";
+                selection = "(" + COL_EVENT_TITLE + " > ? COLLATE NOCASE OR (" + COL_EVENT_TITLE + " = ? COLLATE NOCASE AND "
+                        + COL_EVENT_ID + " > ?))";
+                args = new String[]{v, v, id};
+            } else {
+                String v = String.valueOf(after.createdAt);
+                selection = "(" + COL_EVENT_CREATED_AT + " < ? OR (" + COL_EVENT_CREATED_AT + " = ? AND "
+                        + COL_EVENT_ID + " < ?))";
+                args = new String[]{v, v, id};
+            }
         }
 
-        Cursor c = db.query(TABLE_EVENTS, null, selection,
-                args.isEmpty() ? null : args.toArray(new String[0]),
-                null, null, orderBy);
+        // Numeric keys are bound as text; the INTEGER column affinity compares them as numbers.
+        SQLiteDatabase db = getReadableDatabase();
+        Cursor c = db.query(TABLE_EVENTS, EventRowMapper.LIST_COLUMNS, selection, args, null, null,
+                eventOrderBy(sortMode, "") + ", " + eventIdOrder(sortMode), String.valueOf(limit));
 
-        List<Event> out = new ArrayList<>();
-        while (c.moveToNext()) out.add(readEvent(c));
+        EventRowMapper mapper = new EventRowMapper(c);
+        List<Event> out = new ArrayList<>(Math.min(limit, c.getCount()));
+        while (c.moveToNext()) out.add(mapper.map(c));
         c.close();
         return out;
     }
 
+    @NonNull
+    private static String eventIdOrder(@NonNull EventSortMode sortMode) {
+        return COL_EVENT_ID + (sortMode == EventSortMode.CREATED_DESC ? " DESC" : " ASC");
+    }
+
+    @NonNull
+    private List<Event> searchEvents(@NonNull String match, @NonNull EventSortMode sortMode) {
+        SQLiteDatabase db = getReadableDatabase();
+        Cursor c = db.rawQuery("SELECT " + EventRowMapper.select("e.", EventRowMapper.LIST_COLUMNS) + ", matchinfo(" + EventSearchIndex.TABLE + ", '"
+                        + EventSearchIndex.MATCHINFO_FORMAT + "') AS match_info"
+                        + " FROM " + TABLE_EVENTS + " e JOIN " + EventSearchIndex.TABLE
+                        + " ON e." + COL_EVENT_ID + " = " + EventSearchIndex.TABLE + ".docid"
+                        + " WHERE " + EventSearchIndex.TABLE + " MATCH ?"
+                        + " ORDER BY " + eventOrderBy(sortMode, "e."),
+                new String[]{match});
+
+        List<Event> out = new ArrayList<>();
+        List<Double> scores = new ArrayList<>();
+        EventRowMapper mapper = new EventRowMapper(c);
+        int idxInfo = c.getColumnIndexOrThrow("match_info");
+        while (c.moveToNext()) {
+            out.add(mapper.map(c));
+            scores.add(EventSearchIndex.score(c.getBlob(idxInfo)));
+        }
+        c.close();
+
+        // Stable sort: equally relevant events keep the sortMode order from SQL.
+        List<Integer> order = new ArrayList<>(out.size());
+        for (int i = 0; i < out.size(); i++) order.add(i);
+        Collections.sort(order, (a, b) -> Double.compare(scores.get(b), scores.get(a)));
+        List<Event> ranked = new ArrayList<>(out.size());
+        for (int i : order) ranked.add(out.get(i));
+        return ranked;
+    }
+
+    @NonNull
+    private static String eventOrderBy(@NonNull EventSortMode sortMode, @NonNull String alias) {
+        if (sortMode == EventSortMode.DATE_ASC) {
+            return alias + COL_EVENT_DATETIME_MILLIS + " ASC";
+        } else if (sortMode == EventSortMode.TITLE_ASC) {
+            return alias + COL_EVENT_TITLE + " COLLATE NOCASE ASC";
+        }
+        return alias + COL_EVENT_CREATED_AT + " DESC";
+    }
+
     // -----------------------------
     // Guest CRUD + queries
     // -----------------------------
     @NonNull
-    public String generateToken() {
-        return UUID.randomUUID().toString();
+    public static String generateToken() {
+        return TicketTokens.newToken();
     }
 
     public long insertGuest(@NonNull Guest guest) {
-        SQLiteDatabase db = getWritableDatabase();
-        ContentValues cv = new ContentValues();
-        cv.put(COL_GUEST_EVENT_ID, guest.eventId);
-
-        // name nullable
-        cv.put(COL_GUEST_NAME, safeTrim(guest.name));
+        long now = System.currentTimeMillis();
+        return statements().execute(SQL_INSERT_GUEST, st -> insertBound(bindGuest(st, guest, now)));
+    }
 
-        cv.put(COL_GUEST_TOKEN, safeTrim(guest.token));
-        cv.put(COL_GUEST_RSVP_STATUS, safeTrim(guest.rsvpStatus));
-        cv.put(COL_GUEST_MENU_CHOICE, safeTrim(guest.menuChoice));
-        cv.put(COL_GUEST_PREFERENCE_NOTE, safeTrim(guest.preferenceNote));
-        cv.put(COL_GUEST_CREATED_AT, guest.createdAt > 0 ? guest.createdAt : System.currentTimeMillis());
+    /**
+     * Inserts many guests in ONE transaction on one compiled statement (bulk import).
+     * A row that fails (e.g. duplicate token) is skipped; the rest still go in.
+     *
+     * @return number of guests inserted
+     */
+    public int insertGuestsBatch(@NonNull List<Guest> guests) {
+        if (guests.isEmpty()) return 0;
+        long now = System.currentTimeMillis();
+        return statements().execute(SQL_INSERT_GUEST, st -> {
+            int inserted = 0;
+            for (Guest g : guests) {
+                if (insertBound(bindGuest(st, g, now)) > 0) inserted++;
+            }
+            return inserted;
+        });
+    }
 
-        if (guest.checkedInAt != null) cv.put(COL_GUEST_CHECKED_IN_AT, guest.checkedInAt);
-        if (guest.checkedInLat != null) cv.put(COL_GUEST_CHECKED_IN_LAT, guest.checkedInLat);
-        if (guest.checkedInLng != null) cv.put(COL_GUEST_CHECKED_IN_LNG, guest.checkedInLng);
+    @NonNull
+    private static SQLiteStatement bindGuest(@NonNull SQLiteStatement st, @NonNull Guest guest, long now) {
+        st.bindLong(1, guest.eventId);
+        bindText(st, 2, safeTrim(guest.name)); // name nullable
+        bindText(st, 3, safeTrim(guest.token));
+        bindText(st, 4, safeTrim(guest.rsvpStatus));
+        bindText(st, 5, safeTrim(guest.menuChoice));
+        bindText(st, 6, safeTrim(guest.preferenceNote));
+        st.bindLong(7, guest.createdAt > 0 ? guest.createdAt : now);
+        if (guest.checkedInAt != null) st.bindLong(8, guest.checkedInAt); else st.bindNull(8);
+        bindReal(st, 9, guest.checkedInLat);
+        bindReal(st, 10, guest.checkedInLng);
+        return st;
+    }
 
-        return db.insert(TABLE_GUESTS, null, cv);
+    private static long insertBound(@NonNull SQLiteStatement st) {
+        try {
+            return st.executeInsert();
+        } catch (SQLException ex) {
+            // Same contract as SQLiteDatabase.insert(): -1 (e.g. token conflict), and a
+            // surrounding transaction stays usable.
+            return -1L;
+        }
     }
 
     @Nullable
     public Guest getGuestByToken(@NonNull String token) {
         SQLiteDatabase db = getReadableDatabase();
-        Cursor c = db.query(TABLE_GUESTS, null, COL_GUEST_TOKEN + "=?",
-                new String[]{token}, null, null, null);
+        Cursor c = db.rawQuery(SQL_GUEST_BY_TOKEN, new String[]{token});
         Guest g = null;
-        if (c.moveToFirst()) g = readGuest(c);
+        if (c.moveToFirst()) g = new GuestRowMapper(c).map(c);
         c.close();
         return g;
     }
 
     public boolean updateGuestNameByToken(@NonNull String token, @NonNull String name) {
-        SQLiteDatabase db = getWritableDatabase();
-        ContentValues cv = new ContentValues();
-        cv.put(COL_GUEST_NAME, safeTrim(name));
-        int rows = db.update(TABLE_GUESTS, cv, COL_GUEST_TOKEN + "=?", new String[]{token});
-        return rows > 0;
+        return statements().execute(SQL_UPDATE_GUEST_NAME, st -> {
+            bindText(st, 1, safeTrim(name));
+            st.bindString(2, token);
+            return st.executeUpdateDelete() > 0;
+        });
     }
 
     @NonNull
     public List<Guest> listGuestsForEvent(long eventId) {
         SQLiteDatabase db = getReadableDatabase();
-        Cursor c = db.query(TABLE_GUESTS, null, COL_GUEST_EVENT_ID + "=?",
+        Cursor c = db.query(TABLE_GUESTS, GuestRowMapper.DETAIL_COLUMNS, COL_GUEST_EVENT_ID + "=?",
                 new String[]{String.valueOf(eventId)}, null, null,
                 COL_GUEST_CREATED_AT + " DESC");
-        List<Guest> out = new ArrayList<>();
-        while (c.moveToNext()) out.add(readGuest(c));
+        GuestRowMapper mapper = new GuestRowMapper(c);
+        List<Guest> out = new ArrayList<>(c.getCount());
+        while (c.moveToNext()) out.add(mapper.map(c));
         c.close();
         return out;
     }
 
+    /**
+     * One page of an event's guests, newest first (same order as listGuestsForEvent()),
+     * starting right after {@code after} (null = first page). Keyset-paged on
+     * (createdAt, id) through idx_guests_event_created. Scanner projection: no preference
+     * note or check-in location.
+     */
+    @NonNull
+    public List<Guest> listGuestsPage(long eventId, @Nullable Guest after, int limit) {
+        String selection = COL_GUEST_EVENT_ID + "=?";
+        String[] args;
+        if (after != null) {
+            String v = String.valueOf(after.createdAt);
+            selection += " AND (" + COL_GUEST_CREATED_AT + " < ? OR (" + COL_GUEST_CREATED_AT + " = ? AND "
+                    + COL_GUEST_ID + " < ?))";
+            args = new String[]{String.valueOf(eventId), v, v, String.valueOf(after.id)};
+        } else {
+            args = new String[]{String.valueOf(eventId)};
+        }
+
+        SQLiteDatabase db = getReadableDatabase();
+        Cursor c = db.query(TABLE_GUESTS, GuestRowMapper.SCANNER_COLUMNS, selection, args, null, null,
+                COL_GUEST_CREATED_AT + " DESC, " + COL_GUEST_ID + " DESC", String.valueOf(limit));
+        GuestRowMapper mapper = new GuestRowMapper(c);
+        List<Guest> out = new ArrayList<>(Math.min(limit, c.getCount()));
+        while (c.moveToNext()) out.add(mapper.map(c));
+        c.close();
+        return out;
+    }
+
+    public interface GuestSink {
+        void accept(@NonNull Guest guest) throws IOException;
+    }
+
+    /**
+     * Streams one event's guests in id order (GuestRowMapper.EXPORT_COLUMNS), EXPORT_PAGE_ROWS
+     * per query, keyset on id. Only one page is ever in memory and the same Guest object is
+     * handed to the sink for every row, so cost stays flat for any guest count. Pages are
+     * separate reads: check-ins arriving meanwhile may or may not be included.
+     *
+     * @return number of rows streamed
+     */
+    public int forEachGuest(long eventId, @NonNull GuestSink sink) throws IOException {
+        SQLiteDatabase db = getReadableDatabase();
+        String sql = "SELECT " + String.join(", ", GuestRowMapper.EXPORT_COLUMNS) + " FROM " + TABLE_GUESTS
+                + " WHERE " + COL_GUEST_EVENT_ID + "=? AND " + COL_GUEST_ID + ">?"
+                + " ORDER BY " + COL_GUEST_ID + " LIMIT " + EXPORT_PAGE_ROWS;
+        String[] args = {String.valueOf(eventId), "0"};
+        Guest row = new Guest();
+        int total = 0;
+        while (true) {
+            Cursor c = db.rawQuery(sql, args);
+            int n = 0;
+            try {
+                GuestRowMapper mapper = new GuestRowMapper(c);
+                while (c.moveToNext()) {
+                    mapper.mapInto(c, row);
+                    sink.accept(row);
+                    n++;
+                }
+            } finally {
+                c.close();
+            }
+            total += n;
+            if (n < EXPORT_PAGE_ROWS) return total;
+            args[1] = String.valueOf(row.id);
+        }
+    }
+
+    /**
+     * Loads the whole roster of one event into a GuestTokenIndex in a single pass.
+     * Only the columns the scanner needs are read.
+     */
+    @NonNull
+    public GuestTokenIndex loadGuestTokenIndex(long eventId) {
+        SQLiteDatabase db = getReadableDatabase();
+        Cursor c = db.query(TABLE_GUESTS,
+                new String[]{COL_GUEST_ID, COL_GUEST_TOKEN, COL_GUEST_NAME, COL_GUEST_RSVP_STATUS, COL_GUEST_CHECKED_IN_AT},
+                COL_GUEST_EVENT_ID + "=?", new String[]{String.valueOf(eventId)},
+                null, null, null);
+        GuestTokenIndex index = new GuestTokenIndex(c.getCount());
+        while (c.moveToNext()) {
+            index.put(c.getLong(0), c.getString(1), c.getString(2),
+                    RSVP_YES.equalsIgnoreCase(c.getString(3)), c.isNull(4) ? 0L : c.getLong(4));
+        }
+        c.close();
+        return index;
+    }
+
     public boolean markCheckedIn(@NonNull String token, long checkedInAt, @Nullable Double lat, @Nullable Double lng) {
-        SQLiteDatabase db = getWritableDatabase();
-        ContentValues cv = new ContentValues();
-        cv.put(COL_GUEST_CHECKED_IN_AT, checkedInAt);
-        if (lat != null) cv.put(COL_GUEST_CHECKED_IN_LAT, lat);
-        if (lng != null) cv.put(COL_GUEST_CHECKED_IN_LNG, lng);
-        int rows = db.update(TABLE_GUESTS, cv, COL_GUEST_TOKEN + "=?", new String[]{token});
-        return rows > 0;
+        return statements().execute(SQL_MARK_CHECKED_IN,
+                st -> bindCheckIn(st, token, checkedInAt, lat, lng).executeUpdateDelete() > 0);
+    }
+
+    /** Like markCheckedIn(), but leaves an already checked-in guest untouched (returns false). */
+    public boolean markCheckedInIfNotYet(@NonNull String token, long checkedInAt,
+                                         @Nullable Double lat, @Nullable Double lng) {
+        return statements().execute(SQL_MARK_CHECKED_IN_IF_NOT_YET,
+                st -> bindCheckIn(st, token, checkedInAt, lat, lng).executeUpdateDelete() > 0);
+    }
+
+    /**
+     * Applies many check-ins in ONE transaction (one commit / fsync for the whole batch).
+     * Rows that are already checked-in are left untouched, so replaying the same entries
+     * (CheckInJournal after a crash) is harmless.
+     *
+     * @return number of guests actually updated
+     */
+    public int markCheckedInBatch(@NonNull List<CheckInJournal.Entry> entries) {
+        if (entries.isEmpty()) return 0;
+        // execute() runs the whole loop inside one transaction on one compiled statement.
+        return statements().execute(SQL_MARK_CHECKED_IN_IF_NOT_YET, st -> {
+            int updated = 0;
+            for (CheckInJournal.Entry e : entries) {
+                updated += bindCheckIn(st, e.token, e.checkedInAt, e.lat, e.lng).executeUpdateDelete();
+            }
+            return updated;
+        });
+    }
+
+    @NonNull
+    private static SQLiteStatement bindCheckIn(@NonNull SQLiteStatement st, @NonNull String token, long checkedInAt,
+                                               @Nullable Double lat, @Nullable Double lng) {
+        st.bindLong(1, checkedInAt);
+        bindReal(st, 2, lat);
+        bindReal(st, 3, lng);
+        st.bindString(4, token);
+        return st;
     }
 
     public int countInvited(long eventId) {
@@ -388,6 +815,28 @@ public class AppDatabase extends SQLiteOpenHelper {
                 new String[]{String.valueOf(eventId)});
     }
 
+    /**
+     * invited / RSVP-yes / checked-in for one event in a single pass over its guest rows
+     * (same definitions as countInvited(), countRsvpYes() and countCheckedIn()).
+     */
+    @NonNull
+    public GuestStats getGuestStats(long eventId) {
+        SQLiteDatabase db = getReadableDatabase();
+        Cursor c = db.rawQuery("SELECT COUNT(*), "
+                        + "SUM(CASE WHEN " + COL_GUEST_RSVP_STATUS + "=? THEN 1 ELSE 0 END), "
+                        + "SUM(CASE WHEN " + COL_GUEST_CHECKED_IN_AT + " IS NOT NULL THEN 1 ELSE 0 END) "
+                        + "FROM " + TABLE_GUESTS + " WHERE " + COL_GUEST_EVENT_ID + "=?",
+                new String[]{RSVP_YES, String.valueOf(eventId)});
+        GuestStats stats = new GuestStats();
+        if (c.moveToFirst()) {
+            stats.invited = c.getInt(0);
+            stats.rsvpYes = c.getInt(1);   // SUM over no rows is NULL -> 0
+            stats.checkedIn = c.getInt(2);
+        }
+        c.close();
+        return stats;
+    }
+
     private int countGuestsByWhere(@NonNull String where, @NonNull String[] args) {
         SQLiteDatabase db = getReadableDatabase();
         Cursor c = db.rawQuery("SELECT COUNT(*) FROM " + TABLE_GUESTS + " WHERE " + where, args);
@@ -410,52 +859,111 @@ public class AppDatabase extends SQLiteOpenHelper {
     }
 
     // -----------------------------
-    // Cursor mappers
+    // My tickets
     // -----------------------------
-    @NonNull
-    private Event readEvent(@NonNull Cursor c) {
-        Event e = new Event();
-        e.id = c.getLong(c.getColumnIndexOrThrow(COL_EVENT_ID));
-        e.title = c.getString(c.getColumnIndexOrThrow(COL_EVENT_TITLE));
-        e.description = c.getString(c.getColumnIndexOrThrow(COL_EVENT_DESCRIPTION));
-        e.location = c.getString(c.getColumnIndexOrThrow(COL_EVENT_LOCATION));
-        int idxLat = c.getColumnIndex(COL_EVENT_LATITUDE);
-        if (idxLat >= 0) e.latitude = c.getDouble(idxLat);
-        int idxLng = c.getColumnIndex(COL_EVENT_LONGITUDE);
-        if (idxLng >= 0) e.longitude = c.getDouble(idxLng);
-        e.datetimeMillis = c.getLong(c.getColumnIndexOrThrow(COL_EVENT_DATETIME_MILLIS));
-        e.coverUri = c.getString(c.getColumnIndexOrThrow(COL_EVENT_COVER_URI));
-        e.createdAt = c.getLong(c.getColumnIndexOrThrow(COL_EVENT_CREATED_AT));
-        return e;
+
+    /** Remembers a joined ticket; adding the same token again keeps its original addedAt. */
+    public boolean addMyTicket(@NonNull String token, long eventId, long addedAt) {
+        SQLiteDatabase db = getWritableDatabase();
+        ContentValues cv = new ContentValues();
+        cv.put(COL_MY_TICKET_TOKEN, token);
+        cv.put(COL_MY_TICKET_EVENT_ID, eventId);
+        cv.put(COL_MY_TICKET_ADDED_AT, addedAt);
+        return db.insertWithOnConflict(TABLE_MY_TICKETS, null, cv, SQLiteDatabase.CONFLICT_IGNORE) != -1;
     }
 
+    public boolean removeMyTicket(@NonNull String token) {
+        SQLiteDatabase db = getWritableDatabase();
+        return db.delete(TABLE_MY_TICKETS, COL_MY_TICKET_TOKEN + "=?", new String[]{token}) > 0;
+    }
+
+    public void clearMyTickets() {
+        getWritableDatabase().delete(TABLE_MY_TICKETS, null, null);
+    }
+
+    /**
+     * Bulk add of known tokens (one transaction). eventId / addedAt come from the guest row;
+     * tokens without a guest row are dropped, they could never show a ticket anyway.
+     *
+     * @return number of tickets added
+     */
+    public int importMyTickets(@NonNull Collection<String> tokens) {
+        if (tokens.isEmpty()) return 0;
+        SQLiteDatabase db = getWritableDatabase();
+        int added = 0;
+        db.beginTransaction();
+        try {
+            SQLiteStatement st = db.compileStatement("INSERT OR IGNORE INTO " + TABLE_MY_TICKETS + " ("
+                    + COL_MY_TICKET_TOKEN + ", " + COL_MY_TICKET_EVENT_ID + ", " + COL_MY_TICKET_ADDED_AT + ") "
+                    + "SELECT " + COL_GUEST_TOKEN + ", " + COL_GUEST_EVENT_ID + ", " + COL_GUEST_CREATED_AT
+                    + " FROM " + TABLE_GUESTS + " WHERE " + COL_GUEST_TOKEN + "=?");
+            try {
+                for (String token : tokens) {
+                    st.bindString(1, token);
+                    added += st.executeUpdateDelete();
+                }
+            } finally {
+                st.close();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        return added;
+    }
+
+    /** Joined tokens, most recently added first. */
     @NonNull
-    private Guest readGuest(@NonNull Cursor c) {
-        Guest g = new Guest();
-        g.id = c.getLong(c.getColumnIndexOrThrow(COL_GUEST_ID));
-        g.eventId = c.getLong(c.getColumnIndexOrThrow(COL_GUEST_EVENT_ID));
-        g.name = c.getString(c.getColumnIndexOrThrow(COL_GUEST_NAME)); // may be null
-        g.token = c.getString(c.getColumnIndexOrThrow(COL_GUEST_TOKEN));
-        g.rsvpStatus = c.getString(c.getColumnIndexOrThrow(COL_GUEST_RSVP_STATUS));
-        g.menuChoice = c.getString(c.getColumnIndexOrThrow(COL_GUEST_MENU_CHOICE));
-        g.preferenceNote = c.getString(c.getColumnIndexOrThrow(COL_GUEST_PREFERENCE_NOTE));
-        g.createdAt = c.getLong(c.getColumnIndexOrThrow(COL_GUEST_CREATED_AT));
-
-        int idxChecked = c.getColumnIndex(COL_GUEST_CHECKED_IN_AT);
-        if (idxChecked >= 0 && !c.isNull(idxChecked)) g.checkedInAt = c.getLong(idxChecked);
-
-        int idxLat = c.getColumnIndex(COL_GUEST_CHECKED_IN_LAT);
-        if (idxLat >= 0 && !c.isNull(idxLat)) g.checkedInLat = c.getDouble(idxLat);
-
-        int idxLng = c.getColumnIndex(COL_GUEST_CHECKED_IN_LNG);
-        if (idxLng >= 0 && !c.isNull(idxLng)) g.checkedInLng = c.getDouble(idxLng);
+    public List<String> listMyTicketTokens() {
+        SQLiteDatabase db = getReadableDatabase();
+        Cursor c = db.rawQuery("SELECT " + COL_MY_TICKET_TOKEN + " FROM " + TABLE_MY_TICKETS
+                + " ORDER BY " + COL_MY_TICKET_ADDED_AT + " DESC", null);
+        List<String> out = new ArrayList<>(c.getCount());
+        while (c.moveToNext()) out.add(c.getString(0));
+        c.close();
+        return out;
+    }
 
-        return g;
+    /**
+     * "My tickets" list: my_tickets joined with guests and events in one statement, reading
+     * only the columns a row shows, ordered by event date (then guest id) in SQL.
+     * Tickets whose guest or event was deleted are skipped.
+     */
+    @NonNull
+    public List<TicketRow> listMyTicketRows() {
+        SQLiteDatabase db = getReadableDatabase();
+        Cursor c = db.rawQuery("SELECT g." + COL_GUEST_TOKEN + ", e." + COL_EVENT_TITLE + ", e." + COL_EVENT_DATETIME_MILLIS + ", "
+                + "(g." + COL_GUEST_CHECKED_IN_AT + " IS NOT NULL AND g." + COL_GUEST_CHECKED_IN_AT + " > 0), "
+                + "(g." + COL_GUEST_NAME + " IS NOT NULL AND TRIM(g." + COL_GUEST_NAME + ") <> '') "
+                + "FROM " + TABLE_MY_TICKETS + " t"
+                + " JOIN " + TABLE_GUESTS + " g ON g." + COL_GUEST_TOKEN + " = t." + COL_MY_TICKET_TOKEN
+                + " JOIN " + TABLE_EVENTS + " e ON e." + COL_EVENT_ID + " = g." + COL_GUEST_EVENT_ID
+                + " ORDER BY e." + COL_EVENT_DATETIME_MILLIS + " ASC, g." + COL_GUEST_ID + " ASC", null);
+        List<TicketRow> out = new ArrayList<>(c.getCount());
+        while (c.moveToNext()) {
+            TicketRow r = new TicketRow();
+            r.token = c.getString(0);
+            r.eventTitle = c.getString(1) != null ? c.getString(1) : "Event";
+            r.eventWhenMillis = c.getLong(2);
+            r.checkedIn = c.getInt(3) != 0;
+            r.guestHasName = c.getInt(4) != 0;
+            out.add(r);
+        }
+        c.close();
+        return out;
     }
 
     // -----------------------------
     // Utilities
     // -----------------------------
+    private static void bindText(@NonNull SQLiteStatement st, int index, @Nullable String value) {
+        if (value != null) st.bindString(index, value); else st.bindNull(index);
+    }
+
+    private static void bindReal(@NonNull SQLiteStatement st, int index, @Nullable Double value) {
+        if (value != null) st.bindDouble(index, value); else st.bindNull(index);
+    }
+
     @Nullable
     public static String safeTrim(@Nullable String s) {
         if (s == null) return null;
@@ -465,9 +973,7 @@ public class AppDatabase extends SQLiteOpenHelper {
 
     @NonNull
     public static String formatTokenShort(@NonNull String token) {
-        String t = token.replace("-", "");
-        if (t.length() <= 8) return t;
-        return t.substring(0, 8).toUpperCase(Locale.US);
+        return TicketTokens.formatShort(token);
     }
 
     @Nullable
@@ -493,6 +999,20 @@ public class AppDatabase extends SQLiteOpenHelper {
         public long datetimeMillis;
         public String coverUri;
         public long createdAt;
+        // Pre-sized cover variants (nullable; older events only have coverUri)
+        public String coverThumbUri;
+        public String coverHeroUri;
+        public String coverTicketUri;
+
+        @Nullable
+        public String coverVariantUri(@NonNull CoverVariant variant) {
+            switch (variant) {
+                case THUMB: return coverThumbUri;
+                case HERO: return coverHeroUri;
+                case TICKET: return coverTicketUri;
+                default: return null;
+            }
+        }
     }
 
     public static class Guest {
@@ -519,6 +1039,38 @@ public class AppDatabase extends SQLiteOpenHelper {
         public boolean hasName() {
             return name != null && name.trim().length() > 0;
         }
+
+        @NonNull
+        public Guest copy() {
+            Guest g = new Guest();
+            g.id = id;
+            g.eventId = eventId;
+            g.name = name;
+            g.token = token;
+            g.rsvpStatus = rsvpStatus;
+            g.menuChoice = menuChoice;
+            g.preferenceNote = preferenceNote;
+            g.createdAt = createdAt;
+            g.checkedInAt = checkedInAt;
+            g.checkedInLat = checkedInLat;
+            g.checkedInLng = checkedInLng;
+            return g;
+        }
+    }
+
+    public static class GuestStats {
+        public int invited;
+        public int rsvpYes;
+        public int checkedIn;
+    }
+
+    /** Lightweight projection for the guest's "My tickets" list. */
+    public static class TicketRow {
+        public String token;
+        public String eventTitle;
+        public long eventWhenMillis;
+        public boolean checkedIn;
+        public boolean guestHasName;
     }
 
     public static class TicketBundle {
@@ -1,9 +1,6 @@
 package com.ergi.rusdihari;
 
-import android.content.Context;
 import android.content.Intent;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.net.Uri;
 import android.os.Bundle;
 import android.text.TextUtils;
@@ -16,6 +13,11 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.ergi.rusdihari.data.AppRepository;
+import com.ergi.rusdihari.data.CallScope;
+import com.ergi.rusdihari.image.CoverImporter;
+import com.ergi.rusdihari.image.CoverVariant;
+import com.ergi.rusdihari.image.ImageLoader;
 import com.google.android.material.appbar.MaterialToolbar;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.datepicker.MaterialDatePicker;
@@ -23,10 +25,6 @@ import com.google.android.material.snackbar.Snackbar;
 import com.google.android.material.timepicker.MaterialTimePicker;
 import com.google.android.material.timepicker.TimeFormat;
 
-import java.io.File;
-import java.io.FileOutputStream;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Locale;
@@ -35,17 +33,21 @@ import java.util.Locale;
  * CreateEventActivity
  * - Input: title, description, location
  * - Pick: date & time (Material pickers)
- * - Pick cover image: GetContent image/* then COPY to internal storage
+ * - Pick cover image: GetContent image/* then generate sized variants in internal storage
  * - Publish: insert event into SQLite
  *
- * Why copy to internal storage?
+ * Why not keep the picked content:// URI?
  * - Photo Picker / GetContent can return temporary content:// URIs (picker_get_content)
  * - After app restart, permission may be gone -> SecurityException -> crash when ImageView decodes
- * - By copying to internal storage, we store file:// Uri that stays readable for this app.
+ * - CoverImporter writes file:// variants (list / detail / ticket size) that stay readable,
+ *   so no screen ever decodes the full-size original again.
  */
 public class CreateEventActivity extends AppCompatActivity {
 
-    private AppDatabase database;
+    private static final String STATE_COVER = "state_cover";
+
+    private AppRepository repository;
+    private CallScope scope;
 
     private MaterialToolbar toolbar;
     private ImageView coverPreviewImageView;
@@ -59,8 +61,9 @@ public class CreateEventActivity extends AppCompatActivity {
 
     private MaterialButton publishButton;
 
-    // We store INTERNAL file uri (file://...) here after copying.
-    private Uri selectedCoverUri = null;
+    // Internal file:// variants of the picked cover (null = default cover).
+    private CoverImporter.Result selectedCover = null;
+    private boolean published = false;
 
     // Selected date/time components
     private Integer selectedYear = null;
@@ -80,18 +83,7 @@ public class CreateEventActivity extends AppCompatActivity {
             registerForActivityResult(new ActivityResultContracts.GetContent(), uri -> {
                 if (uri == null) return;
 
-                View anchor = (publishButton != null) ? publishButton : coverPreviewImageView;
-
-                Uri saved = copyUriToInternalStorage(uri);
-                if (saved != null) {
-                    selectedCoverUri = saved;
-                    renderCoverPreview();
-                    Snackbar.make(anchor, "Cover saved locally.", Snackbar.LENGTH_SHORT).show();
-                } else {
-                    selectedCoverUri = null;
-                    renderCoverPreview();
-                    Snackbar.make(anchor, "Failed to save cover image. Using default.", Snackbar.LENGTH_LONG).show();
-                }
+                importCover(uri);
             });
 
     private final ActivityResultLauncher<Intent> mapPickerLauncher =
@@ -113,7 +105,11 @@ public class CreateEventActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_create_event);
 
-        database = new AppDatabase(this);
+        repository = AppRepository.getInstance(this);
+        scope = CallScope.bindTo(this);
+        if (savedInstanceState != null) {
+            selectedCover = CoverImporter.Result.fromBundle(savedInstanceState.getBundle(STATE_COVER));
+        }
 
         bindViews();
         setupToolbar();
@@ -125,6 +121,21 @@ public class CreateEventActivity extends AppCompatActivity {
         renderCoverPreview();
     }
 
+    @Override
+    protected void onSaveInstanceState(@NonNull Bundle outState) {
+        super.onSaveInstanceState(outState);
+        // The variants outlive a rotation: the recreated screen takes them over.
+        if (selectedCover != null) outState.putBundle(STATE_COVER, selectedCover.toBundle());
+    }
+
+    @Override
+    protected void onDestroy() {
+        // Variants of a cover that never got published are just litter in files/covers.
+        // Not finishing = recreated, and the new instance got them via onSaveInstanceState.
+        if (!published && isFinishing()) CoverImporter.getInstance(this).discard(selectedCover);
+        super.onDestroy();
+    }
+
     private void bindViews() {
         toolbar = findViewById(R.id.toolbar);
         coverPreviewImageView = findViewById(R.id.coverPreviewImageView);
@@ -209,14 +220,17 @@ public class CreateEventActivity extends AppCompatActivity {
             if (!validateInputs()) return;
 
             AppDatabase.Event e = buildEventFromInputs();
-            long id = database.insertEvent(e);
-
-            if (id > 0) {
-                Snackbar.make(publishButton, "Event published locally.", Snackbar.LENGTH_LONG).show();
-                finish();
-            } else {
-                Snackbar.make(publishButton, "Failed to save event.", Snackbar.LENGTH_LONG).show();
-            }
+            publishButton.setEnabled(false);
+            repository.insertEvent(scope, e, id -> {
+                publishButton.setEnabled(true);
+                if (id != null && id > 0) {
+                    published = true;
+                    Snackbar.make(publishButton, "Event published locally.", Snackbar.LENGTH_LONG).show();
+                    finish();
+                } else {
+                    Snackbar.make(publishButton, "Failed to save event.", Snackbar.LENGTH_LONG).show();
+                }
+            });
         });
     }
 
@@ -248,7 +262,12 @@ public class CreateEventActivity extends AppCompatActivity {
         e.location = textOf(locationEditText);
         if (selectedLat != null) e.latitude = selectedLat;
         if (selectedLng != null) e.longitude = selectedLng;
-        e.coverUri = (selectedCoverUri != null) ? selectedCoverUri.toString() : null;
+        if (selectedCover != null) {
+            e.coverThumbUri = uriString(selectedCover.get(CoverVariant.THUMB));
+            e.coverHeroUri = uriString(selectedCover.get(CoverVariant.HERO));
+            e.coverTicketUri = uriString(selectedCover.get(CoverVariant.TICKET));
+            e.coverUri = e.coverHeroUri;
+        }
         e.createdAt = System.currentTimeMillis();
         e.datetimeMillis = buildDateTimeMillis();
         return e;
@@ -266,80 +285,47 @@ public class CreateEventActivity extends AppCompatActivity {
         return c.getTimeInMillis();
     }
 
+    @Nullable
+    private static String uriString(@Nullable Uri uri) {
+        return uri != null ? uri.toString() : null;
+    }
+
     /**
-     * IMPORTANT: do NOT use ImageView.setImageURI() here.
-     * It can decode later during measurement and crash if a bad content Uri slips in.
-     * We decode a bitmap ourselves and setImageBitmap().
+     * Resizes the picked image in the background; publishing waits until the variants exist.
      */
-    private void renderCoverPreview() {
-        coverPreviewImageView.setImageDrawable(null);
-        coverPreviewImageView.setBackgroundColor(0xFF111827);
-
-        if (selectedCoverUri == null) return;
-
-        try {
-            Bitmap bmp = decodeBitmapFromUri(this, selectedCoverUri);
-            if (bmp != null) {
-                coverPreviewImageView.setImageBitmap(bmp);
+    private void importCover(@NonNull Uri source) {
+        View anchor = (publishButton != null) ? publishButton : coverPreviewImageView;
+        publishButton.setEnabled(false);
+        pickCoverButton.setEnabled(false);
+
+        CoverImporter.getInstance(this).importCover(source, result -> {
+            if (isDestroyed()) {
+                CoverImporter.getInstance(this).discard(result);
+                return;
             }
-        } catch (Exception ignored) {
-            coverPreviewImageView.setImageDrawable(null);
-            coverPreviewImageView.setBackgroundColor(0xFF111827);
-        }
-    }
-
-    @Nullable
-    private static Bitmap decodeBitmapFromUri(@NonNull Context context, @NonNull Uri uri) {
-        InputStream in = null;
-        try {
-            in = context.getContentResolver().openInputStream(uri);
-            if (in == null) return null;
-
-            // Optional: downsample if you want (keeps memory low)
-            BitmapFactory.Options opts = new BitmapFactory.Options();
-            opts.inPreferredConfig = Bitmap.Config.RGB_565;
-
-            return BitmapFactory.decodeStream(in, null, opts);
-        } catch (Exception e) {
-            return null;
-        } finally {
-            try { if (in != null) in.close(); } catch (Exception ignored) {}
-        }
+            publishButton.setEnabled(true);
+            pickCoverButton.setEnabled(true);
+
+            CoverImporter.getInstance(this).discard(selectedCover);
+            selectedCover = result;
+            renderCoverPreview();
+            if (result != null) {
+                Snackbar.make(anchor, "Cover saved locally.", Snackbar.LENGTH_SHORT).show();
+            } else {
+                Snackbar.make(anchor, "Failed to save cover image. Using default.", Snackbar.LENGTH_LONG).show();
+            }
+        });
     }
 
     /**
-     * Copy picked image content://... to internal storage files/covers/ as jpg bytes.
-     * Returns a stable file:// Uri.
+     * IMPORTANT: do NOT use ImageView.setImageURI() here.
+     * It can decode later during measurement and crash if a bad content Uri slips in.
+     * ImageLoader decodes the (already small) variant off the main thread.
      */
-    @Nullable
-    private Uri copyUriToInternalStorage(@NonNull Uri sourceUri) {
-        InputStream in = null;
-        OutputStream out = null;
-
-        try {
-            in = getContentResolver().openInputStream(sourceUri);
-            if (in == null) return null;
-
-            File dir = new File(getFilesDir(), "covers");
-            if (!dir.exists()) dir.mkdirs();
-
-            File destFile = new File(dir, "cover_" + System.currentTimeMillis() + ".jpg");
-            out = new FileOutputStream(destFile);
-
-            byte[] buffer = new byte[8192];
-            int read;
-            while ((read = in.read(buffer)) != -1) {
-                out.write(buffer, 0, read);
-            }
-            out.flush();
-
-            return Uri.fromFile(destFile);
-        } catch (Exception e) {
-            return null;
-        } finally {
-            try { if (in != null) in.close(); } catch (Exception ignored) {}
-            try { if (out != null) out.close(); } catch (Exception ignored) {}
-        }
+    private void renderCoverPreview() {
+        coverPreviewImageView.setBackgroundColor(0xFF111827);
+        Uri preview = selectedCover != null ? selectedCover.get(CoverVariant.HERO) : null;
+        ImageLoader.getInstance(this).load(uriString(preview), coverPreviewImageView);
     }
 
     @Nullable
@@ -11,7 +11,16 @@ import android.widget.RadioGroup;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.appcompat.app.AppCompatActivity;
+import com.ergi.rusdihari.core.TicketTokens;
+import com.ergi.rusdihari.data.AppRepository;
+import com.ergi.rusdihari.data.CallScope;
+import com.ergi.rusdihari.data.GuestCsvImporter;
+import com.ergi.rusdihari.data.GuestExporter;
+import com.ergi.rusdihari.image.CoverVariant;
+import com.ergi.rusdihari.image.ImageLoader;
 import com.google.android.material.appbar.MaterialToolbar;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.snackbar.Snackbar;
@@ -22,7 +31,8 @@ import java.util.Locale;
  * EventDetailActivity
  * - Show event detail (cover, title, meta, description)
  * - Mode:
- *   - Admin: show scanner button + share invitation text
+ *   - Admin: show scanner button + share invitation text + bulk guest import (CSV)
+ *     + guest list / check-in export (CSV or compact binary)
  *   - Guest: show RSVP form and submit -> create guest + token
  *
  * Limitation:
@@ -33,7 +43,8 @@ public class EventDetailActivity extends AppCompatActivity {
     public static final String EXTRA_MODE = "extra_mode";
     public static final String MODE_ADMIN = "mode_admin";
     public static final String MODE_GUEST = "mode_guest";
-    private AppDatabase database;
+    private AppRepository repository;
+    private CallScope scope;
     private MaterialToolbar toolbar;
     private ImageView coverImageView;
     private TextView titleTextView;
@@ -42,6 +53,8 @@ public class EventDetailActivity extends AppCompatActivity {
     private LinearLayout adminActionsContainer;
     private MaterialButton openScannerButton;
     private MaterialButton shareInvitationButton;
+    private MaterialButton importGuestsButton;
+    private MaterialButton exportGuestsButton;
     private LinearLayout guestRsvpContainer;
     private com.google.android.material.textfield.TextInputEditText guestNameEditText;
     private RadioGroup rsvpRadioGroup;
@@ -60,12 +73,29 @@ public class EventDetailActivity extends AppCompatActivity {
     private String mode = MODE_GUEST;
     private AppDatabase.Event event;
     private String createdTokenForThisScreen = null;
+    private GuestCsvImporter.Job importJob;
+    private Snackbar importSnackbar;
+    private final ActivityResultLauncher<String[]> pickCsvLauncher =
+            registerForActivityResult(new ActivityResultContracts.OpenDocument(), uri -> {
+                if (uri != null) startGuestImport(uri);
+            });
+    private final ActivityResultLauncher<String> exportCsvLauncher = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument(GuestExporter.Format.CSV.mimeType),
+            uri -> {
+                if (uri != null) startGuestExport(uri, GuestExporter.Format.CSV);
+            });
+    private final ActivityResultLauncher<String> exportBinaryLauncher = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument(GuestExporter.Format.BINARY.mimeType),
+            uri -> {
+                if (uri != null) startGuestExport(uri, GuestExporter.Format.BINARY);
+            });
     private final SimpleDateFormat pretty = new SimpleDateFormat("EEE, dd MMM yyyy • HH:mm", Locale.getDefault());
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_event_detail);
-        database = new AppDatabase(this);
+        repository = AppRepository.getInstance(this);
+        scope = CallScope.bindTo(this);
         readIntent();
         bindViews();
         setupToolbar();
@@ -73,6 +103,8 @@ public class EventDetailActivity extends AppCompatActivity {
         setupModeUi();
         setupGuestForm();
         setupAdminActions();
+        followRunningImport();
+        followRunningExport();
     }
     private void readIntent() {
         Intent i = getIntent();
@@ -89,6 +121,8 @@ public class EventDetailActivity extends AppCompatActivity {
         adminActionsContainer = findViewById(R.id.adminActionsContainer);
         openScannerButton = findViewById(R.id.openScannerButton);
         shareInvitationButton = findViewById(R.id.shareInvitationButton);
+        importGuestsButton = findViewById(R.id.importGuestsButton);
+        exportGuestsButton = findViewById(R.id.exportGuestsButton);
         guestRsvpContainer = findViewById(R.id.guestRsvpContainer);
         guestNameEditText = findViewById(R.id.guestNameEditText);
         rsvpRadioGroup = findViewById(R.id.rsvpRadioGroup);
@@ -109,31 +143,27 @@ public class EventDetailActivity extends AppCompatActivity {
         toolbar.setNavigationOnClickListener(v -> finish());
     }
     private void loadEvent() {
-        event = database.getEventById(eventId);
-        if (event == null) {
-            Snackbar.make(toolbar, "Event not found.", Snackbar.LENGTH_LONG).show();
-            finish();
-            return;
-        }
+        repository.getEventById(scope, eventId, loaded -> {
+            if (loaded == null) {
+                Snackbar.make(toolbar, "Event not found.", Snackbar.LENGTH_LONG).show();
+                finish();
+                return;
+            }
+            event = loaded;
+            renderEvent();
+        });
+    }
+    private void renderEvent() {
         titleTextView.setText(event.title != null ? event.title : "(untitled)");
         String meta = (event.location != null ? event.location : "Unknown location")
                 + " • " + pretty.format(new Date(event.datetimeMillis));
         metaTextView.setText(meta);
         descriptionTextView.setText(event.description != null ? event.description : "No description.");
-        renderCover(event.coverUri);
+        renderCover();
     }
-    private void renderCover(@Nullable String coverUri) {
-        if (coverUri == null) {
-            coverImageView.setImageDrawable(null);
-            coverImageView.setBackgroundColor(0xFF111827);
-            return;
-        }
-        try {
-            coverImageView.setImageURI(Uri.parse(coverUri));
-        } catch (Exception ex) {
-            coverImageView.setImageDrawable(null);
-            coverImageView.setBackgroundColor(0xFF111827);
-        }
+    private void renderCover() {
+        coverImageView.setBackgroundColor(0xFF111827);
+        ImageLoader.getInstance(this).loadCover(event, CoverVariant.HERO, coverImageView, null);
     }
     private void setupModeUi() {
         boolean isAdmin = MODE_ADMIN.equals(mode);
@@ -150,6 +180,7 @@ public class EventDetailActivity extends AppCompatActivity {
 
         // 🔥 INI YANG DITAMBAH / DIGANTI
         shareInvitationButton.setOnClickListener(v -> {
+            if (event == null) return; // still loading
             Intent i = new Intent(this, QRCodeActivity.class);
 
             // kirim data ke QR screen
@@ -158,6 +189,91 @@ public class EventDetailActivity extends AppCompatActivity {
 
             startActivity(i);
         });
+
+        importGuestsButton.setOnClickListener(v -> pickCsvLauncher.launch(new String[]{
+                "text/csv", "text/comma-separated-values", "text/plain", "application/vnd.ms-excel"}));
+
+        exportGuestsButton.setOnClickListener(v -> new androidx.appcompat.app.AlertDialog.Builder(this)
+                .setTitle("Export guest list")
+                .setItems(new String[]{"CSV (spreadsheet)", "Compact binary"}, (dialog, which) -> {
+                    String name = "guests_event_" + eventId;
+                    if (which == 0) exportCsvLauncher.launch(name + GuestExporter.Format.CSV.extension);
+                    else exportBinaryLauncher.launch(name + GuestExporter.Format.BINARY.extension);
+                })
+                .show());
+    }
+
+    private void startGuestExport(@NonNull Uri target, @NonNull GuestExporter.Format format) {
+        followExport(GuestExporter.getInstance(this).export(eventId, target, format));
+    }
+
+    private void followRunningExport() {
+        GuestExporter.Job running = GuestExporter.getInstance(this).currentJob(eventId);
+        if (running != null) followExport(running);
+    }
+
+    private void followExport(@NonNull GuestExporter.Job job) {
+        exportGuestsButton.setEnabled(false);
+        // Like the import: this screen is only held while started.
+        job.observe(this, r -> {
+            exportGuestsButton.setEnabled(true);
+            String msg = r.failure != null
+                    ? "Export failed: " + r.failure
+                    : "Exported " + r.rows + " guests (" + (r.bytes / 1024) + " KB).";
+            Snackbar.make(exportGuestsButton, msg, Snackbar.LENGTH_LONG).show();
+        });
+    }
+
+    // -----------------------------
+    // Bulk guest import (admin)
+    // -----------------------------
+    private void startGuestImport(@NonNull Uri csv) {
+        if (importJob != null) return;
+        followImport(GuestCsvImporter.getInstance(this).importGuests(eventId, csv));
+    }
+
+    /** After a rotation or a return to this screen, picks up an import that is still going. */
+    private void followRunningImport() {
+        GuestCsvImporter.Job running = GuestCsvImporter.getInstance(this).currentJob(eventId);
+        if (running != null) followImport(running);
+    }
+
+    private void followImport(@NonNull GuestCsvImporter.Job job) {
+        importJob = job;
+        importGuestsButton.setEnabled(false);
+        importSnackbar = Snackbar.make(importGuestsButton, "Importing guests…", Snackbar.LENGTH_INDEFINITE)
+                .setAction("Cancel", v -> job.cancel());
+        importSnackbar.show();
+
+        // The import keeps running if this screen closes; observe() only holds this screen
+        // while it is started, and a recreated one follows the job again in onCreate.
+        job.observe(this, new GuestCsvImporter.Listener() {
+            @Override
+            public void onProgress(@NonNull GuestCsvImporter.Progress p) {
+                if (importSnackbar == null) return;
+                String pct = p.totalBytes > 0 ? " (" + (int) (p.bytesRead * 100 / p.totalBytes) + "%)" : "";
+                importSnackbar.setText("Importing guests… " + p.imported + " added" + pct);
+            }
+
+            @Override
+            public void onFinished(@NonNull GuestCsvImporter.Progress p) {
+                importJob = null;
+                importGuestsButton.setEnabled(true);
+                if (importSnackbar != null) importSnackbar.dismiss();
+                importSnackbar = null;
+
+                String msg;
+                if (p.failure != null) {
+                    msg = "Import stopped: " + p.failure + ". " + p.imported + " guests added.";
+                } else if (p.cancelled) {
+                    msg = "Import cancelled. " + p.imported + " guests added.";
+                } else {
+                    msg = p.imported + " guests added" + (p.skipped > 0 ? ", " + p.skipped + " rows skipped" : "") + ".";
+                }
+                if (!p.rowErrors.isEmpty()) msg += "\n" + p.rowErrors.get(0);
+                Snackbar.make(importGuestsButton, msg, Snackbar.LENGTH_LONG).show();
+            }
+        });
     }
 
     private String buildInvitationTextForSharing() {
@@ -200,7 +316,7 @@ public class EventDetailActivity extends AppCompatActivity {
         String rsvp = rsvpYesRadio.isChecked() ? AppDatabase.RSVP_YES : AppDatabase.RSVP_NO;
         String menu = resolveMenuChoice();
         String note = safeText(preferenceEditText);
-        String token = database.generateToken();
+        String token = AppDatabase.generateToken();
         AppDatabase.Guest g = new AppDatabase.Guest();
         g.eventId = eventId;
         g.name = guestName;
@@ -209,14 +325,17 @@ public class EventDetailActivity extends AppCompatActivity {
         g.menuChoice = menu;
         g.preferenceNote = note;
         g.createdAt = System.currentTimeMillis();
-        long id = database.insertGuest(g);
-        if (id <= 0) {
-            Snackbar.make(submitRsvpButton, "Failed to submit RSVP (token may already exist).", Snackbar.LENGTH_LONG).show();
-            return;
-        }
-        createdTokenForThisScreen = token;
-        postRsvpActionsContainer.setVisibility(View.VISIBLE);
-        Snackbar.make(submitRsvpButton, "RSVP saved. Ticket token: " + AppDatabase.formatTokenShort(token), Snackbar.LENGTH_LONG).show();
+        submitRsvpButton.setEnabled(false);
+        repository.insertGuest(scope, g, id -> {
+            submitRsvpButton.setEnabled(true);
+            if (id == null || id <= 0) {
+                Snackbar.make(submitRsvpButton, "Failed to submit RSVP (token may already exist).", Snackbar.LENGTH_LONG).show();
+                return;
+            }
+            createdTokenForThisScreen = token;
+            postRsvpActionsContainer.setVisibility(View.VISIBLE);
+            Snackbar.make(submitRsvpButton, "RSVP saved. Ticket token: " + AppDatabase.formatTokenShort(token), Snackbar.LENGTH_LONG).show();
+        });
     }
     @NonNull
     private String resolveMenuChoice() {
@@ -231,7 +350,7 @@ public class EventDetailActivity extends AppCompatActivity {
     }
     @NonNull
     private String buildTicketLink(@NonNull String token) {
-        return "rusdihari://ticket?token=" + Uri.encode(token);
+        return TicketTokens.link(token);
     }
     private void shareText(@NonNull String text) {
         Intent share = new Intent(Intent.ACTION_SEND);
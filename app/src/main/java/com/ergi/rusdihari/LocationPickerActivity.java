@@ -13,6 +13,7 @@ import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.app.ActivityCompat;
 
+import com.ergi.rusdihari.startup.AppInitializers;
 import com.google.android.gms.common.api.Status;
 import com.google.android.gms.location.FusedLocationProviderClient;
 import com.google.android.gms.location.LocationServices;
@@ -22,7 +23,6 @@ import com.google.android.gms.maps.GoogleMap;
 import com.google.android.gms.maps.OnMapReadyCallback;
 import com.google.android.gms.maps.SupportMapFragment;
 import com.google.android.gms.maps.model.LatLng;
-import com.google.android.libraries.places.api.Places;
 import com.google.android.libraries.places.api.model.Place;
 import com.google.android.libraries.places.api.model.RectangularBounds;
 import com.google.android.libraries.places.widget.AutocompleteSupportFragment;
@@ -54,9 +54,7 @@ public class LocationPickerActivity extends AppCompatActivity implements OnMapRe
         setContentView(R.layout.activity_location_picker);
 
         // Inisialisasi API Key
-        if (!Places.isInitialized()) {
-            Places.initialize(getApplicationContext(), getApiKey());
-        }
+        AppInitializers.getInstance(this).get(AppInitializers.PLACES);
 
         fusedLocationClient = LocationServices.getFusedLocationProviderClient(this);
         tvCurrentAddress = findViewById(R.id.tvCurrentAddress);
@@ -81,17 +79,6 @@ public class LocationPickerActivity extends AppCompatActivity implements OnMapRe
         });
     }
 
-    private String getApiKey() {
-        try {
-            android.content.pm.ApplicationInfo app = getPackageManager()
-                    .getApplicationInfo(getPackageName(), android.content.pm.PackageManager.GET_META_DATA);
-            android.os.Bundle bundle = app.metaData;
-            return bundle.getString("com.google.android.geo.API_KEY");
-        } catch (Exception e) {
-            return "";
-        }
-    }
-
     private void setupSearchBar() {
         // Ambil fragment
         autocompleteFragment = (AutocompleteSupportFragment)
@@ -9,11 +9,13 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.activity.EdgeToEdge;
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.graphics.Insets;
 import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
 
+import com.ergi.rusdihari.startup.AppInitializers;
 import com.google.firebase.auth.FirebaseAuth;
 
 
@@ -31,7 +33,34 @@ public class LoginActivity extends AppCompatActivity {
         etEmail = findViewById(R.id.etEmail);
         etPassword = findViewById(R.id.etPassword);
         btnLogin = findViewById(R.id.btnLogin);
-        FirebaseAuth auth = FirebaseAuth.getInstance();
+        btnLogin.setEnabled(false);
+
+        TextView tvRegister = findViewById(R.id.tvRegister);
+        tvRegister.setOnClickListener(v -> {
+            startActivity(new Intent(this, RegisterActivity.class));
+        });
+
+        loadAuth();
+    }
+
+    private void loadAuth() {
+        // Usually already warmed up while MainActivity was idle; otherwise created off the main thread.
+        AppInitializers.getInstance(this).getAsync(AppInitializers.AUTH, this::onAuthReady, this::onAuthFailed);
+    }
+
+    private void onAuthFailed(@NonNull RuntimeException error) {
+        if (isFinishing() || isDestroyed()) return;
+
+        Toast.makeText(this, "Sign-in is unavailable, tap Login to retry", Toast.LENGTH_LONG).show();
+        btnLogin.setEnabled(true);
+        btnLogin.setOnClickListener(v -> {
+            btnLogin.setEnabled(false);
+            loadAuth();
+        });
+    }
+
+    private void onAuthReady(@NonNull FirebaseAuth auth) {
+        if (isFinishing() || isDestroyed()) return;
 
         if (auth.getCurrentUser() != null) {
             startActivity(new Intent(this, AdminDashboardActivity.class));
@@ -39,6 +68,7 @@ public class LoginActivity extends AppCompatActivity {
             return;
         }
 
+        btnLogin.setEnabled(true);
         btnLogin.setOnClickListener(v -> {
             String email = etEmail.getText().toString();
             String pass = etPassword.getText().toString();
@@ -52,10 +82,5 @@ public class LoginActivity extends AppCompatActivity {
                             Toast.makeText(this, e.getMessage(), Toast.LENGTH_SHORT).show()
                     );
         });
-
-        TextView tvRegister = findViewById(R.id.tvRegister);
-        tvRegister.setOnClickListener(v -> {
-            startActivity(new Intent(this, RegisterActivity.class));
-        });
     }
 }
\ No newline at end of file
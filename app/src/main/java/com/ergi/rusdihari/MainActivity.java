@@ -5,7 +5,6 @@ import android.content.Intent;
 import android.content.pm.PackageManager;
 import android.os.Build;
 import android.os.Bundle;
-import android.util.Log;
 import android.widget.TextView;
 
 import androidx.activity.EdgeToEdge;
@@ -17,8 +16,9 @@ import androidx.fragment.app.Fragment;
 
 import com.ergi.rusdihari.fragments.EnterCodeFragment;
 import com.ergi.rusdihari.fragments.MyEventsFragment;
+import com.ergi.rusdihari.startup.AppInitializers;
+import com.ergi.rusdihari.startup.StartupOrchestrator;
 import com.google.android.material.tabs.TabLayout;
-import com.google.firebase.messaging.FirebaseMessaging;
 
 public class MainActivity extends AppCompatActivity {
 
@@ -30,8 +30,6 @@ public class MainActivity extends AppCompatActivity {
         EdgeToEdge.enable(this);
         setContentView(R.layout.activity_main);
 
-        FirebaseMessaging.getInstance().subscribeToTopic("events");
-
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
             if (checkSelfPermission(Manifest.permission.POST_NOTIFICATIONS)
                     != PackageManager.PERMISSION_GRANTED) {
@@ -43,13 +41,10 @@ public class MainActivity extends AppCompatActivity {
             }
         }
 
-        FirebaseMessaging.getInstance().getToken()
-                .addOnCompleteListener(task -> {
-                    if (!task.isSuccessful()) return;
-                    String token = task.getResult();
-                    Log.d("FCM_TOKEN", token);
-                });
-
+        // Messaging (topic "events", once per install) and Auth for the organizer link are
+        // created after the first frames, off the main thread.
+        AppInitializers.getInstance(this).whenIdle(
+                AppInitializers.EVENTS_TOPIC_SUBSCRIPTION, AppInitializers.AUTH);
 
         ViewCompat.setOnApplyWindowInsetsListener(findViewById(R.id.main), (v, insets) -> {
             Insets systemBars = insets.getInsets(WindowInsetsCompat.Type.systemBars());
@@ -102,5 +97,6 @@ public class MainActivity extends AppCompatActivity {
                     .commit();
         }
 
+        StartupOrchestrator.getInstance(this).trackInteractive(this);
     }
 }
\ No newline at end of file
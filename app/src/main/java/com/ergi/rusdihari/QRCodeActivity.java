@@ -1,6 +1,6 @@
 package com.ergi.rusdihari;
 
-import android.graphics.Bitmap;
+import android.graphics.Color;
 import android.os.Bundle;
 import android.widget.ImageView;
 import android.widget.TextView;
@@ -8,8 +8,7 @@ import android.widget.TextView;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.ergi.rusdihari.R;
-import com.google.zxing.BarcodeFormat;
-import com.journeyapps.barcodescanner.BarcodeEncoder;
+import com.ergi.rusdihari.image.QrRenderer;
 
 public class QRCodeActivity extends AppCompatActivity {
 
@@ -38,17 +37,8 @@ public class QRCodeActivity extends AppCompatActivity {
 
         tvEventCode.setText(eventCode);
 
-        try {
-            BarcodeEncoder encoder = new BarcodeEncoder();
-            Bitmap bitmap = encoder.encodeBitmap(
-                    eventCode,
-                    BarcodeFormat.QR_CODE,
-                    600,
-                    600
-            );
-            imgQRCode.setImageBitmap(bitmap);
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        QrRenderer.getInstance().render(eventCode, 600, Color.BLACK, Color.WHITE, bitmap -> {
+            if (!isDestroyed() && bitmap != null) imgQRCode.setImageBitmap(bitmap);
+        });
     }
 }
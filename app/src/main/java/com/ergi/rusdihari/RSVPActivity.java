@@ -1,5 +1,6 @@
 package com.ergi.rusdihari;
 
+import android.content.Context;
 import android.content.Intent;
 import android.os.Bundle;
 import android.widget.Button;
@@ -11,6 +12,7 @@ import android.widget.Toast;
 import androidx.activity.EdgeToEdge;
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.ergi.rusdihari.data.DbExecutors;
 import com.ergi.rusdihari.models.Event;
 import com.ergi.rusdihari.utils.EventStorage;
 
@@ -52,7 +54,9 @@ public class RSVPActivity extends AppCompatActivity {
                         "December 10, 2025" // temp value
                 );
 
-                EventStorage.saveEvent(this, event);
+                // One record appended to the event log, off the main thread.
+                Context app = getApplicationContext();
+                DbExecutors.writer().execute(() -> EventStorage.saveEvent(app, event));
 
                 Intent intent = new Intent(this, QRCodeActivity.class);
                 intent.putExtra("EVENT_NAME", event.getEventName());
@@ -7,8 +7,10 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.activity.EdgeToEdge;
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.ergi.rusdihari.startup.AppInitializers;
 import com.google.firebase.auth.FirebaseAuth;
 
 public class RegisterActivity extends AppCompatActivity {
@@ -28,9 +30,17 @@ public class RegisterActivity extends AppCompatActivity {
         etConfirmPassword = findViewById(R.id.etConfirmPassword);
         btnRegister = findViewById(R.id.btnRegister);
 
-        auth = FirebaseAuth.getInstance();
+        btnRegister.setEnabled(false);
+        loadAuth();
 
         btnRegister.setOnClickListener(v -> {
+            if (auth == null) {
+                // Auth failed to initialize earlier (see onAuthFailed): try again.
+                btnRegister.setEnabled(false);
+                loadAuth();
+                return;
+            }
+
             String email = etEmail.getText().toString().trim();
             String pass = etPassword.getText().toString().trim();
             String confirm = etConfirmPassword.getText().toString().trim();
@@ -60,4 +70,20 @@ public class RegisterActivity extends AppCompatActivity {
             finish(); // go back to LoginActivity
         });
     }
+
+    private void loadAuth() {
+        AppInitializers.getInstance(this).getAsync(AppInitializers.AUTH, this::onAuthReady, this::onAuthFailed);
+    }
+
+    private void onAuthReady(@NonNull FirebaseAuth a) {
+        if (isFinishing() || isDestroyed()) return;
+        auth = a;
+        btnRegister.setEnabled(true);
+    }
+
+    private void onAuthFailed(@NonNull RuntimeException error) {
+        if (isFinishing() || isDestroyed()) return;
+        Toast.makeText(this, "Registration is unavailable, tap Register to retry", Toast.LENGTH_LONG).show();
+        btnRegister.setEnabled(true);
+    }
 }
\ No newline at end of file
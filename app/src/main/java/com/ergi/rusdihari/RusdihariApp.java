@@ -0,0 +1,79 @@
+package com.ergi.rusdihari;
+
+import android.app.Application;
+import android.os.Build;
+import android.os.StrictMode;
+import android.os.strictmode.Violation;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RequiresApi;
+
+import com.ergi.rusdihari.image.ImageLoader;
+
+/**
+ * RusdihariApp - process-wide setup.
+ *
+ * Debug builds run with StrictMode. Disk or network access from this app's code on the main
+ * thread crashes the app, so a regression cannot slip through as a logcat line. Database
+ * work belongs on DbExecutors via AppRepository; the few deliberate main-thread writes are
+ * wrapped in StrictMode.allowThreadDiskWrites() (see CheckInJournal.enqueue).
+ *
+ * Violations raised inside SDKs we cannot change (Maps, Places, Firebase) are only logged.
+ * Telling them apart needs StrictMode's penalty listener (API 28+); older devices log and
+ * flash the screen instead.
+ */
+public class RusdihariApp extends Application {
+
+    private static final String APP_PACKAGE = "com.ergi.rusdihari.";
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        if (BuildConfig.DEBUG) enableStrictMode();
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        ImageLoader.getInstance(this).trimMemory(level);
+    }
+
+    private void enableStrictMode() {
+        StrictMode.ThreadPolicy.Builder thread = new StrictMode.ThreadPolicy.Builder()
+                .detectDiskReads()
+                .detectDiskWrites()
+                .detectNetwork()
+                .penaltyLog()
+                .penaltyDeathOnNetwork();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
+            // Runs on the violating thread: the throw ends the app like penaltyDeath() would.
+            thread.penaltyListener(Runnable::run, v -> {
+                if (isFromAppCode(v)) throw new IllegalStateException("Main-thread I/O in app code", v);
+            });
+        } else {
+            thread.penaltyFlashScreen();
+        }
+        StrictMode.setThreadPolicy(thread.build());
+
+        StrictMode.setVmPolicy(new StrictMode.VmPolicy.Builder()
+                .detectLeakedSqlLiteObjects()
+                .detectLeakedClosableObjects()
+                .penaltyLog()
+                .build());
+    }
+
+    /** True if the first frame outside the platform libraries belongs to this app. */
+    @RequiresApi(Build.VERSION_CODES.P)
+    private static boolean isFromAppCode(@NonNull Violation v) {
+        for (StackTraceElement frame : v.getStackTrace()) {
+            String c = frame.getClassName();
+            if (c.startsWith("android.") || c.startsWith("androidx.") || c.startsWith("com.android.")
+                    || c.startsWith("java.") || c.startsWith("javax.") || c.startsWith("libcore.")
+                    || c.startsWith("dalvik.") || c.startsWith("sun.")) {
+                continue;
+            }
+            return c.startsWith(APP_PACKAGE);
+        }
+        return false;
+    }
+}
@@ -2,10 +2,11 @@ package com.ergi.rusdihari;
 
 import android.Manifest;
 import android.annotation.SuppressLint;
+import android.content.Intent;
 import android.content.pm.PackageManager;
 import android.location.Location;
-import android.net.Uri;
 import android.os.Bundle;
+import android.os.SystemClock;
 import android.view.View;
 import android.widget.TextView;
 
@@ -15,36 +16,73 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.app.ActivityCompat;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.ergi.rusdihari.adapter.LoadMoreScrollListener;
+import com.ergi.rusdihari.core.CheckInEngine;
+import com.ergi.rusdihari.core.TicketTokens;
+import com.ergi.rusdihari.data.AppRepository;
+import com.ergi.rusdihari.data.CallScope;
+import com.ergi.rusdihari.data.CheckInJournal;
+import com.ergi.rusdihari.data.DbCall;
+import com.ergi.rusdihari.data.EventCheckInStats;
+import com.ergi.rusdihari.data.GuestTokenIndex;
+import com.ergi.rusdihari.utils.ScanRateMeter;
 import com.google.android.gms.location.FusedLocationProviderClient;
 import com.google.android.gms.location.LocationServices;
 import com.google.android.material.appbar.MaterialToolbar;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.progressindicator.LinearProgressIndicator;
 import com.google.android.material.snackbar.Snackbar;
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.ResultPoint;
+import com.google.zxing.client.android.BeepManager;
 
 // JourneyApps modern scan API:
+import com.journeyapps.barcodescanner.BarcodeCallback;
+import com.journeyapps.barcodescanner.BarcodeResult;
+import com.journeyapps.barcodescanner.DecoratedBarcodeView;
+import com.journeyapps.barcodescanner.DefaultDecoderFactory;
 import com.journeyapps.barcodescanner.ScanContract;
 import com.journeyapps.barcodescanner.ScanOptions;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 
 public class ScannerActivity extends AppCompatActivity {
 
     public static final String EXTRA_EVENT_ID = "extra_event_id";
+    /** Benchmark builds only: QR content to handle as if scanned (sent with FLAG_ACTIVITY_SINGLE_TOP). */
+    public static final String EXTRA_SIMULATED_SCAN = "extra_simulated_scan";
 
-    private AppDatabase database;
+    // Door mode: the same QR stays in frame for many decoder passes, so ignore repeats
+    // of the last content for this long.
+    private static final long DUPLICATE_SCAN_WINDOW_MS = 2500L;
+
+    private static final int GUEST_PAGE_SIZE = 50;
+    private static final int PREFETCH_ROWS = 15;
+
+    private AppRepository repository;
+    private CallScope scope;
+    private CheckInJournal checkInJournal;
     private FusedLocationProviderClient fusedLocationProviderClient;
 
     private MaterialToolbar toolbar;
     private TextView eventLabelTextView;
     private MaterialButton scanButton;
+    private MaterialButton continuousScanButton;
+    private View continuousScanContainer;
+    private DecoratedBarcodeView barcodeView;
+    private TextView scanRateTextView;
 
     private TextView totalInvitedTextView;
     private TextView rsvpYesTextView;
@@ -57,12 +95,48 @@ public class ScannerActivity extends AppCompatActivity {
     private long eventId = -1L;
     private AppDatabase.Event event;
 
-    private final List<AppDatabase.Guest> guests = new ArrayList<>();
+    // Token -> guest slot for this event; answers scans without touching SQLite.
+    private GuestTokenIndex tokenIndex;
+    // Counters seeded once, then moved by check-in deltas.
+    private EventCheckInStats stats;
+
+    // Last list handed to the adapter (may still be diffing); row updates build on this one.
+    private List<AppDatabase.Guest> submittedGuests = new ArrayList<>();
     private GuestsAdapter adapter;
 
+    // The roster list is keyset-paged from the database while scrolling (the token index
+    // above always holds the whole roster, so scans never depend on what is paged in).
+    private AppDatabase.Guest lastPagedGuest;
+    private boolean hasMoreGuests = false;
+    private DbCall guestPageCall;
+    private LoadMoreScrollListener loadMoreListener;
+
     private final SimpleDateFormat pretty =
             new SimpleDateFormat("dd MMM yyyy HH:mm", Locale.getDefault());
 
+    // Door mode (embedded, always-on camera)
+    private boolean continuousMode = false;
+    private boolean continuousPaused = false;
+    private String lastDecodedContent = null;
+    private long lastDecodedAt = 0L;
+    private BeepManager beepManager;
+    private final ScanRateMeter scanRateMeter = new ScanRateMeter();
+
+    // Check-ins are written behind; show how the queue keeps up.
+    private final CheckInJournal.Listener journalListener = count -> renderScanRate();
+
+    private final BarcodeCallback continuousCallback = new BarcodeCallback() {
+        @Override
+        public void barcodeResult(BarcodeResult result) {
+            onContinuousDecoded(result != null ? result.getText() : null);
+        }
+
+        @Override
+        public void possibleResultPoints(List<ResultPoint> resultPoints) {
+            // no-op
+        }
+    };
+
     private final ActivityResultLauncher<String[]> permissionsLauncher =
             registerForActivityResult(new ActivityResultContracts.RequestMultiplePermissions(), result -> {
                 boolean cam = Boolean.TRUE.equals(result.get(Manifest.permission.CAMERA));
@@ -94,24 +168,59 @@ public class ScannerActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_scanner);
 
-        database = new AppDatabase(this);
+        repository = AppRepository.getInstance(this);
+        scope = CallScope.bindTo(this);
+        checkInJournal = CheckInJournal.getInstance(this);
+        checkInJournal.addListener(journalListener);
         fusedLocationProviderClient = LocationServices.getFusedLocationProviderClient(this);
 
         eventId = getIntent().getLongExtra(EXTRA_EVENT_ID, -1L);
 
         bindViews();
         setupToolbar();
-        loadEventOrFinish();
         setupRecycler();
         setupScanButton();
+        setupContinuousScan();
 
-        refreshGuestsAndStats();
+        loadEventOrFinish();
+    }
+
+    @Override
+    protected void onNewIntent(@NonNull Intent intent) {
+        super.onNewIntent(intent);
+        // Lets the :benchmark module drive check-in loops without a camera.
+        String simulated = BuildConfig.BENCHMARK ? intent.getStringExtra(EXTRA_SIMULATED_SCAN) : null;
+        if (simulated != null && intent.getLongExtra(EXTRA_EVENT_ID, eventId) == eventId) {
+            handleScannedContent(simulated);
+        }
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        if (continuousMode && !continuousPaused) barcodeView.resume();
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        if (continuousMode) barcodeView.pause();
+    }
+
+    @Override
+    protected void onDestroy() {
+        checkInJournal.removeListener(journalListener);
+        super.onDestroy();
     }
 
     private void bindViews() {
         toolbar = findViewById(R.id.toolbar);
         eventLabelTextView = findViewById(R.id.eventLabelTextView);
         scanButton = findViewById(R.id.scanButton);
+        continuousScanButton = findViewById(R.id.continuousScanButton);
+        continuousScanContainer = findViewById(R.id.continuousScanContainer);
+        barcodeView = findViewById(R.id.barcodeView);
+        scanRateTextView = findViewById(R.id.scanRateTextView);
 
         totalInvitedTextView = findViewById(R.id.totalInvitedTextView);
         rsvpYesTextView = findViewById(R.id.rsvpYesTextView);
@@ -127,21 +236,90 @@ public class ScannerActivity extends AppCompatActivity {
         toolbar.setNavigationOnClickListener(v -> finish());
     }
 
+    /** Everything the scanner needs, loaded in one background read. */
+    private static class ScannerState {
+        AppDatabase.Event event;
+        GuestTokenIndex tokenIndex;
+        EventCheckInStats stats;
+        List<AppDatabase.Guest> guests;
+    }
+
     private void loadEventOrFinish() {
-        event = database.getEventById(eventId);
-        if (event == null) {
-            Snackbar.make(toolbar, "Event not found.", Snackbar.LENGTH_LONG).show();
-            finish();
-            return;
-        }
-        String label = (event.title != null ? event.title : "Event") + " • Admin Scanner";
-        eventLabelTextView.setText(label);
+        // Scanning stays off until the roster is in memory.
+        scanButton.setEnabled(false);
+        continuousScanButton.setEnabled(false);
+
+        repository.read(scope, db -> {
+            ScannerState st = new ScannerState();
+            st.event = db.getEventById(eventId);
+            if (st.event == null) return st;
+            st.tokenIndex = db.loadGuestTokenIndex(eventId);
+            st.stats = EventCheckInStats.load(db, eventId);
+            st.guests = db.listGuestsPage(eventId, null, GUEST_PAGE_SIZE);
+            return st;
+        }, st -> {
+            if (st.event == null) {
+                Snackbar.make(toolbar, "Event not found.", Snackbar.LENGTH_LONG).show();
+                finish();
+                return;
+            }
+            event = st.event;
+            tokenIndex = st.tokenIndex;
+            stats = st.stats;
+
+            String label = (event.title != null ? event.title : "Event") + " • Admin Scanner";
+            eventLabelTextView.setText(label);
+
+            onGuestPageLoaded(st.guests);
+            renderStats();
+
+            scanButton.setEnabled(true);
+            continuousScanButton.setEnabled(true);
+        });
     }
 
     private void setupRecycler() {
-        adapter = new GuestsAdapter(guests);
-        guestsRecyclerView.setLayoutManager(new LinearLayoutManager(this));
+        adapter = new GuestsAdapter();
+        adapter.setHasStableIds(true);
+        LinearLayoutManager layoutManager = new LinearLayoutManager(this);
+        guestsRecyclerView.setLayoutManager(layoutManager);
         guestsRecyclerView.setAdapter(adapter);
+        loadMoreListener = new LoadMoreScrollListener(layoutManager, PREFETCH_ROWS, this::loadNextGuestPage);
+        guestsRecyclerView.addOnScrollListener(loadMoreListener);
+    }
+
+    private void loadNextGuestPage() {
+        if (!hasMoreGuests || tokenIndex == null) return;
+        if (guestPageCall != null && !guestPageCall.isDone()) return;
+        guestPageCall = repository.listGuestsPage(scope, eventId, lastPagedGuest, GUEST_PAGE_SIZE,
+                this::onGuestPageLoaded);
+    }
+
+    /**
+     * Appends one page to the roster list. Rows read from the database may predate check-ins
+     * or renames still queued in the journal, so the token index (always current) wins.
+     */
+    private void onGuestPageLoaded(@NonNull List<AppDatabase.Guest> page) {
+        hasMoreGuests = page.size() >= GUEST_PAGE_SIZE;
+        if (page.isEmpty()) return;
+        lastPagedGuest = page.get(page.size() - 1);
+
+        HashSet<Long> shown = new HashSet<>(submittedGuests.size() * 2);
+        for (AppDatabase.Guest g : submittedGuests) shown.add(g.id);
+
+        List<AppDatabase.Guest> next = new ArrayList<>(submittedGuests.size() + page.size());
+        next.addAll(submittedGuests);
+        for (AppDatabase.Guest g : page) {
+            if (!shown.add(g.id)) continue; // already added via addGuestRow()
+            int slot = g.token != null ? tokenIndex.find(g.token) : GuestTokenIndex.NOT_FOUND;
+            if (slot != GuestTokenIndex.NOT_FOUND) {
+                if (tokenIndex.isCheckedInAt(slot) && !g.isCheckedIn()) g.checkedInAt = tokenIndex.checkedInAtMillis(slot);
+                if (tokenIndex.hasNameAt(slot)) g.name = tokenIndex.nameAt(slot);
+            }
+            next.add(g);
+        }
+        submittedGuests = next;
+        adapter.submitList(next, () -> loadMoreListener.check());
     }
 
     private void setupScanButton() {
@@ -160,6 +338,33 @@ public class ScannerActivity extends AppCompatActivity {
         });
     }
 
+    private void setupContinuousScan() {
+        beepManager = new BeepManager(this);
+        beepManager.setBeepEnabled(true);
+        beepManager.setVibrateEnabled(false);
+
+        barcodeView.getBarcodeView().setDecoderFactory(
+                new DefaultDecoderFactory(Collections.singletonList(BarcodeFormat.QR_CODE)));
+        barcodeView.setStatusText("Door mode: hold tickets in front of the camera");
+
+        continuousScanButton.setOnClickListener(v -> {
+            if (continuousMode) {
+                stopContinuousScan();
+                return;
+            }
+            if (!hasCameraPermission()) {
+                permissionsLauncher.launch(new String[]{
+                        Manifest.permission.CAMERA,
+                        Manifest.permission.ACCESS_FINE_LOCATION,
+                        Manifest.permission.ACCESS_COARSE_LOCATION
+                });
+                Snackbar.make(scanButton, "Grant camera permission to scan.", Snackbar.LENGTH_SHORT).show();
+                return;
+            }
+            startContinuousScan();
+        });
+    }
+
     private boolean hasCameraPermission() {
         return ActivityCompat.checkSelfPermission(this, Manifest.permission.CAMERA)
                 == PackageManager.PERMISSION_GRANTED;
@@ -183,40 +388,164 @@ public class ScannerActivity extends AppCompatActivity {
         scanLauncher.launch(options);
     }
 
+    /**
+     * Door mode keeps the camera open inside this screen and decodes continuously.
+     * Each decode flows straight into lookup -> check-in -> feedback, with no activity
+     * round-trip and no camera re-open between guests.
+     */
+    private void startContinuousScan() {
+        continuousMode = true;
+        continuousPaused = false;
+        lastDecodedContent = null;
+        scanRateMeter.reset();
+
+        continuousScanContainer.setVisibility(View.VISIBLE);
+        scanRateTextView.setVisibility(View.VISIBLE);
+        scanButton.setEnabled(false);
+        continuousScanButton.setText(R.string.continuous_scan_stop);
+        renderScanRate();
+
+        barcodeView.decodeContinuous(continuousCallback);
+        barcodeView.resume();
+    }
+
+    private void stopContinuousScan() {
+        continuousMode = false;
+        continuousPaused = false;
+        barcodeView.pause();
+
+        continuousScanContainer.setVisibility(View.GONE);
+        scanButton.setEnabled(true);
+        continuousScanButton.setText(R.string.continuous_scan_start);
+        renderScanRate();
+    }
+
+    /** Stops feeding decodes while an admin dialog is on screen; camera stays warm. */
+    private void pauseContinuousDecoding() {
+        if (!continuousMode) return;
+        continuousPaused = true;
+        barcodeView.getBarcodeView().stopDecoding();
+    }
+
+    private void resumeContinuousDecoding() {
+        if (!continuousMode) return;
+        continuousPaused = false;
+        lastDecodedContent = null;
+        barcodeView.decodeContinuous(continuousCallback);
+    }
+
+    private void onContinuousDecoded(@Nullable String contents) {
+        if (!continuousMode || continuousPaused) return;
+        if (contents == null || contents.trim().isEmpty()) return;
+
+        long now = SystemClock.elapsedRealtime();
+        if (contents.equals(lastDecodedContent) && now - lastDecodedAt < DUPLICATE_SCAN_WINDOW_MS) {
+            return;
+        }
+        lastDecodedContent = contents;
+        lastDecodedAt = now;
+
+        beepManager.playBeepSoundAndVibrate();
+        scanRateMeter.record(now);
+        renderScanRate();
+
+        handleScannedContent(contents);
+    }
+
+    private void renderScanRate() {
+        long now = SystemClock.elapsedRealtime();
+        CheckInJournal.Metrics m = checkInJournal.getMetrics();
+        scanRateTextView.setText(String.format(
+                Locale.getDefault(),
+                "Scans/min: %.1f (session avg %.1f) • %d scans • queue %d • flush %d ms",
+                scanRateMeter.windowRatePerMinute(now),
+                scanRateMeter.sessionRatePerMinute(now),
+                scanRateMeter.getTotalScans(),
+                m.queueDepth,
+                m.lastFlushMillis
+        ));
+    }
+
     private void handleScannedContent(@NonNull String content) {
-        String token = extractTokenFromQrContent(content);
+        if (tokenIndex == null) return; // roster still loading
+
+        String token = TicketTokens.fromQrContent(content);
         if (token == null) {
             Snackbar.make(scanButton, "Invalid QR content.", Snackbar.LENGTH_LONG).show();
             return;
         }
 
-        AppDatabase.Guest guest = database.getGuestByToken(token);
-        if (guest == null) {
-            Snackbar.make(scanButton, "Token not found in local DB.", Snackbar.LENGTH_LONG).show();
+        int slot = tokenIndex.find(token);
+        if (slot == GuestTokenIndex.NOT_FOUND) {
+            handleTokenNotIndexed(token);
             return;
         }
 
-        if (guest.eventId != eventId) {
-            Snackbar.make(scanButton, "This ticket belongs to another event.", Snackbar.LENGTH_LONG).show();
-            return;
+        // The roster only holds this event's guests.
+        CheckInEngine.Outcome outcome = CheckInEngine.decide(true,
+                tokenIndex.isCheckedInAt(slot) || checkInJournal.isPending(token), tokenIndex.hasNameAt(slot));
+        applyOutcome(outcome, token, tokenIndex.nameAt(slot));
+    }
+
+    private void applyOutcome(@NonNull CheckInEngine.Outcome outcome, @NonNull String token, @Nullable String name) {
+        switch (outcome) {
+            case WRONG_EVENT:
+                Snackbar.make(scanButton, "This ticket belongs to another event.", Snackbar.LENGTH_LONG).show();
+                break;
+            case ALREADY_CHECKED_IN:
+                Snackbar.make(scanButton, "Already checked-in: " + safe(name), Snackbar.LENGTH_LONG).show();
+                break;
+            case NAME_REQUIRED:
+                // Admin must input the guest name first.
+                promptAdminForGuestNameThenCheckin(token);
+                break;
+            case CHECKED_IN:
+                doCheckInWithBestEffortLocation(token, name, System.currentTimeMillis());
+                break;
+            default:
+                break;
         }
+    }
+
+    /**
+     * Index miss: either the ticket is unknown / from another event, or it was created
+     * after the roster was loaded (e.g. an RSVP on this device). Only this rare path
+     * goes to the database.
+     */
+    private void handleTokenNotIndexed(@NonNull String token) {
+        repository.getGuestByToken(scope, token, guest -> onTokenNotIndexedLoaded(token, guest));
+    }
 
-        if (guest.isCheckedIn()) {
-            Snackbar.make(scanButton, "Already checked-in: " + safe(guest.name), Snackbar.LENGTH_LONG).show();
+    private void onTokenNotIndexedLoaded(@NonNull String token, @Nullable AppDatabase.Guest guest) {
+        if (guest == null) {
+            Snackbar.make(scanButton, "Token not found in local DB.", Snackbar.LENGTH_LONG).show();
             return;
         }
 
-        // NEW: admin must input guest name if empty
-        if (!guest.hasName()) {
-            promptAdminForGuestNameThenCheckin(token, guest);
+        CheckInEngine.Outcome outcome = CheckInEngine.decide(guest.eventId == eventId,
+                guest.isCheckedIn() || checkInJournal.isPending(token), guest.hasName());
+        if (outcome == CheckInEngine.Outcome.WRONG_EVENT || outcome == CheckInEngine.Outcome.ALREADY_CHECKED_IN) {
+            applyOutcome(outcome, token, guest.name);
             return;
         }
 
-        long now = System.currentTimeMillis();
-        doCheckInWithBestEffortLocation(token, guest, now);
+        // A second scan may have resolved the same guest while this lookup was in flight.
+        if (tokenIndex.find(token) == GuestTokenIndex.NOT_FOUND) {
+            boolean indexed = tokenIndex.put(guest.id, guest.token, guest.name, guest.isRsvpYes(),
+                    guest.checkedInAt != null ? guest.checkedInAt : 0L);
+            if (indexed) {
+                // Every UUID guest present at load time is in the index, so this one is new.
+                stats.onGuestAdded(guest.isRsvpYes(), false);
+                addGuestRow(guest);
+            }
+        }
+
+        applyOutcome(outcome, token, guest.name);
     }
 
-    private void promptAdminForGuestNameThenCheckin(@NonNull String token, @NonNull AppDatabase.Guest guest) {
+    private void promptAdminForGuestNameThenCheckin(@NonNull String token) {
+        pauseContinuousDecoding();
+
         final android.widget.EditText input = new android.widget.EditText(this);
         input.setHint("Enter guest name");
         input.setSingleLine(true);
@@ -232,52 +561,38 @@ public class ScannerActivity extends AppCompatActivity {
                         return;
                     }
 
-                    boolean ok = database.updateGuestNameByToken(token, name);
-                    if (!ok) {
-                        Snackbar.make(scanButton, "Failed to save name.", Snackbar.LENGTH_LONG).show();
-                        return;
-                    }
+                    repository.updateGuestNameByToken(scope, token, name, ok -> {
+                        if (!Boolean.TRUE.equals(ok)) {
+                            Snackbar.make(scanButton, "Failed to save name.", Snackbar.LENGTH_LONG).show();
+                            return;
+                        }
 
-                    // refresh guest object for UI message consistency
-                    guest.name = name;
+                        // keep the in-memory roster coherent with the guests table
+                        tokenIndex.updateName(token, name);
+                        updateGuestRow(token, g -> g.name = name);
 
-                    long now = System.currentTimeMillis();
-                    doCheckInWithBestEffortLocation(token, guest, now);
+                        long now = System.currentTimeMillis();
+                        doCheckInWithBestEffortLocation(token, name, now);
+                    });
                 })
                 .setNegativeButton("Cancel", (dialog, which) -> {
                     Snackbar.make(scanButton, "Cancelled. Name not saved.", Snackbar.LENGTH_SHORT).show();
                 })
+                .setOnDismissListener(dialog -> resumeContinuousDecoding())
                 .show();
     }
 
-    @Nullable
-    private String extractTokenFromQrContent(@NonNull String content) {
-        String trimmed = content.trim();
-        if (trimmed.isEmpty()) return null;
-
-        if (trimmed.startsWith("rusdihari://ticket")) {
-            try {
-                Uri uri = Uri.parse(trimmed);
-                String token = uri.getQueryParameter("token");
-                if (token != null && !token.trim().isEmpty()) return token.trim();
-            } catch (Exception ignored) { }
-            return null;
-        }
-
-        return trimmed;
-    }
-
     // IMPORTANT:
     // Lint sometimes can't prove the permission guard, so we suppress after guarding.
     @SuppressLint("MissingPermission")
     private void doCheckInWithBestEffortLocation(
             @NonNull String token,
-            @NonNull AppDatabase.Guest guest,
+            @Nullable String guestName,
             long nowMillis
     ) {
         if (!hasAnyLocationPermission()) {
-            boolean ok = database.markCheckedIn(token, nowMillis, null, null);
-            afterCheckIn(ok, guest, null);
+            boolean ok = markCheckedIn(token, nowMillis, null, null);
+            afterCheckIn(ok, guestName, null);
             return;
         }
 
@@ -292,21 +607,37 @@ public class ScannerActivity extends AppCompatActivity {
                             lng = location.getLongitude();
                         }
 
-                        boolean ok = database.markCheckedIn(token, nowMillis, lat, lng);
-                        afterCheckIn(ok, guest, location);
+                        boolean ok = markCheckedIn(token, nowMillis, lat, lng);
+                        afterCheckIn(ok, guestName, location);
                     })
                     .addOnFailureListener(ex -> {
-                        boolean ok = database.markCheckedIn(token, nowMillis, null, null);
-                        afterCheckIn(ok, guest, null);
+                        boolean ok = markCheckedIn(token, nowMillis, null, null);
+                        afterCheckIn(ok, guestName, null);
                     });
         } catch (SecurityException se) {
             // Extra safety: if permission revoked mid-flight
-            boolean ok = database.markCheckedIn(token, nowMillis, null, null);
-            afterCheckIn(ok, guest, null);
+            boolean ok = markCheckedIn(token, nowMillis, null, null);
+            afterCheckIn(ok, guestName, null);
         }
     }
 
-    private void afterCheckIn(boolean ok, @NonNull AppDatabase.Guest guest, @Nullable Location location) {
+    /**
+     * Acknowledged immediately: the journal persists the entry and writes it to the guests
+     * table in a background batch (see CheckInJournal).
+     */
+    private boolean markCheckedIn(@NonNull String token, long nowMillis, @Nullable Double lat, @Nullable Double lng) {
+        checkInJournal.enqueue(token, nowMillis, lat, lng);
+        tokenIndex.markCheckedIn(token, nowMillis);
+        stats.onGuestCheckedIn();
+        updateGuestRow(token, g -> {
+            g.checkedInAt = nowMillis;
+            if (lat != null) g.checkedInLat = lat;
+            if (lng != null) g.checkedInLng = lng;
+        });
+        return true;
+    }
+
+    private void afterCheckIn(boolean ok, @Nullable String guestName, @Nullable Location location) {
         if (!ok) {
             Snackbar.make(scanButton, "Failed to check-in.", Snackbar.LENGTH_LONG).show();
             return;
@@ -322,20 +653,53 @@ public class ScannerActivity extends AppCompatActivity {
             );
         }
 
-        String msg = "Checked-in: " + safe(guest.name) + " • " + pretty.format(new Date()) + locText;
+        String msg = "Checked-in: " + safe(guestName) + " • " + pretty.format(new Date()) + locText;
         Snackbar.make(scanButton, msg, Snackbar.LENGTH_LONG).show();
 
-        refreshGuestsAndStats();
+        renderStats();
+    }
+
+    /** Newest first, matching listGuestsPage() ordering. */
+    private void addGuestRow(@NonNull AppDatabase.Guest guest) {
+        List<AppDatabase.Guest> next = new ArrayList<>(submittedGuests.size() + 1);
+        next.add(guest.copy());
+        next.addAll(submittedGuests);
+        submittedGuests = next;
+        adapter.submitList(next);
     }
 
-    private void refreshGuestsAndStats() {
-        guests.clear();
-        guests.addAll(database.listGuestsForEvent(eventId));
-        adapter.notifyDataSetChanged();
+    private interface GuestRowUpdate {
+        void apply(@NonNull AppDatabase.Guest copy);
+    }
 
-        int total = database.countInvited(eventId);
-        int yes = database.countRsvpYes(eventId);
-        int checked = database.countCheckedIn(eventId);
+    /**
+     * Replaces one guest with an updated copy and lets the adapter diff it in the
+     * background, so exactly one row is rebound. Rows are never mutated in place
+     * (DiffUtil compares old vs new objects).
+     */
+    private void updateGuestRow(@NonNull String token, @NonNull GuestRowUpdate update) {
+        int slot = tokenIndex.find(token);
+        long guestId = slot != GuestTokenIndex.NOT_FOUND ? tokenIndex.guestIdAt(slot) : -1L;
+
+        List<AppDatabase.Guest> current = submittedGuests;
+        for (int i = 0; i < current.size(); i++) {
+            AppDatabase.Guest g = current.get(i);
+            if (guestId > 0 ? g.id != guestId : !token.equals(g.token)) continue;
+
+            AppDatabase.Guest copy = g.copy();
+            update.apply(copy);
+            List<AppDatabase.Guest> next = new ArrayList<>(current);
+            next.set(i, copy);
+            submittedGuests = next;
+            adapter.submitList(next);
+            return;
+        }
+    }
+
+    private void renderStats() {
+        int total = stats.getInvited();
+        int yes = stats.getRsvpYes();
+        int checked = stats.getCheckedIn();
 
         totalInvitedTextView.setText("Total invited: " + total);
         rsvpYesTextView.setText("RSVP yes: " + yes);
@@ -359,12 +723,30 @@ public class ScannerActivity extends AppCompatActivity {
         return t.isEmpty() ? "-" : t;
     }
 
-    static class GuestsAdapter extends RecyclerView.Adapter<GuestsAdapter.Holder> {
+    /**
+     * Guest roster keyed on guest id. Diffing runs on AsyncListDiffer's background thread;
+     * stable ids let RecyclerView keep and animate rows across updates.
+     */
+    static class GuestsAdapter extends ListAdapter<AppDatabase.Guest, GuestsAdapter.Holder> {
+
+        private static final DiffUtil.ItemCallback<AppDatabase.Guest> DIFF =
+                new DiffUtil.ItemCallback<AppDatabase.Guest>() {
+                    @Override
+                    public boolean areItemsTheSame(@NonNull AppDatabase.Guest a, @NonNull AppDatabase.Guest b) {
+                        return a.id == b.id;
+                    }
 
-        private final List<AppDatabase.Guest> items;
+                    @Override
+                    public boolean areContentsTheSame(@NonNull AppDatabase.Guest a, @NonNull AppDatabase.Guest b) {
+                        return a.isCheckedIn() == b.isCheckedIn()
+                                && Objects.equals(a.name, b.name)
+                                && Objects.equals(a.rsvpStatus, b.rsvpStatus)
+                                && Objects.equals(a.menuChoice, b.menuChoice);
+                    }
+                };
 
-        GuestsAdapter(@NonNull List<AppDatabase.Guest> items) {
-            this.items = items;
+        GuestsAdapter() {
+            super(DIFF);
         }
 
         @NonNull
@@ -377,12 +759,12 @@ public class ScannerActivity extends AppCompatActivity {
 
         @Override
         public void onBindViewHolder(@NonNull Holder holder, int position) {
-            holder.bind(items.get(position));
+            holder.bind(getItem(position));
         }
 
         @Override
-        public int getItemCount() {
-            return items.size();
+        public long getItemId(int position) {
+            return getItem(position).id;
         }
 
         static class Holder extends RecyclerView.ViewHolder {
@@ -4,6 +4,7 @@ import android.content.Intent;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
+import android.util.Log;
 
 import androidx.activity.EdgeToEdge;
 import androidx.appcompat.app.AppCompatActivity;
@@ -11,13 +12,31 @@ import androidx.core.graphics.Insets;
 import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
 
+import com.ergi.rusdihari.startup.StartupOrchestrator;
+
+/**
+ * SplashActivity - shown while StartupOrchestrator warms the app up.
+ *
+ * Opens MainActivity as soon as the warm-up is done, or after MAX_SPLASH_DELAY at the
+ * latest (the warm-up then keeps going in the background).
+ */
 public class SplashActivity extends AppCompatActivity {
 
-    private static final int SPLASH_DELAY = 2000;
+    private static final String TAG = "SplashActivity";
+    private static final int MAX_SPLASH_DELAY = 3000;
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable timeout = this::onTimeout;
+    private final StartupOrchestrator.Listener readyListener = report -> openMain();
+    private StartupOrchestrator startup;
+    private boolean opened = false;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        startup = StartupOrchestrator.getInstance(this);
+        startup.start();
+
         EdgeToEdge.enable(this);
         setContentView(R.layout.activity_splash);
         ViewCompat.setOnApplyWindowInsetsListener(findViewById(R.id.main), (v, insets) -> {
@@ -25,19 +44,37 @@ public class SplashActivity extends AppCompatActivity {
             v.setPadding(systemBars.left, systemBars.top, systemBars.right, systemBars.bottom);
             return insets;
         });
+        startup.trackFirstFrame(findViewById(R.id.main));
+
+        handler.postDelayed(timeout, MAX_SPLASH_DELAY);
+        startup.whenReady(readyListener);
+    }
+
+    @Override
+    protected void onDestroy() {
+        handler.removeCallbacks(timeout);
+        startup.removeListener(readyListener);
+        super.onDestroy();
+    }
+
+    private void onTimeout() {
+        Log.w(TAG, "Warm-up not done after " + MAX_SPLASH_DELAY + " ms, continuing");
+        openMain();
+    }
+
+    private void openMain() {
+        if (opened || isFinishing() || isDestroyed()) return;
+        opened = true;
+        handler.removeCallbacks(timeout);
+        startup.removeListener(readyListener);
 
-        new Handler(Looper.getMainLooper()).postDelayed(new Runnable() {
-            @Override
-            public void run() {
-                // Intent to MainActivity
-                Intent intent = new Intent(SplashActivity.this, MainActivity.class);
-                startActivity(intent);
+        // Intent to MainActivity
+        Intent intent = new Intent(SplashActivity.this, MainActivity.class);
+        startActivity(intent);
 
-                // Animation
-                overridePendingTransition(R.anim.fade_in, R.anim.fade_out);
+        // Animation
+        overridePendingTransition(R.anim.fade_in, R.anim.fade_out);
 
-                finish();
-            }
-        }, SPLASH_DELAY);
+        finish();
     }
-}
\ No newline at end of file
+}
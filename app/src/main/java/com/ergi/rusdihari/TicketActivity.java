@@ -4,7 +4,6 @@ import android.content.ClipData;
 import android.content.ClipboardManager;
 import android.content.Intent;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.graphics.Color;
 import android.net.Uri;
 import android.os.Bundle;
@@ -20,6 +19,13 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.ergi.rusdihari.core.TicketTokens;
+import com.ergi.rusdihari.data.AppRepository;
+import com.ergi.rusdihari.data.CallScope;
+import com.ergi.rusdihari.data.DbCall;
+import com.ergi.rusdihari.image.CoverVariant;
+import com.ergi.rusdihari.image.ImageLoader;
+import com.ergi.rusdihari.image.QrRenderer;
 import com.google.android.gms.maps.CameraUpdateFactory;
 import com.google.android.gms.maps.GoogleMap;
 import com.google.android.gms.maps.OnMapReadyCallback;
@@ -28,11 +34,7 @@ import com.google.android.gms.maps.model.LatLng;
 import com.google.android.gms.maps.model.MarkerOptions;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.snackbar.Snackbar;
-import com.google.zxing.BarcodeFormat;
-import com.google.zxing.MultiFormatWriter;
-import com.google.zxing.common.BitMatrix;
 
-import java.io.InputStream;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Locale;
@@ -42,7 +44,9 @@ public class TicketActivity extends AppCompatActivity implements OnMapReadyCallb
 
     public static final String EXTRA_TOKEN = "extra_token";
 
-    private AppDatabase database;
+    private AppRepository repository;
+    private CallScope scope;
+    private DbCall pendingTicketLoad;
 
     // UI
     private ImageView ivEventCover, ivQrCode;
@@ -66,7 +70,8 @@ public class TicketActivity extends AppCompatActivity implements OnMapReadyCallb
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_ticket);
 
-        database = new AppDatabase(this);
+        repository = AppRepository.getInstance(this);
+        scope = CallScope.bindTo(this);
         bindViews();
 
         // Setup Map Fragment
@@ -169,16 +174,19 @@ public class TicketActivity extends AppCompatActivity implements OnMapReadyCallb
     }
 
     private void renderTicket(@NonNull String token) {
-        AppDatabase.TicketBundle bundle = database.getTicketBundleByToken(token);
-
-        // QR Code
-        Bitmap qrBitmap = generateQrBitmap(token, 512, 512);
-        if (qrBitmap != null) {
-            ivQrCode.setImageBitmap(qrBitmap);
-        }
+        // QR Code (rendered off the main thread, cached per token)
+        QrRenderer.getInstance().render(token, 512, qr -> {
+            if (isDestroyed() || !token.equals(this.token)) return; // superseded by onNewIntent
+            if (qr != null) ivQrCode.setImageBitmap(qr);
+        });
 
-        if (bundle == null) return;
+        if (pendingTicketLoad != null) pendingTicketLoad.cancel();
+        pendingTicketLoad = repository.getTicketBundleByToken(scope, token, bundle -> {
+            if (bundle != null) renderBundle(token, bundle);
+        });
+    }
 
+    private void renderBundle(@NonNull String token, @NonNull AppDatabase.TicketBundle bundle) {
         AppDatabase.Event event = bundle.event;
         AppDatabase.Guest guest = bundle.guest;
 
@@ -194,22 +202,21 @@ public class TicketActivity extends AppCompatActivity implements OnMapReadyCallb
         updateMapLocation();
 
         // LOAD FOTO & FIX TINT
-        if (event.coverUri != null) {
-            try {
-                Uri uri = Uri.parse(event.coverUri);
-                InputStream in = getContentResolver().openInputStream(uri);
-                Bitmap coverBmp = BitmapFactory.decodeStream(in);
-
-                ivEventCover.setImageBitmap(coverBmp);
-
-                // --- INI KUNCI BIAR FOTO MUNCUL JELAS ---
-                ivEventCover.setBackgroundColor(Color.TRANSPARENT);
-                ivEventCover.setImageTintList(null);
-                // ----------------------------------------
+        if (event.coverUri != null || event.coverTicketUri != null) {
+            ImageLoader.getInstance(this).loadCover(event, CoverVariant.TICKET, ivEventCover, new ImageLoader.Listener() {
+                @Override
+                public void onLoaded(@NonNull ImageView view, @NonNull Bitmap bitmap) {
+                    // --- INI KUNCI BIAR FOTO MUNCUL JELAS ---
+                    view.setBackgroundColor(Color.TRANSPARENT);
+                    view.setImageTintList(null);
+                    // ----------------------------------------
+                }
 
-            } catch (Exception e) {
-                Log.e("TicketActivity", "Error loading cover: " + e.getMessage());
-            }
+                @Override
+                public void onFailed(@NonNull ImageView view) {
+                    Log.e("TicketActivity", "Error loading cover: " + event.coverUri);
+                }
+            });
         }
 
         tvGuestName.setText(guest.name != null ? guest.name : "Guest");
@@ -226,7 +233,7 @@ public class TicketActivity extends AppCompatActivity implements OnMapReadyCallb
 
     private void setupButtons() {
         btnShare.setOnClickListener(v -> {
-            String link = "rusdihari://ticket?token=" + Uri.encode(token);
+            String link = TicketTokens.link(token);
             Intent share = new Intent(Intent.ACTION_SEND);
             share.setType("text/plain");
             share.putExtra(Intent.EXTRA_TEXT, "Here is my ticket for " + tvEventTitle.getText() + ":\n" + link);
@@ -241,21 +248,4 @@ public class TicketActivity extends AppCompatActivity implements OnMapReadyCallb
             }
         });
     }
-
-    @Nullable
-    private Bitmap generateQrBitmap(@NonNull String content, int width, int height) {
-        try {
-            BitMatrix matrix = new MultiFormatWriter()
-                    .encode(content, BarcodeFormat.QR_CODE, width, height);
-            Bitmap bmp = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
-            for (int x = 0; x < width; x++) {
-                for (int y = 0; y < height; y++) {
-                    bmp.setPixel(x, y, matrix.get(x, y) ? Color.BLACK : Color.TRANSPARENT);
-                }
-            }
-            return bmp;
-        } catch (Exception e) {
-            return null;
-        }
-    }
-}
\ No newline at end of file
+}
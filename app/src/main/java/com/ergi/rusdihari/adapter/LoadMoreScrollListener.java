@@ -0,0 +1,44 @@
+package com.ergi.rusdihari.adapter;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * LoadMoreScrollListener - asks for the next page when the user scrolls near the end.
+ *
+ * - Fires once the last visible row is within {@code prefetchDistance} of the end, so the
+ *   next page is usually there before the user reaches it.
+ * - May fire repeatedly while scrolling; the callback must ignore calls while a page is
+ *   already loading or when there is nothing more.
+ * - Call check() after a page is shown, in case it did not fill the screen.
+ */
+public class LoadMoreScrollListener extends RecyclerView.OnScrollListener {
+
+    public interface Callback {
+        void onLoadMore();
+    }
+
+    private final LinearLayoutManager layoutManager;
+    private final int prefetchDistance;
+    private final Callback callback;
+
+    public LoadMoreScrollListener(@NonNull LinearLayoutManager layoutManager, int prefetchDistance,
+                                  @NonNull Callback callback) {
+        this.layoutManager = layoutManager;
+        this.prefetchDistance = prefetchDistance;
+        this.callback = callback;
+    }
+
+    @Override
+    public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+        if (dy > 0) check();
+    }
+
+    public void check() {
+        int count = layoutManager.getItemCount();
+        if (count == 0) return;
+        int last = layoutManager.findLastVisibleItemPosition();
+        if (last >= count - 1 - prefetchDistance) callback.onLoadMore();
+    }
+}
@@ -8,6 +8,7 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.ergi.rusdihari.AppDatabase;
 import com.ergi.rusdihari.R;
 
 import java.text.SimpleDateFormat;
@@ -18,24 +19,16 @@ import java.util.Locale;
 public class MyTicketsAdapter extends RecyclerView.Adapter<MyTicketsAdapter.Holder> {
 
     public interface Listener {
-        void onTicketClicked(@NonNull TicketRow row);
+        void onTicketClicked(@NonNull AppDatabase.TicketRow row);
     }
 
-    public static class TicketRow {
-        public String token;
-        public String eventTitle;
-        public long eventWhenMillis;
-        public boolean checkedIn;
-        public boolean guestHasName;
-    }
-
-    private final List<TicketRow> items;
+    private final List<AppDatabase.TicketRow> items;
     private final Listener listener;
 
     private final SimpleDateFormat pretty =
             new SimpleDateFormat("EEE, dd MMM yyyy • HH:mm", Locale.getDefault());
 
-    public MyTicketsAdapter(@NonNull List<TicketRow> items, @NonNull Listener listener) {
+    public MyTicketsAdapter(@NonNull List<AppDatabase.TicketRow> items, @NonNull Listener listener) {
         this.items = items;
         this.listener = listener;
     }
@@ -50,7 +43,7 @@ public class MyTicketsAdapter extends RecyclerView.Adapter<MyTicketsAdapter.Hold
 
     @Override
     public void onBindViewHolder(@NonNull Holder holder, int position) {
-        TicketRow row = items.get(position);
+        AppDatabase.TicketRow row = items.get(position);
 
         holder.title.setText(row.eventTitle != null ? row.eventTitle : "Event");
         holder.subtitle.setText(pretty.format(new Date(row.eventWhenMillis)));
@@ -0,0 +1,183 @@
+package com.ergi.rusdihari.data;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.ergi.rusdihari.AppDatabase;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * AppRepository - asynchronous front door to AppDatabase for the UI.
+ *
+ * Every operation runs on DbExecutors (reads on the read pool, writes on the single writer
+ * thread) and reports back on the main thread. Each call belongs to a CallScope, so leaving
+ * a screen cancels its pending work and no callback reaches a dead view.
+ *
+ * Screens should never call AppDatabase directly; StrictMode (debug builds, see
+ * RusdihariApp) flags any disk access that still happens on the main thread.
+ */
+public class AppRepository {
+
+    private static final String TAG = "AppRepository";
+
+    public interface Callback<T> {
+        void onResult(T result);
+
+        default void onError(@NonNull Exception error) {
+            Log.e(TAG, "Database call failed", error);
+        }
+    }
+
+    public interface DbWork<T> {
+        T run(@NonNull AppDatabase db) throws Exception;
+    }
+
+    private static AppRepository instance;
+
+    private final Context appContext;
+    private final AppDatabase database;
+
+    @NonNull
+    public static synchronized AppRepository getInstance(@NonNull Context context) {
+        if (instance == null) instance = new AppRepository(context.getApplicationContext());
+        return instance;
+    }
+
+    private AppRepository(@NonNull Context appContext) {
+        this.appContext = appContext;
+        this.database = AppDatabase.getInstance(appContext);
+    }
+
+    @NonNull
+    public Context getAppContext() {
+        return appContext;
+    }
+
+    // -----------------------------
+    // Generic entry points
+    // -----------------------------
+    @NonNull
+    public <T> DbCall read(@NonNull CallScope scope, @NonNull DbWork<T> work, @Nullable Callback<T> callback) {
+        return submit(DbExecutors.reads(), scope, work, callback);
+    }
+
+    @NonNull
+    public <T> DbCall write(@NonNull CallScope scope, @NonNull DbWork<T> work, @Nullable Callback<T> callback) {
+        return submit(DbExecutors.writer(), scope, work, callback);
+    }
+
+    @NonNull
+    private <T> DbCall submit(@NonNull ExecutorService executor, @NonNull CallScope scope,
+                              @NonNull DbWork<T> work, @Nullable Callback<T> callback) {
+        DbCall call = new DbCall();
+        scope.add(call);
+        if (call.isCancelled()) return call;
+
+        try {
+            call.attach(executor.submit(() -> {
+                if (call.isCancelled()) return;
+                T result = null;
+                Exception error = null;
+                try {
+                    result = work.run(database);
+                } catch (Exception ex) {
+                    error = ex;
+                }
+                deliver(call, callback, result, error);
+            }));
+        } catch (RejectedExecutionException ex) {
+            deliver(call, callback, null, ex);
+        }
+        return call;
+    }
+
+    private <T> void deliver(@NonNull DbCall call, @Nullable Callback<T> callback,
+                             @Nullable T result, @Nullable Exception error) {
+        DbExecutors.main().post(() -> {
+            if (call.isCancelled()) return;
+            call.markDone();
+            if (callback == null) {
+                if (error != null) Log.e(TAG, "Database call failed", error);
+                return;
+            }
+            if (error != null) callback.onError(error);
+            else callback.onResult(result);
+        });
+    }
+
+    // -----------------------------
+    // Events
+    // -----------------------------
+    @NonNull
+    public DbCall ensureSeedDataIfEmpty(@NonNull CallScope scope, @Nullable Callback<Void> callback) {
+        return write(scope, db -> {
+            db.ensureSeedDataIfEmpty();
+            return null;
+        }, callback);
+    }
+
+    @NonNull
+    public DbCall listEvents(@NonNull CallScope scope, @Nullable String query,
+                             @NonNull AppDatabase.EventSortMode sortMode,
+                             @NonNull Callback<List<AppDatabase.Event>> callback) {
+        return read(scope, db -> db.listEvents(query, sortMode), callback);
+    }
+
+    @NonNull
+    public DbCall listEventsPage(@NonNull CallScope scope, @NonNull AppDatabase.EventSortMode sortMode,
+                                 @Nullable AppDatabase.Event after, int limit,
+                                 @NonNull Callback<List<AppDatabase.Event>> callback) {
+        return read(scope, db -> db.listEventsPage(sortMode, after, limit), callback);
+    }
+
+    @NonNull
+    public DbCall getEventById(@NonNull CallScope scope, long eventId,
+                               @NonNull Callback<AppDatabase.Event> callback) {
+        return read(scope, db -> db.getEventById(eventId), callback);
+    }
+
+    @NonNull
+    public DbCall insertEvent(@NonNull CallScope scope, @NonNull AppDatabase.Event event,
+                              @NonNull Callback<Long> callback) {
+        return write(scope, db -> db.insertEvent(event), callback);
+    }
+
+    // -----------------------------
+    // Guests / tickets
+    // -----------------------------
+    @NonNull
+    public DbCall insertGuest(@NonNull CallScope scope, @NonNull AppDatabase.Guest guest,
+                              @NonNull Callback<Long> callback) {
+        return write(scope, db -> db.insertGuest(guest), callback);
+    }
+
+    @NonNull
+    public DbCall getGuestByToken(@NonNull CallScope scope, @NonNull String token,
+                                  @NonNull Callback<AppDatabase.Guest> callback) {
+        return read(scope, db -> db.getGuestByToken(token), callback);
+    }
+
+    @NonNull
+    public DbCall updateGuestNameByToken(@NonNull CallScope scope, @NonNull String token,
+                                         @NonNull String name, @NonNull Callback<Boolean> callback) {
+        return write(scope, db -> db.updateGuestNameByToken(token, name), callback);
+    }
+
+    @NonNull
+    public DbCall listGuestsPage(@NonNull CallScope scope, long eventId, @Nullable AppDatabase.Guest after,
+                                 int limit, @NonNull Callback<List<AppDatabase.Guest>> callback) {
+        return read(scope, db -> db.listGuestsPage(eventId, after, limit), callback);
+    }
+
+    @NonNull
+    public DbCall getTicketBundleByToken(@NonNull CallScope scope, @NonNull String token,
+                                         @NonNull Callback<AppDatabase.TicketBundle> callback) {
+        return read(scope, db -> db.getTicketBundleByToken(token), callback);
+    }
+}
@@ -0,0 +1,56 @@
+package com.ergi.rusdihari.data;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CallScope - cancels every DbCall of a screen when that screen goes away.
+ *
+ * Activities bind to themselves, fragments to getViewLifecycleOwner(), so callbacks never
+ * land on destroyed views. Main thread only.
+ */
+public class CallScope implements DefaultLifecycleObserver {
+
+    private final List<DbCall> calls = new ArrayList<>();
+    private boolean closed = false;
+
+    @NonNull
+    public static CallScope bindTo(@NonNull LifecycleOwner owner) {
+        CallScope scope = new CallScope();
+        owner.getLifecycle().addObserver(scope);
+        return scope;
+    }
+
+    void add(@NonNull DbCall call) {
+        if (closed) {
+            call.cancel();
+            return;
+        }
+        call.setScope(this);
+        calls.add(call);
+    }
+
+    void remove(@NonNull DbCall call) {
+        calls.remove(call);
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public void cancelAll() {
+        for (DbCall c : new ArrayList<>(calls)) c.cancel();
+        calls.clear();
+    }
+
+    @Override
+    public void onDestroy(@NonNull LifecycleOwner owner) {
+        closed = true;
+        cancelAll();
+        owner.getLifecycle().removeObserver(this);
+    }
+}
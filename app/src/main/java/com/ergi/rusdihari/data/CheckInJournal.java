@@ -0,0 +1,359 @@
+package com.ergi.rusdihari.data;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.StrictMode;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.ergi.rusdihari.AppDatabase;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CheckInJournal - write-behind queue for door check-ins.
+ *
+ * enqueue() acknowledges a check-in immediately:
+ * 1. the entry is appended to an append-only journal file (files/checkin_journal.log)
+ *    and handed to the OS, so it survives the app process being killed;
+ * 2. it is queued in memory;
+ * 3. the database writer thread (DbExecutors.writer()) groups queued entries and writes
+ *    them to the guests table in one transaction (AppDatabase.markCheckedInBatch), i.e. one
+ *    commit per batch instead of one per guest.
+ *
+ * The journal is fsync'ed before each batch hits the database and truncated once nothing is
+ * pending. On startup, leftover journal entries are replayed first; replay is idempotent
+ * because the batch update skips guests that are already checked-in.
+ *
+ * Listeners are called on the main thread after each successful flush, so screens can
+ * re-read the database once the rows are really there.
+ */
+public class CheckInJournal {
+
+    private static final String TAG = "CheckInJournal";
+    private static final String JOURNAL_FILE = "checkin_journal.log";
+
+    // Wait a little so entries arriving close together share one transaction.
+    private static final long FLUSH_DELAY_MS = 150L;
+    private static final long RETRY_DELAY_MS = 2000L;
+    private static final int MAX_BATCH = 256;
+
+    public interface Listener {
+        void onCheckInsFlushed(int count);
+    }
+
+    public static class Entry {
+        public String token;
+        public long checkedInAt;
+        public Double lat;  // nullable
+        public Double lng;  // nullable
+    }
+
+    /** Snapshot of queue / flush metrics. */
+    public static class Metrics {
+        public int queueDepth;
+        public int maxQueueDepth;
+        public long enqueuedTotal;
+        public long flushedTotal;
+        public int flushCount;
+        public long lastFlushMillis;
+        public long maxFlushMillis;
+        public double avgFlushMillis;
+        public int lastBatchSize;
+    }
+
+    private static CheckInJournal instance;
+
+    private final AppDatabase database;
+    private final Context app;
+    private final ScheduledExecutorService executor;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    // Guarded by "this"
+    private File journalFile; // see journalFile()
+    private final ArrayDeque<Entry> pending = new ArrayDeque<>();
+    // Tokens acknowledged but not committed yet: queued, in the batch being written, or
+    // being replayed. Cleared only once their transaction has committed.
+    private final HashSet<String> pendingTokens = new HashSet<>();
+    private FileOutputStream journalOut;
+    private boolean flushScheduled = false;
+    private boolean flushing = false;
+
+    // Metrics, guarded by "this"
+    private int maxQueueDepth = 0;
+    private long enqueuedTotal = 0;
+    private long flushedTotal = 0;
+    private int flushCount = 0;
+    private long lastFlushMillis = 0;
+    private long maxFlushMillis = 0;
+    private long totalFlushMillis = 0;
+    private int lastBatchSize = 0;
+
+    @NonNull
+    public static synchronized CheckInJournal getInstance(@NonNull Context context) {
+        if (instance == null) {
+            Context app = context.getApplicationContext();
+            instance = new CheckInJournal(AppDatabase.getInstance(app), app);
+        }
+        return instance;
+    }
+
+    private CheckInJournal(@NonNull AppDatabase database, @NonNull Context app) {
+        this.database = database;
+        this.app = app;
+        this.executor = DbExecutors.writer();
+        // Runs before any flush because the writer is single-threaded.
+        executor.execute(this::replay);
+    }
+
+    public void addListener(@NonNull Listener l) {
+        listeners.add(l);
+    }
+
+    public void removeListener(@NonNull Listener l) {
+        listeners.remove(l);
+    }
+
+    /**
+     * Records a check-in and returns right away. The guests table is updated shortly after
+     * on the database writer thread.
+     */
+    public void enqueue(@NonNull String token, long checkedInAt, @Nullable Double lat, @Nullable Double lng) {
+        Entry e = new Entry();
+        e.token = token;
+        e.checkedInAt = checkedInAt;
+        e.lat = lat;
+        e.lng = lng;
+
+        // The one deliberate main-thread disk write: a short unbuffered append, so the
+        // acknowledgement shown at the door is backed by the journal.
+        StrictMode.ThreadPolicy old = StrictMode.allowThreadDiskWrites();
+        synchronized (this) {
+            try {
+                appendToJournal(e);
+            } finally {
+                StrictMode.setThreadPolicy(old);
+            }
+            pending.addLast(e);
+            pendingTokens.add(token);
+            enqueuedTotal++;
+            if (pending.size() > maxQueueDepth) maxQueueDepth = pending.size();
+            scheduleFlushLocked(FLUSH_DELAY_MS);
+        }
+    }
+
+    /** True while a check-in for this token is acknowledged but not yet in the database. */
+    public synchronized boolean isPending(@NonNull String token) {
+        return pendingTokens.contains(token);
+    }
+
+    @NonNull
+    public synchronized Metrics getMetrics() {
+        Metrics m = new Metrics();
+        m.queueDepth = pending.size();
+        m.maxQueueDepth = maxQueueDepth;
+        m.enqueuedTotal = enqueuedTotal;
+        m.flushedTotal = flushedTotal;
+        m.flushCount = flushCount;
+        m.lastFlushMillis = lastFlushMillis;
+        m.maxFlushMillis = maxFlushMillis;
+        m.avgFlushMillis = flushCount == 0 ? 0d : (double) totalFlushMillis / flushCount;
+        m.lastBatchSize = lastBatchSize;
+        return m;
+    }
+
+    // -----------------------------
+    // Flush (writer thread)
+    // -----------------------------
+    private void scheduleFlushLocked(long delayMs) {
+        if (flushScheduled) return;
+        flushScheduled = true;
+        executor.schedule(this::flush, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void flush() {
+        List<Entry> batch = new ArrayList<>();
+        synchronized (this) {
+            flushScheduled = false;
+            while (!pending.isEmpty() && batch.size() < MAX_BATCH) batch.add(pending.pollFirst());
+            if (batch.isEmpty()) return;
+            flushing = true;
+            syncJournalLocked();
+        }
+
+        long start = SystemClock.elapsedRealtime();
+        int updated;
+        try {
+            updated = database.markCheckedInBatch(batch);
+        } catch (Exception ex) {
+            Log.e(TAG, "Flush failed, will retry: " + ex.getMessage());
+            synchronized (this) {
+                for (int i = batch.size() - 1; i >= 0; i--) pending.addFirst(batch.get(i));
+                flushing = false;
+                scheduleFlushLocked(RETRY_DELAY_MS);
+            }
+            return;
+        }
+        long took = SystemClock.elapsedRealtime() - start;
+
+        synchronized (this) {
+            flushing = false;
+            // A repeated token still queued is a no-op now: its row is checked in.
+            for (Entry e : batch) pendingTokens.remove(e.token);
+            flushCount++;
+            flushedTotal += batch.size();
+            lastBatchSize = batch.size();
+            lastFlushMillis = took;
+            totalFlushMillis += took;
+            if (took > maxFlushMillis) maxFlushMillis = took;
+
+            if (pending.isEmpty()) {
+                truncateJournalLocked();
+            } else {
+                scheduleFlushLocked(0L);
+            }
+            Log.d(TAG, "Flushed " + batch.size() + " check-ins (" + updated + " rows) in " + took
+                    + " ms, queue=" + pending.size());
+        }
+
+        final int count = batch.size();
+        mainHandler.post(() -> {
+            for (Listener l : listeners) l.onCheckInsFlushed(count);
+        });
+    }
+
+    // -----------------------------
+    // Journal file
+    // -----------------------------
+    private void appendToJournal(@NonNull Entry e) {
+        String line = e.token + "|" + e.checkedInAt + "|"
+                + (e.lat != null ? e.lat : "") + "|"
+                + (e.lng != null ? e.lng : "") + "\n";
+        try {
+            if (journalOut == null) openJournalLocked();
+            // Unbuffered write(): the bytes are in the OS page cache when this returns.
+            journalOut.write(line.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException ex) {
+            // Still queued in memory; only crash-safety is lost for this entry.
+            Log.e(TAG, "Journal append failed: " + ex.getMessage());
+        }
+    }
+
+    private void openJournalLocked() throws IOException {
+        boolean tornTail = endsMidLine(journalFile());
+        journalOut = new FileOutputStream(journalFile(), true);
+        // A crash mid-append left a partial last line: end it, or the next record would be
+        // glued to it and lost on replay.
+        if (tornTail) journalOut.write('\n');
+    }
+
+    private static boolean endsMidLine(@NonNull File f) throws IOException {
+        if (f.length() == 0) return false;
+        try (RandomAccessFile raf = new RandomAccessFile(f, "r")) {
+            raf.seek(raf.length() - 1);
+            return raf.read() != '\n';
+        }
+    }
+
+    private void syncJournalLocked() {
+        if (journalOut == null) return;
+        try {
+            journalOut.getFD().sync();
+        } catch (IOException ex) {
+            Log.e(TAG, "Journal sync failed: " + ex.getMessage());
+        }
+    }
+
+    private void truncateJournalLocked() {
+        if (flushing) return;
+        try {
+            if (journalOut != null) {
+                journalOut.getChannel().truncate(0);
+            } else if (journalFile().exists()) {
+                new FileOutputStream(journalFile(), false).close();
+            }
+        } catch (IOException ex) {
+            Log.e(TAG, "Journal truncate failed: " + ex.getMessage());
+        }
+    }
+
+    /** getFilesDir() touches the disk: replay(), the writer's first task, resolves it off the main thread. */
+    @NonNull
+    private synchronized File journalFile() {
+        if (journalFile == null) journalFile = new File(app.getFilesDir(), JOURNAL_FILE);
+        return journalFile;
+    }
+
+    private void replay() {
+        File journalFile = journalFile();
+        if (!journalFile.exists() || journalFile.length() == 0) return;
+
+        List<Entry> entries = new ArrayList<>();
+        try (BufferedReader r = new BufferedReader(new InputStreamReader(
+                new FileInputStream(journalFile), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = r.readLine()) != null) {
+                Entry e = parseLine(line);
+                if (e != null) entries.add(e);
+            }
+        } catch (IOException ex) {
+            Log.e(TAG, "Journal replay read failed: " + ex.getMessage());
+            return;
+        }
+
+        synchronized (this) {
+            for (Entry e : entries) pendingTokens.add(e.token);
+        }
+        try {
+            int updated = database.markCheckedInBatch(entries);
+            Log.d(TAG, "Replayed " + entries.size() + " journal entries (" + updated + " rows)");
+        } catch (Exception ex) {
+            // Keep the file (and the tokens pending); we'll try again on next start.
+            Log.e(TAG, "Journal replay failed: " + ex.getMessage());
+            return;
+        }
+
+        synchronized (this) {
+            for (Entry e : entries) pendingTokens.remove(e.token);
+            // Anything enqueued meanwhile is still in "pending" and will be flushed normally,
+            // but its journal line must survive until then.
+            if (pending.isEmpty()) truncateJournalLocked();
+        }
+    }
+
+    @Nullable
+    private static Entry parseLine(@NonNull String line) {
+        // A torn last line (crash mid-write) simply fails to parse and is skipped.
+        String[] parts = line.split("\\|", -1);
+        if (parts.length != 4 || parts[0].isEmpty()) return null;
+        try {
+            Entry e = new Entry();
+            e.token = parts[0];
+            e.checkedInAt = Long.parseLong(parts[1]);
+            e.lat = parts[2].isEmpty() ? null : Double.valueOf(parts[2]);
+            e.lng = parts[3].isEmpty() ? null : Double.valueOf(parts[3]);
+            return e;
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
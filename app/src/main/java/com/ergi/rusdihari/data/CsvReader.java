@@ -0,0 +1,128 @@
+package com.ergi.rusdihari.data;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CsvReader - streaming RFC 4180 reader, one record at a time.
+ *
+ * - Comma separated; fields may be quoted, with "" for a literal quote and line breaks
+ *   allowed inside quotes. LF, CRLF and CR all end a record. A leading UTF-8 BOM is dropped.
+ * - Reads through its own char buffer, so memory stays flat whatever the file size.
+ * - A field longer than MAX_FIELD_CHARS (usually an unbalanced quote swallowing the rest of
+ *   the file) fails with an IOException naming the line.
+ */
+final class CsvReader implements Closeable {
+
+    private static final int BUFFER_CHARS = 64 * 1024;
+    private static final int MAX_FIELD_CHARS = 64 * 1024;
+
+    private final Reader in;
+    private final char[] buf = new char[BUFFER_CHARS];
+    private int pos = 0;
+    private int len = 0;
+    private boolean started = false;
+
+    private final List<String> fields = new ArrayList<>();
+    private final StringBuilder field = new StringBuilder(64);
+    private int line = 0;        // lines consumed so far
+    private int recordLine = 0;  // first line of the record last returned
+
+    CsvReader(@NonNull Reader in) {
+        this.in = in;
+    }
+
+    /** Fields of the next record, or null at end of input. The list is reused by the next call. */
+    @Nullable
+    List<String> next() throws IOException {
+        fields.clear();
+        field.setLength(0);
+        int c = read();
+        if (c == -1) return null;
+        recordLine = line + 1;
+
+        boolean inQuotes = false;
+        while (true) {
+            if (c == -1) {
+                if (inQuotes) throw new IOException("Line " + recordLine + ": unterminated quoted field");
+                fields.add(field.toString());
+                line++;
+                return fields;
+            }
+            if (inQuotes) {
+                if (c == '"') {
+                    if (peek() == '"') {
+                        read();
+                        append('"');
+                    } else {
+                        inQuotes = false;
+                    }
+                } else {
+                    if (c == '\n' || (c == '\r' && peek() != '\n')) line++;
+                    append((char) c);
+                }
+            } else if (c == '"') {
+                inQuotes = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && peek() == '\n') read();
+                fields.add(field.toString());
+                line++;
+                return fields;
+            } else {
+                append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    /** 1-based line on which the last returned record started. */
+    int recordLine() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void append(char c) throws IOException {
+        if (field.length() >= MAX_FIELD_CHARS) {
+            throw new IOException("Line " + recordLine + ": field too long (unbalanced quote?)");
+        }
+        field.append(c);
+    }
+
+    private int read() throws IOException {
+        if (pos >= len && !fill()) return -1;
+        return buf[pos++];
+    }
+
+    private int peek() throws IOException {
+        if (pos >= len && !fill()) return -1;
+        return buf[pos];
+    }
+
+    private boolean fill() throws IOException {
+        len = in.read(buf, 0, buf.length);
+        pos = 0;
+        if (len <= 0) {
+            len = 0;
+            return false;
+        }
+        if (!started) {
+            started = true;
+            if (buf[0] == '\uFEFF') pos = 1;
+            if (pos >= len) return fill();
+        }
+        return true;
+    }
+}
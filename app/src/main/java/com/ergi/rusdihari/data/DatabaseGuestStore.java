@@ -0,0 +1,42 @@
+package com.ergi.rusdihari.data;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import com.ergi.rusdihari.AppDatabase;
+import com.ergi.rusdihari.core.Guest;
+import com.ergi.rusdihari.core.GuestStore;
+
+/**
+ * DatabaseGuestStore - the core module's GuestStore backed by AppDatabase.
+ *
+ * Lets CheckInEngine run against the real guests table: lookups by token go through the
+ * unique token index, and check-in is the conditional UPDATE (only if not checked in yet),
+ * so concurrent doors cannot both win. Database work: call from a background thread.
+ */
+public class DatabaseGuestStore implements GuestStore {
+
+    private final AppDatabase db;
+
+    public DatabaseGuestStore(@NonNull AppDatabase db) {
+        this.db = db;
+    }
+
+    @WorkerThread
+    @Nullable
+    @Override
+    public Guest findByToken(@NonNull String token) {
+        AppDatabase.Guest g = db.getGuestByToken(token);
+        if (g == null) return null;
+        return new Guest(g.id, g.eventId, g.token, g.name, g.isRsvpYes(),
+                g.checkedInAt != null ? g.checkedInAt : 0L);
+    }
+
+    @WorkerThread
+    @Override
+    public boolean markCheckedInIfNotYet(@NonNull String token, long checkedInAt,
+                                         @Nullable Double lat, @Nullable Double lng) {
+        return db.markCheckedInIfNotYet(token, checkedInAt, lat, lng);
+    }
+}
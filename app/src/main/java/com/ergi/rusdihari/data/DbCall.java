@@ -0,0 +1,49 @@
+package com.ergi.rusdihari.data;
+
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.Future;
+
+/**
+ * DbCall - handle to one queued repository operation.
+ *
+ * cancel() drops the callback (it will never run) and, if the work hasn't started yet,
+ * removes it from its executor. Work already running inside SQLite finishes, but its
+ * result is discarded.
+ */
+public class DbCall {
+
+    private volatile boolean cancelled = false;
+    private volatile boolean done = false;
+    private Future<?> future;
+    private CallScope scope;
+
+    void attach(@Nullable Future<?> future) {
+        this.future = future;
+    }
+
+    void setScope(@Nullable CallScope scope) {
+        this.scope = scope;
+    }
+
+    public void cancel() {
+        cancelled = true;
+        Future<?> f = future;
+        if (f != null) f.cancel(false);
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    /** Main thread, right before/instead of delivering the result. */
+    void markDone() {
+        done = true;
+        CallScope s = scope;
+        if (s != null) s.remove(this);
+    }
+}
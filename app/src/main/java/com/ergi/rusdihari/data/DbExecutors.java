@@ -0,0 +1,68 @@
+package com.ergi.rusdihari.data;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DbExecutors - the only threads allowed to touch AppDatabase.
+ *
+ * - reads():  small fixed pool (2..4 threads); SQLite serves concurrent readers.
+ * - writer(): ONE thread, so writes never contend for the database lock and run in order.
+ *             Scheduled, so write-behind components (CheckInJournal) can batch on it.
+ * - main():   delivers results back to the UI thread.
+ */
+public final class DbExecutors {
+
+    private static final int READ_THREADS =
+            Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+
+    private static ExecutorService reads;
+    private static ScheduledExecutorService writer;
+    private static volatile Thread writerThread;
+    private static final Handler MAIN = new Handler(Looper.getMainLooper());
+
+    private DbExecutors() { }
+
+    @NonNull
+    public static synchronized ExecutorService reads() {
+        if (reads == null) reads = Executors.newFixedThreadPool(READ_THREADS, threads("db-read"));
+        return reads;
+    }
+
+    @NonNull
+    public static synchronized ScheduledExecutorService writer() {
+        if (writer == null) {
+            ThreadFactory factory = threads("db-writer");
+            writer = Executors.newSingleThreadScheduledExecutor(r -> writerThread = factory.newThread(r));
+        }
+        return writer;
+    }
+
+    /** True on the writer thread, where waiting for writer() work would deadlock. */
+    public static boolean isWriterThread() {
+        return Thread.currentThread() == writerThread;
+    }
+
+    @NonNull
+    public static Handler main() {
+        return MAIN;
+    }
+
+    @NonNull
+    private static ThreadFactory threads(@NonNull String prefix) {
+        AtomicInteger n = new AtomicInteger(1);
+        return r -> new Thread(() -> {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+            r.run();
+        }, prefix + "-" + n.getAndIncrement());
+    }
+}
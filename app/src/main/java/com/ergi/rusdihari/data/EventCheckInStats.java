@@ -0,0 +1,67 @@
+package com.ergi.rusdihari.data;
+
+import androidx.annotation.NonNull;
+
+import com.ergi.rusdihari.AppDatabase;
+
+/**
+ * EventCheckInStats - live invited / RSVP-yes / checked-in counters for one event.
+ *
+ * Counters come from one aggregate query when the screen opens (AppDatabase.getGuestStats())
+ * and are then moved by deltas as guests are checked in or added, so keeping the progress
+ * indicator current costs O(1) per scan instead of re-counting the guests table.
+ *
+ * Main-thread only, like the scanner that owns it.
+ */
+public class EventCheckInStats {
+
+    private final long eventId;
+    private int invited;
+    private int rsvpYes;
+    private int checkedIn;
+
+    private EventCheckInStats(long eventId) {
+        this.eventId = eventId;
+    }
+
+    @NonNull
+    public static EventCheckInStats load(@NonNull AppDatabase database, long eventId) {
+        EventCheckInStats stats = new EventCheckInStats(eventId);
+        stats.reset(database.getGuestStats(eventId));
+        return stats;
+    }
+
+    /** Re-seed from a fresh aggregate (e.g. after an import changed many rows). */
+    public void reset(@NonNull AppDatabase.GuestStats fromDb) {
+        invited = fromDb.invited;
+        rsvpYes = fromDb.rsvpYes;
+        checkedIn = fromDb.checkedIn;
+    }
+
+    public void onGuestCheckedIn() {
+        checkedIn++;
+    }
+
+    /** A guest that wasn't part of the counts yet (created after load). */
+    public void onGuestAdded(boolean isRsvpYes, boolean isCheckedIn) {
+        invited++;
+        if (isRsvpYes) rsvpYes++;
+        if (isCheckedIn) checkedIn++;
+    }
+
+    public long getEventId() {
+        return eventId;
+    }
+
+    public int getInvited() {
+        return invited;
+    }
+
+    public int getRsvpYes() {
+        return rsvpYes;
+    }
+
+    public int getCheckedIn() {
+        return checkedIn;
+    }
+}
@@ -0,0 +1,103 @@
+package com.ergi.rusdihari.data;
+
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+
+import com.ergi.rusdihari.AppDatabase;
+
+/**
+ * EventRowMapper - Cursor rows to AppDatabase.Event, column indices resolved once per cursor.
+ *
+ * - The constructor looks every column up by name once; map() then only does indexed reads.
+ * - Columns left out of the projection stay at their defaults, so one mapper serves every
+ *   projection below.
+ */
+public final class EventRowMapper {
+
+    /** Admin list row: title, location/date subtitle, cover chain, and the keyset-paging keys. */
+    public static final String[] LIST_COLUMNS = {
+            AppDatabase.COL_EVENT_ID,
+            AppDatabase.COL_EVENT_TITLE,
+            AppDatabase.COL_EVENT_LOCATION,
+            AppDatabase.COL_EVENT_DATETIME_MILLIS,
+            AppDatabase.COL_EVENT_CREATED_AT,
+            AppDatabase.COL_EVENT_COVER_URI,
+            AppDatabase.COL_EVENT_COVER_THUMB_URI,
+            AppDatabase.COL_EVENT_COVER_HERO_URI,
+            AppDatabase.COL_EVENT_COVER_TICKET_URI
+    };
+
+    /** Every column (detail / edit screens). */
+    public static final String[] DETAIL_COLUMNS = {
+            AppDatabase.COL_EVENT_ID,
+            AppDatabase.COL_EVENT_TITLE,
+            AppDatabase.COL_EVENT_DESCRIPTION,
+            AppDatabase.COL_EVENT_LOCATION,
+            AppDatabase.COL_EVENT_LATITUDE,
+            AppDatabase.COL_EVENT_LONGITUDE,
+            AppDatabase.COL_EVENT_DATETIME_MILLIS,
+            AppDatabase.COL_EVENT_COVER_URI,
+            AppDatabase.COL_EVENT_CREATED_AT,
+            AppDatabase.COL_EVENT_COVER_THUMB_URI,
+            AppDatabase.COL_EVENT_COVER_HERO_URI,
+            AppDatabase.COL_EVENT_COVER_TICKET_URI
+    };
+
+    private final int id;
+    private final int title;
+    private final int description;
+    private final int location;
+    private final int latitude;
+    private final int longitude;
+    private final int datetime;
+    private final int coverUri;
+    private final int createdAt;
+    private final int coverThumb;
+    private final int coverHero;
+    private final int coverTicket;
+
+    public EventRowMapper(@NonNull Cursor c) {
+        id = c.getColumnIndexOrThrow(AppDatabase.COL_EVENT_ID);
+        title = c.getColumnIndex(AppDatabase.COL_EVENT_TITLE);
+        description = c.getColumnIndex(AppDatabase.COL_EVENT_DESCRIPTION);
+        location = c.getColumnIndex(AppDatabase.COL_EVENT_LOCATION);
+        latitude = c.getColumnIndex(AppDatabase.COL_EVENT_LATITUDE);
+        longitude = c.getColumnIndex(AppDatabase.COL_EVENT_LONGITUDE);
+        datetime = c.getColumnIndex(AppDatabase.COL_EVENT_DATETIME_MILLIS);
+        coverUri = c.getColumnIndex(AppDatabase.COL_EVENT_COVER_URI);
+        createdAt = c.getColumnIndex(AppDatabase.COL_EVENT_CREATED_AT);
+        coverThumb = c.getColumnIndex(AppDatabase.COL_EVENT_COVER_THUMB_URI);
+        coverHero = c.getColumnIndex(AppDatabase.COL_EVENT_COVER_HERO_URI);
+        coverTicket = c.getColumnIndex(AppDatabase.COL_EVENT_COVER_TICKET_URI);
+    }
+
+    @NonNull
+    public AppDatabase.Event map(@NonNull Cursor c) {
+        AppDatabase.Event e = new AppDatabase.Event();
+        e.id = c.getLong(id);
+        if (title >= 0) e.title = c.getString(title);
+        if (description >= 0) e.description = c.getString(description);
+        if (location >= 0) e.location = c.getString(location);
+        if (latitude >= 0) e.latitude = c.getDouble(latitude);
+        if (longitude >= 0) e.longitude = c.getDouble(longitude);
+        if (datetime >= 0) e.datetimeMillis = c.getLong(datetime);
+        if (coverUri >= 0) e.coverUri = c.getString(coverUri);
+        if (createdAt >= 0) e.createdAt = c.getLong(createdAt);
+        if (coverThumb >= 0) e.coverThumbUri = c.getString(coverThumb);
+        if (coverHero >= 0) e.coverHeroUri = c.getString(coverHero);
+        if (coverTicket >= 0) e.coverTicketUri = c.getString(coverTicket);
+        return e;
+    }
+
+    /** "a.col AS col, ..." for joins, so the mapper still finds columns by their plain name. */
+    @NonNull
+    public static String select(@NonNull String alias, @NonNull String[] columns) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(alias).append(columns[i]).append(" AS ").append(columns[i]);
+        }
+        return sb.toString();
+    }
+}
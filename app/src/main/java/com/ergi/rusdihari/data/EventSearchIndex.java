@@ -0,0 +1,108 @@
+package com.ergi.rusdihari.data;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Locale;
+
+/**
+ * EventSearchIndex - FTS4 index over events.title / location / description.
+ *
+ * - External-content table (content="events"): the text is not stored twice, only the index.
+ * - Triggers on the events table keep it in sync, so AppDatabase's insert/update/delete
+ *   code doesn't have to know about it.
+ * - prefix="2,3" adds prefix indexes, so "ann*" (search-as-you-type) is an index lookup.
+ * - Relevance is computed from matchinfo(): term hits weighted per column (title > location >
+ *   description) and by how rare the term is across all events.
+ */
+public final class EventSearchIndex {
+
+    public static final String TABLE = "events_fts";
+
+    // Column order inside the FTS table; also the order of WEIGHTS.
+    private static final double[] WEIGHTS = {10d, 4d, 1d};
+
+    /** matchinfo format: p (phrases), c (columns), n (rows), x (per phrase/column hit counts). */
+    public static final String MATCHINFO_FORMAT = "pcnx";
+
+    private EventSearchIndex() {
+    }
+
+    /** Creates the FTS table and its sync triggers, for the given events table / columns. */
+    public static void create(@NonNull SQLiteDatabase db, @NonNull String events, @NonNull String id,
+                              @NonNull String title, @NonNull String location, @NonNull String description) {
+        db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS " + TABLE + " USING fts4("
+                + title + ", " + location + ", " + description + ", "
+                + "content=\"" + events + "\", prefix=\"2,3\", tokenize=unicode61)");
+
+        String cols = title + ", " + location + ", " + description;
+        String newValues = "new." + title + ", new." + location + ", new." + description;
+
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS " + TABLE + "_bu BEFORE UPDATE ON " + events
+                + " BEGIN DELETE FROM " + TABLE + " WHERE docid=old." + id + "; END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS " + TABLE + "_bd BEFORE DELETE ON " + events
+                + " BEGIN DELETE FROM " + TABLE + " WHERE docid=old." + id + "; END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS " + TABLE + "_au AFTER UPDATE ON " + events
+                + " BEGIN INSERT INTO " + TABLE + "(docid, " + cols + ") VALUES (new." + id + ", " + newValues + "); END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS " + TABLE + "_ai AFTER INSERT ON " + events
+                + " BEGIN INSERT INTO " + TABLE + "(docid, " + cols + ") VALUES (new." + id + ", " + newValues + "); END");
+    }
+
+    /** Re-indexes every existing event (used once when upgrading an older database). */
+    public static void rebuild(@NonNull SQLiteDatabase db) {
+        db.execSQL("INSERT INTO " + TABLE + "(" + TABLE + ") VALUES ('rebuild')");
+    }
+
+    /**
+     * Turns what the user typed into a MATCH expression: every word becomes a prefix term and
+     * all of them must match ("jak party" -> "jak* party*"). FTS operators and punctuation
+     * in the input are dropped, so any input is a valid query.
+     *
+     * @return null when the input contains no searchable word
+     */
+    @Nullable
+    public static String toMatchQuery(@Nullable String input) {
+        if (input == null) return null;
+        StringBuilder out = new StringBuilder();
+        StringBuilder word = new StringBuilder();
+        String s = input.toLowerCase(Locale.ROOT);
+        for (int i = 0; i <= s.length(); i++) {
+            char ch = i < s.length() ? s.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(ch)) {
+                word.append(ch);
+            } else if (word.length() > 0) {
+                if (out.length() > 0) out.append(' ');
+                out.append(word).append('*');
+                word.setLength(0);
+            }
+        }
+        return out.length() > 0 ? out.toString() : null;
+    }
+
+    /** Relevance of one row from its matchinfo(MATCHINFO_FORMAT) blob; higher is better. */
+    public static double score(@Nullable byte[] matchinfo) {
+        if (matchinfo == null || matchinfo.length < 12) return 0d;
+        ByteBuffer buf = ByteBuffer.wrap(matchinfo).order(ByteOrder.nativeOrder());
+        int phrases = buf.getInt();
+        int columns = buf.getInt();
+        long rows = buf.getInt() & 0xffffffffL;
+
+        double score = 0d;
+        for (int p = 0; p < phrases; p++) {
+            for (int col = 0; col < columns; col++) {
+                int hitsHere = buf.getInt();
+                buf.getInt(); // hits in all rows, unused
+                int rowsWithHits = buf.getInt();
+                if (hitsHere == 0) continue;
+                double weight = col < WEIGHTS.length ? WEIGHTS[col] : 1d;
+                double idf = Math.log(1d + (double) rows / Math.max(1, rowsWithHits));
+                score += weight * hitsHere * idf;
+            }
+        }
+        return score;
+    }
+}
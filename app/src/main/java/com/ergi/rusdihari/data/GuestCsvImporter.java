@@ -0,0 +1,356 @@
+package com.ergi.rusdihari.data;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.provider.OpenableColumns;
+import android.util.Log;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.ergi.rusdihari.AppDatabase;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * GuestCsvImporter - bulk-registers invitees of one event from a CSV document.
+ *
+ * On its own background thread:
+ * 1. streams the document (CsvReader), one record at a time;
+ * 2. validates each row and gives it a fresh ticket token;
+ * 3. inserts CHUNK_ROWS guests per transaction (AppDatabase.insertGuestsBatch), so the
+ *    database is free between chunks for the door's check-ins;
+ * 4. reports Progress on the main thread after every chunk.
+ *
+ * Columns: name (required), rsvp, menu, note. With a header row (any cell "name") columns
+ * are matched by header, in any order; otherwise they are taken in that order.
+ * Invalid rows are skipped and counted, the first few with their line number.
+ *
+ * Job.cancel() stops after the current chunk; chunks already committed stay imported.
+ *
+ * The job belongs to the app, not to the screen that started it: screens find it again with
+ * currentJob(eventId) and follow it with Job.observe(), which holds them only while started.
+ */
+public class GuestCsvImporter {
+
+    private static final String TAG = "GuestCsvImporter";
+    static final int CHUNK_ROWS = 1000;
+    private static final int MAX_NAME_CHARS = 200;
+    private static final int MAX_ERRORS_KEPT = 5;
+
+    public interface Listener {
+        /** Main thread, after each committed chunk. */
+        void onProgress(@NonNull Progress progress);
+
+        /** Main thread, once; progress.done is true. */
+        void onFinished(@NonNull Progress progress);
+    }
+
+    public static class Progress {
+        public int imported;
+        public int skipped;
+        public long bytesRead;
+        public long totalBytes = -1L; // -1 = unknown
+        public long elapsedMillis;
+        public boolean done;
+        public boolean cancelled;
+        @Nullable public String failure;                        // fatal error, import stopped
+        @NonNull public final List<String> rowErrors = new ArrayList<>(); // first few skipped rows
+
+        public double rowsPerSecond() {
+            return elapsedMillis <= 0 ? 0d : (imported + skipped) * 1000d / elapsedMillis;
+        }
+
+        @NonNull
+        Progress copy() {
+            Progress p = new Progress();
+            p.imported = imported;
+            p.skipped = skipped;
+            p.bytesRead = bytesRead;
+            p.totalBytes = totalBytes;
+            p.elapsedMillis = elapsedMillis;
+            p.done = done;
+            p.cancelled = cancelled;
+            p.failure = failure;
+            p.rowErrors.addAll(rowErrors);
+            return p;
+        }
+    }
+
+    public static final class Job {
+        private volatile boolean cancelled = false;
+        private final JobUpdates<Progress> updates = new JobUpdates<>();
+
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * Sends progress to {@code listener} while {@code owner} is started, starting with the
+         * latest one; onFinished reaches only the first started observer.
+         */
+        @MainThread
+        public void observe(@NonNull LifecycleOwner owner, @NonNull Listener listener) {
+            updates.observe(owner, (p, finished) -> {
+                if (finished) listener.onFinished(p);
+                else listener.onProgress(p);
+            });
+        }
+    }
+
+    private static GuestCsvImporter instance;
+
+    private final ContentResolver resolver;
+    private final AppDatabase database;
+    private final ExecutorService executor;
+    private final Handler main = new Handler(Looper.getMainLooper());
+    private final HashMap<Long, Job> jobs = new HashMap<>(); // main thread only
+
+    @NonNull
+    public static synchronized GuestCsvImporter getInstance(@NonNull Context context) {
+        if (instance == null) instance = new GuestCsvImporter(context.getApplicationContext());
+        return instance;
+    }
+
+    private GuestCsvImporter(@NonNull Context app) {
+        resolver = app.getContentResolver();
+        database = AppDatabase.getInstance(app);
+        executor = Executors.newSingleThreadExecutor(r -> new Thread(() -> {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+            r.run();
+        }, "guest-import"));
+    }
+
+    /** Starts importing {@code csv}; while an import of this event is current, returns that one. */
+    @MainThread
+    @NonNull
+    public Job importGuests(long eventId, @NonNull Uri csv) {
+        Job job = currentJob(eventId);
+        if (job != null) return job;
+        Job started = new Job();
+        jobs.put(eventId, started);
+        executor.execute(() -> run(started, eventId, csv));
+        return started;
+    }
+
+    /** The event's import that is running or whose result no screen has shown yet, else null. */
+    @MainThread
+    @Nullable
+    public Job currentJob(long eventId) {
+        Job job = jobs.get(eventId);
+        if (job != null && !job.updates.isPending()) {
+            jobs.remove(eventId);
+            return null;
+        }
+        return job;
+    }
+
+    // -----------------------------
+    // Import (background)
+    // -----------------------------
+    private void run(@NonNull Job job, long eventId, @NonNull Uri csv) {
+        long start = SystemClock.elapsedRealtime();
+        Progress progress = new Progress();
+        progress.totalBytes = sizeOf(csv);
+
+        try (InputStream raw = resolver.openInputStream(csv)) {
+            if (raw == null) throw new IOException("Cannot open " + csv);
+            CountingInputStream counted = new CountingInputStream(raw);
+            CsvReader reader = new CsvReader(new InputStreamReader(counted, StandardCharsets.UTF_8));
+
+            Columns columns = null;
+            long createdAt = System.currentTimeMillis();
+            List<AppDatabase.Guest> chunk = new ArrayList<>(CHUNK_ROWS);
+            List<String> row;
+            while (!job.isCancelled() && (row = reader.next()) != null) {
+                if (isBlank(row)) continue;
+                if (columns == null) {
+                    columns = Columns.detect(row);
+                    if (columns.header) continue;
+                }
+
+                AppDatabase.Guest g = new AppDatabase.Guest();
+                String error = parseRow(row, columns, g);
+                if (error != null) {
+                    progress.skipped++;
+                    if (progress.rowErrors.size() < MAX_ERRORS_KEPT) {
+                        progress.rowErrors.add("Line " + reader.recordLine() + ": " + error);
+                    }
+                    continue;
+                }
+                g.eventId = eventId;
+                g.token = AppDatabase.generateToken();
+                g.createdAt = createdAt;
+                chunk.add(g);
+
+                if (chunk.size() >= CHUNK_ROWS) {
+                    flush(chunk, progress, counted, start);
+                    publish(job, progress, false);
+                }
+            }
+            if (!chunk.isEmpty() && !job.isCancelled()) flush(chunk, progress, counted, start);
+            progress.bytesRead = counted.count;
+        } catch (IOException | RuntimeException ex) {
+            Log.e(TAG, "Import failed: " + ex);
+            progress.failure = ex.getMessage() != null ? ex.getMessage() : ex.toString();
+        }
+
+        progress.cancelled = job.isCancelled();
+        progress.elapsedMillis = SystemClock.elapsedRealtime() - start;
+        progress.done = true;
+        Log.d(TAG, String.format(Locale.US, "Imported %d, skipped %d in %d ms (%.0f rows/s)%s",
+                progress.imported, progress.skipped, progress.elapsedMillis, progress.rowsPerSecond(),
+                progress.cancelled ? ", cancelled" : ""));
+        publish(job, progress, true);
+    }
+
+    private void flush(@NonNull List<AppDatabase.Guest> chunk, @NonNull Progress progress,
+                       @NonNull CountingInputStream counted, long start) {
+        int inserted = database.insertGuestsBatch(chunk);
+        progress.imported += inserted;
+        progress.skipped += chunk.size() - inserted;
+        progress.bytesRead = counted.count;
+        progress.elapsedMillis = SystemClock.elapsedRealtime() - start;
+        chunk.clear();
+    }
+
+    private void publish(@NonNull Job job, @NonNull Progress progress, boolean finished) {
+        Progress snapshot = progress.copy();
+        main.post(() -> job.updates.publish(snapshot, finished));
+    }
+
+    private long sizeOf(@NonNull Uri uri) {
+        try (Cursor c = resolver.query(uri, new String[]{OpenableColumns.SIZE}, null, null, null)) {
+            if (c != null && c.moveToFirst() && !c.isNull(0)) return c.getLong(0);
+        } catch (RuntimeException ignored) {
+            // Not every provider answers; progress is then shown as a count only.
+        }
+        return -1L;
+    }
+
+    // -----------------------------
+    // Rows
+    // -----------------------------
+
+    /** Fills {@code out} from one record; returns why the row is invalid, or null. */
+    @Nullable
+    static String parseRow(@NonNull List<String> row, @NonNull Columns columns, @NonNull AppDatabase.Guest out) {
+        String name = AppDatabase.safeTrim(cell(row, columns.name));
+        if (name == null) return "name is required";
+        if (name.length() > MAX_NAME_CHARS) return "name longer than " + MAX_NAME_CHARS + " characters";
+
+        String rsvp = parseRsvp(cell(row, columns.rsvp));
+        if (rsvp == null) return "unknown RSVP \"" + cell(row, columns.rsvp).trim() + "\"";
+
+        out.name = name;
+        out.rsvpStatus = rsvp;
+        out.menuChoice = AppDatabase.safeTrim(cell(row, columns.menu));
+        out.preferenceNote = AppDatabase.safeTrim(cell(row, columns.note));
+        return null;
+    }
+
+    /** YES / NO, null if not recognised. An empty cell means YES (invited = attending). */
+    @Nullable
+    static String parseRsvp(@NonNull String raw) {
+        switch (raw.trim().toLowerCase(Locale.ROOT)) {
+            case "":
+            case "yes":
+            case "y":
+            case "ya":
+            case "true":
+            case "1":
+                return AppDatabase.RSVP_YES;
+            case "no":
+            case "n":
+            case "tidak":
+            case "false":
+            case "0":
+                return AppDatabase.RSVP_NO;
+            default:
+                return null;
+        }
+    }
+
+    @NonNull
+    private static String cell(@NonNull List<String> row, int index) {
+        return index >= 0 && index < row.size() ? row.get(index) : "";
+    }
+
+    private static boolean isBlank(@NonNull List<String> row) {
+        for (String s : row) if (!s.trim().isEmpty()) return false;
+        return true;
+    }
+
+    /** Where each field sits in a record (-1 = absent). */
+    static final class Columns {
+        int name = 0;
+        int rsvp = 1;
+        int menu = 2;
+        int note = 3;
+        boolean header = false;
+
+        @NonNull
+        static Columns detect(@NonNull List<String> firstRow) {
+            Columns c = new Columns();
+            int name = -1, rsvp = -1, menu = -1, note = -1;
+            for (int i = 0; i < firstRow.size(); i++) {
+                String h = firstRow.get(i).trim().toLowerCase(Locale.ROOT).replace(" ", "").replace("_", "");
+                if (h.equals("name") || h.equals("guestname") || h.equals("nama")) name = i;
+                else if (h.equals("rsvp") || h.equals("rsvpstatus") || h.equals("attending")) rsvp = i;
+                else if (h.equals("menu") || h.equals("menuchoice")) menu = i;
+                else if (h.equals("note") || h.equals("preference") || h.equals("preferencenote")) note = i;
+            }
+            if (name < 0) return c; // no header: positional
+            c.header = true;
+            c.name = name;
+            c.rsvp = rsvp;
+            c.menu = menu;
+            c.note = note;
+            return c;
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        volatile long count = 0L;
+
+        CountingInputStream(@NonNull InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(@NonNull byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) count += n;
+            return n;
+        }
+    }
+}
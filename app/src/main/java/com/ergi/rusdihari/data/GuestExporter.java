@@ -0,0 +1,359 @@
+package com.ergi.rusdihari.data;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.ParcelFileDescriptor;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.ergi.rusdihari.AppDatabase;
+
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * GuestExporter - writes an event's guest list with check-in results to a document (SAF uri).
+ *
+ * - Rows come from AppDatabase.forEachGuest(): keyset pages, one reused Guest object.
+ * - Bytes go through one 64 KB direct ByteBuffer into the document's FileChannel; text is
+ *   encoded straight into that buffer. Memory use does not grow with the guest count.
+ *
+ * Formats:
+ * - CSV: header row, then name, token, rsvp, menu, checked_in_at (ISO-8601, device zone),
+ *   checked_in_lat, checked_in_lng. Empty cell = no value.
+ * - BINARY (big-endian): "RGX1", int version, long eventId, long exportedAt; per guest a
+ *   0x01 marker, then name, token, rsvp, menu as strings (int byte length, -1 = null, UTF-8),
+ *   long checkedInAt (0 = not checked in), double lat, double lng (NaN = none); ends with a
+ *   0x00 marker and the int row count.
+ *
+ * Like GuestCsvImporter, an export belongs to the app rather than to the screen that started
+ * it: screens find it again with currentJob(eventId) and follow it with Job.observe().
+ */
+public class GuestExporter {
+
+    private static final String TAG = "GuestExporter";
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final int BINARY_VERSION = 1;
+
+    public enum Format {
+        CSV("text/csv", ".csv"),
+        BINARY("application/octet-stream", ".rgx");
+
+        public final String mimeType;
+        public final String extension;
+
+        Format(@NonNull String mimeType, @NonNull String extension) {
+            this.mimeType = mimeType;
+            this.extension = extension;
+        }
+    }
+
+    public interface Listener {
+        /** Main thread. */
+        void onExported(@NonNull Result result);
+    }
+
+    public static class Result {
+        public int rows;
+        public long bytes;
+        public long elapsedMillis;
+        @Nullable public String failure;
+
+        public double rowsPerSecond() {
+            return elapsedMillis <= 0 ? 0d : rows * 1000d / elapsedMillis;
+        }
+
+        public double megabytesPerSecond() {
+            return elapsedMillis <= 0 ? 0d : bytes / 1048576d * 1000d / elapsedMillis;
+        }
+    }
+
+    public static final class Job {
+        private final JobUpdates<Result> updates = new JobUpdates<>();
+
+        /** Sends the result to {@code listener} once, when {@code owner} is (or next gets) started. */
+        @MainThread
+        public void observe(@NonNull LifecycleOwner owner, @NonNull Listener listener) {
+            updates.observe(owner, (r, finished) -> listener.onExported(r));
+        }
+    }
+
+    private static GuestExporter instance;
+
+    private final ContentResolver resolver;
+    private final AppDatabase database;
+    private final ExecutorService executor;
+    private final Handler main = new Handler(Looper.getMainLooper());
+    private final HashMap<Long, Job> jobs = new HashMap<>(); // main thread only
+
+    @NonNull
+    public static synchronized GuestExporter getInstance(@NonNull Context context) {
+        if (instance == null) instance = new GuestExporter(context.getApplicationContext());
+        return instance;
+    }
+
+    private GuestExporter(@NonNull Context app) {
+        resolver = app.getContentResolver();
+        database = AppDatabase.getInstance(app);
+        executor = Executors.newSingleThreadExecutor(r -> new Thread(() -> {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+            r.run();
+        }, "guest-export"));
+    }
+
+    /** Starts the export; while an export of this event is current, returns that one instead. */
+    @MainThread
+    @NonNull
+    public Job export(long eventId, @NonNull Uri target, @NonNull Format format) {
+        Job job = currentJob(eventId);
+        if (job != null) return job;
+        Job started = new Job();
+        jobs.put(eventId, started);
+        executor.execute(() -> {
+            Result r = exportNow(database, resolver, eventId, target, format);
+            main.post(() -> started.updates.publish(r, true));
+        });
+        return started;
+    }
+
+    /** The event's export that is running or whose result no screen has shown yet, else null. */
+    @MainThread
+    @Nullable
+    public Job currentJob(long eventId) {
+        Job job = jobs.get(eventId);
+        if (job != null && !job.updates.isPending()) {
+            jobs.remove(eventId);
+            return null;
+        }
+        return job;
+    }
+
+    /** Synchronous export (benchmarks / callers already on a background thread). */
+    @WorkerThread
+    @NonNull
+    public static Result exportNow(@NonNull AppDatabase db, @NonNull ContentResolver resolver, long eventId,
+                                   @NonNull Uri target, @NonNull Format format) {
+        Result result = new Result();
+        long start = SystemClock.elapsedRealtime();
+        try (ParcelFileDescriptor pfd = openForWrite(resolver, target);
+             FileOutputStream fos = new FileOutputStream(pfd.getFileDescriptor());
+             FileChannel channel = fos.getChannel()) {
+            ChannelWriter out = new ChannelWriter(channel);
+            if (format == Format.CSV) {
+                CsvRows rows = new CsvRows(out);
+                rows.header();
+                result.rows = db.forEachGuest(eventId, rows::write);
+            } else {
+                out.putAscii("RGX1");
+                out.putInt(BINARY_VERSION);
+                out.putLong(eventId);
+                out.putLong(System.currentTimeMillis());
+                result.rows = db.forEachGuest(eventId, g -> writeBinary(out, g));
+                out.putByte((byte) 0);
+                out.putInt(result.rows);
+            }
+            out.flush();
+            result.bytes = out.bytesWritten;
+        } catch (IOException | RuntimeException ex) {
+            Log.e(TAG, "Export failed: " + ex);
+            result.failure = ex.getMessage() != null ? ex.getMessage() : ex.toString();
+        }
+        result.elapsedMillis = SystemClock.elapsedRealtime() - start;
+        Log.d(TAG, String.format(Locale.US, "%s export: %d rows, %d bytes in %d ms (%.0f rows/s, %.1f MB/s)",
+                format, result.rows, result.bytes, result.elapsedMillis,
+                result.rowsPerSecond(), result.megabytesPerSecond()));
+        return result;
+    }
+
+    @NonNull
+    private static ParcelFileDescriptor openForWrite(@NonNull ContentResolver resolver, @NonNull Uri target)
+            throws FileNotFoundException {
+        ParcelFileDescriptor pfd;
+        try {
+            pfd = resolver.openFileDescriptor(target, "wt"); // truncate when overwriting
+        } catch (IllegalArgumentException | UnsupportedOperationException | FileNotFoundException ex) {
+            pfd = resolver.openFileDescriptor(target, "w");   // providers without "wt"
+        }
+        if (pfd == null) throw new FileNotFoundException("Cannot open " + target);
+        return pfd;
+    }
+
+    // -----------------------------
+    // Formats
+    // -----------------------------
+    private static void writeBinary(@NonNull ChannelWriter out, @NonNull AppDatabase.Guest g) throws IOException {
+        out.putByte((byte) 1);
+        out.putString(g.name);
+        out.putString(g.token);
+        out.putString(g.rsvpStatus);
+        out.putString(g.menuChoice);
+        out.putLong(g.checkedInAt != null ? g.checkedInAt : 0L);
+        out.putDouble(g.checkedInLat != null ? g.checkedInLat : Double.NaN);
+        out.putDouble(g.checkedInLng != null ? g.checkedInLng : Double.NaN);
+    }
+
+    /** One reused StringBuilder per export; each row is encoded into the buffer in one go. */
+    private static final class CsvRows {
+        private final ChannelWriter out;
+        private final StringBuilder line = new StringBuilder(256);
+        private final DateTimeFormatter time = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+        private final ZoneId zone = ZoneId.systemDefault();
+
+        CsvRows(@NonNull ChannelWriter out) {
+            this.out = out;
+        }
+
+        void header() throws IOException {
+            out.putAscii("name,token,rsvp,menu,checked_in_at,checked_in_lat,checked_in_lng\r\n");
+        }
+
+        void write(@NonNull AppDatabase.Guest g) throws IOException {
+            line.setLength(0);
+            cell(g.name).append(',');
+            cell(g.token).append(',');
+            cell(g.rsvpStatus).append(',');
+            cell(g.menuChoice).append(',');
+            if (g.checkedInAt != null && g.checkedInAt > 0) {
+                time.formatTo(Instant.ofEpochMilli(g.checkedInAt).atZone(zone), line);
+            }
+            line.append(',');
+            if (g.checkedInLat != null) line.append(g.checkedInLat.doubleValue());
+            line.append(',');
+            if (g.checkedInLng != null) line.append(g.checkedInLng.doubleValue());
+            line.append("\r\n");
+            out.putChars(line);
+        }
+
+        @NonNull
+        private StringBuilder cell(@Nullable String v) {
+            if (v == null) return line;
+            boolean quote = false;
+            for (int i = 0; i < v.length() && !quote; i++) {
+                char c = v.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) return line.append(v);
+            line.append('"');
+            for (int i = 0; i < v.length(); i++) {
+                char c = v.charAt(i);
+                if (c == '"') line.append('"');
+                line.append(c);
+            }
+            return line.append('"');
+        }
+    }
+
+    // -----------------------------
+    // Buffered channel output
+    // -----------------------------
+    private static final class ChannelWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        private final CharsetEncoder utf8 = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        long bytesWritten = 0L;
+
+        ChannelWriter(@NonNull FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void putByte(byte b) throws IOException {
+            ensure(1);
+            buf.put(b);
+        }
+
+        void putInt(int v) throws IOException {
+            ensure(4);
+            buf.putInt(v);
+        }
+
+        void putLong(long v) throws IOException {
+            ensure(8);
+            buf.putLong(v);
+        }
+
+        void putDouble(double v) throws IOException {
+            ensure(8);
+            buf.putDouble(v);
+        }
+
+        void putAscii(@NonNull String s) throws IOException {
+            ensure(s.length());
+            for (int i = 0; i < s.length(); i++) buf.put((byte) s.charAt(i));
+        }
+
+        /** Length-prefixed UTF-8; -1 for null. */
+        void putString(@Nullable String s) throws IOException {
+            if (s == null) {
+                putInt(-1);
+                return;
+            }
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            int off = 0;
+            while (off < bytes.length) {
+                if (!buf.hasRemaining()) drain();
+                int n = Math.min(buf.remaining(), bytes.length - off);
+                buf.put(bytes, off, n);
+                off += n;
+            }
+        }
+
+        /** Encodes straight into the buffer, draining it whenever it fills up. */
+        void putChars(@NonNull CharSequence chars) throws IOException {
+            CharBuffer in = CharBuffer.wrap(chars);
+            utf8.reset();
+            while (true) {
+                CoderResult r = utf8.encode(in, buf, true);
+                if (r.isOverflow()) {
+                    drain();
+                } else if (r.isUnderflow()) {
+                    break;
+                } else {
+                    r.throwException();
+                }
+            }
+            while (utf8.flush(buf).isOverflow()) drain();
+        }
+
+        void flush() throws IOException {
+            drain();
+        }
+
+        private void ensure(int n) throws IOException {
+            if (buf.remaining() < n) drain();
+        }
+
+        private void drain() throws IOException {
+            buf.flip();
+            while (buf.hasRemaining()) bytesWritten += channel.write(buf);
+            buf.clear();
+        }
+    }
+}
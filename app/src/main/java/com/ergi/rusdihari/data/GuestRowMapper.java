@@ -0,0 +1,103 @@
+package com.ergi.rusdihari.data;
+
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+
+import com.ergi.rusdihari.AppDatabase;
+
+/**
+ * GuestRowMapper - Cursor rows to AppDatabase.Guest, column indices resolved once per cursor.
+ *
+ * Same contract as EventRowMapper: columns missing from the projection keep their defaults
+ * (null for the nullable ones).
+ */
+public final class GuestRowMapper {
+
+    /** Scanner roster row: name / RSVP / menu / status, plus the keyset-paging keys. */
+    public static final String[] SCANNER_COLUMNS = {
+            AppDatabase.COL_GUEST_ID,
+            AppDatabase.COL_GUEST_EVENT_ID,
+            AppDatabase.COL_GUEST_NAME,
+            AppDatabase.COL_GUEST_TOKEN,
+            AppDatabase.COL_GUEST_RSVP_STATUS,
+            AppDatabase.COL_GUEST_MENU_CHOICE,
+            AppDatabase.COL_GUEST_CREATED_AT,
+            AppDatabase.COL_GUEST_CHECKED_IN_AT
+    };
+
+    /** Check-in results export (GuestExporter), read in id order. */
+    public static final String[] EXPORT_COLUMNS = {
+            AppDatabase.COL_GUEST_ID,
+            AppDatabase.COL_GUEST_NAME,
+            AppDatabase.COL_GUEST_TOKEN,
+            AppDatabase.COL_GUEST_RSVP_STATUS,
+            AppDatabase.COL_GUEST_MENU_CHOICE,
+            AppDatabase.COL_GUEST_CHECKED_IN_AT,
+            AppDatabase.COL_GUEST_CHECKED_IN_LAT,
+            AppDatabase.COL_GUEST_CHECKED_IN_LNG
+    };
+
+    /** Every column (ticket, check-in lookups). */
+    public static final String[] DETAIL_COLUMNS = {
+            AppDatabase.COL_GUEST_ID,
+            AppDatabase.COL_GUEST_EVENT_ID,
+            AppDatabase.COL_GUEST_NAME,
+            AppDatabase.COL_GUEST_TOKEN,
+            AppDatabase.COL_GUEST_RSVP_STATUS,
+            AppDatabase.COL_GUEST_MENU_CHOICE,
+            AppDatabase.COL_GUEST_PREFERENCE_NOTE,
+            AppDatabase.COL_GUEST_CREATED_AT,
+            AppDatabase.COL_GUEST_CHECKED_IN_AT,
+            AppDatabase.COL_GUEST_CHECKED_IN_LAT,
+            AppDatabase.COL_GUEST_CHECKED_IN_LNG
+    };
+
+    private final int id;
+    private final int eventId;
+    private final int name;
+    private final int token;
+    private final int rsvpStatus;
+    private final int menuChoice;
+    private final int preferenceNote;
+    private final int createdAt;
+    private final int checkedInAt;
+    private final int checkedInLat;
+    private final int checkedInLng;
+
+    public GuestRowMapper(@NonNull Cursor c) {
+        id = c.getColumnIndexOrThrow(AppDatabase.COL_GUEST_ID);
+        eventId = c.getColumnIndex(AppDatabase.COL_GUEST_EVENT_ID);
+        name = c.getColumnIndex(AppDatabase.COL_GUEST_NAME);
+        token = c.getColumnIndex(AppDatabase.COL_GUEST_TOKEN);
+        rsvpStatus = c.getColumnIndex(AppDatabase.COL_GUEST_RSVP_STATUS);
+        menuChoice = c.getColumnIndex(AppDatabase.COL_GUEST_MENU_CHOICE);
+        preferenceNote = c.getColumnIndex(AppDatabase.COL_GUEST_PREFERENCE_NOTE);
+        createdAt = c.getColumnIndex(AppDatabase.COL_GUEST_CREATED_AT);
+        checkedInAt = c.getColumnIndex(AppDatabase.COL_GUEST_CHECKED_IN_AT);
+        checkedInLat = c.getColumnIndex(AppDatabase.COL_GUEST_CHECKED_IN_LAT);
+        checkedInLng = c.getColumnIndex(AppDatabase.COL_GUEST_CHECKED_IN_LNG);
+    }
+
+    @NonNull
+    public AppDatabase.Guest map(@NonNull Cursor c) {
+        AppDatabase.Guest g = new AppDatabase.Guest();
+        mapInto(c, g);
+        return g;
+    }
+
+    /** Overwrites every projected field of {@code g}, so one object can be reused per row. */
+    public void mapInto(@NonNull Cursor c, @NonNull AppDatabase.Guest g) {
+        g.id = c.getLong(id);
+        if (eventId >= 0) g.eventId = c.getLong(eventId);
+        if (name >= 0) g.name = c.getString(name); // may be null
+        if (token >= 0) g.token = c.getString(token);
+        if (rsvpStatus >= 0) g.rsvpStatus = c.getString(rsvpStatus);
+        if (menuChoice >= 0) g.menuChoice = c.getString(menuChoice);
+        if (preferenceNote >= 0) g.preferenceNote = c.getString(preferenceNote);
+        if (createdAt >= 0) g.createdAt = c.getLong(createdAt);
+        if (checkedInAt >= 0) g.checkedInAt = c.isNull(checkedInAt) ? null : c.getLong(checkedInAt);
+        if (checkedInLat >= 0) g.checkedInLat = c.isNull(checkedInLat) ? null : c.getDouble(checkedInLat);
+        if (checkedInLng >= 0) g.checkedInLng = c.isNull(checkedInLng) ? null : c.getDouble(checkedInLng);
+    }
+}
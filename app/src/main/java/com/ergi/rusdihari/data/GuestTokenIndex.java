@@ -0,0 +1,191 @@
+package com.ergi.rusdihari.data;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * GuestTokenIndex - compact in-memory roster of one event, keyed by ticket token.
+ *
+ * Tokens are UUID strings (AppDatabase.generateToken()), so each one is stored as two longs
+ * in an open-addressing table (linear probing, load factor <= 0.5). Only the lower-case form
+ * UUID.toString() produces is accepted: the guests table compares tokens case-sensitively,
+ * and the index must not know a token the database would not find. Lookups parse the token
+ * in place and never allocate, which keeps the scanner's per-guest cost constant no matter
+ * how many guests the event has.
+ *
+ * Per slot we keep: guest id, check-in time (0 = not checked in), RSVP flag and the guest
+ * name (needed for door feedback; null until the admin fills it in).
+ *
+ * Not thread-safe: owned by the scanner screen and touched from the main thread only.
+ * Callers must mirror their own writes (markCheckedIn, updateName) to keep it coherent with
+ * the guests table.
+ */
+public class GuestTokenIndex {
+
+    public static final int NOT_FOUND = -1;
+
+    private static final byte FLAG_RSVP_YES = 1;
+
+    private final int mask;
+    private final long[] tokenHigh;
+    private final long[] tokenLow;
+    private final long[] guestIds;      // 0 = empty slot (ids are AUTOINCREMENT, start at 1)
+    private final long[] checkedInAt;   // epoch millis, 0 = not checked in
+    private final byte[] flags;
+    private final String[] names;
+
+    private int size = 0;
+
+    public GuestTokenIndex(int expectedGuests) {
+        int capacity = Integer.highestOneBit(Math.max(expectedGuests, 8) * 2 - 1) << 1;
+        mask = capacity - 1;
+        tokenHigh = new long[capacity];
+        tokenLow = new long[capacity];
+        guestIds = new long[capacity];
+        checkedInAt = new long[capacity];
+        flags = new byte[capacity];
+        names = new String[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds (or replaces) one guest. Returns false when the token is not a UUID or the
+     * table is full; such guests are simply left to the database fallback.
+     */
+    public boolean put(long guestId, @NonNull String token, @Nullable String name,
+                       boolean rsvpYes, long checkedInAtMillis) {
+        if (guestId <= 0 || !isUuidToken(token)) return false;
+
+        long hi = parseHigh(token);
+        long lo = parseLow(token);
+        int slot = probe(hi, lo);
+        if (slot == NOT_FOUND) return false;
+
+        if (guestIds[slot] == 0L) size++;
+        tokenHigh[slot] = hi;
+        tokenLow[slot] = lo;
+        guestIds[slot] = guestId;
+        names[slot] = name;
+        checkedInAt[slot] = Math.max(0L, checkedInAtMillis);
+        flags[slot] = rsvpYes ? FLAG_RSVP_YES : 0;
+        return true;
+    }
+
+    /** Slot of the token, or NOT_FOUND. Allocation-free. */
+    public int find(@NonNull String token) {
+        if (!isUuidToken(token)) return NOT_FOUND;
+        long hi = parseHigh(token);
+        long lo = parseLow(token);
+        int slot = probe(hi, lo);
+        if (slot == NOT_FOUND || guestIds[slot] == 0L) return NOT_FOUND;
+        return slot;
+    }
+
+    public long guestIdAt(int slot) {
+        return guestIds[slot];
+    }
+
+    public boolean isCheckedInAt(int slot) {
+        return checkedInAt[slot] > 0L;
+    }
+
+    /** Check-in time in epoch millis, 0 if not checked in. */
+    public long checkedInAtMillis(int slot) {
+        return checkedInAt[slot];
+    }
+
+    public boolean isRsvpYesAt(int slot) {
+        return (flags[slot] & FLAG_RSVP_YES) != 0;
+    }
+
+    public boolean hasNameAt(int slot) {
+        String n = names[slot];
+        return n != null && n.trim().length() > 0;
+    }
+
+    @Nullable
+    public String nameAt(int slot) {
+        return names[slot];
+    }
+
+    /** Mirror of AppDatabase.markCheckedIn(). */
+    public void markCheckedIn(@NonNull String token, long atMillis) {
+        int slot = find(token);
+        if (slot != NOT_FOUND) checkedInAt[slot] = atMillis;
+    }
+
+    /** Mirror of AppDatabase.updateGuestNameByToken(). */
+    public void updateName(@NonNull String token, @Nullable String name) {
+        int slot = find(token);
+        if (slot != NOT_FOUND) names[slot] = name;
+    }
+
+    // -----------------------------
+    // Hash table internals
+    // -----------------------------
+
+    /** Slot holding (hi, lo), or the first empty slot of its probe chain. */
+    private int probe(long hi, long lo) {
+        int slot = mix(hi, lo) & mask;
+        for (int i = 0; i <= mask; i++) {
+            if (guestIds[slot] == 0L) return slot;
+            if (tokenHigh[slot] == hi && tokenLow[slot] == lo) return slot;
+            slot = (slot + 1) & mask;
+        }
+        return NOT_FOUND;
+    }
+
+    private static int mix(long hi, long lo) {
+        long h = hi * 0x9E3779B97F4A7C15L ^ lo;
+        h ^= (h >>> 33);
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= (h >>> 33);
+        return (int) h;
+    }
+
+    // -----------------------------
+    // Allocation-free UUID parsing ("xxxxxxxx-xxxx-xxxx-xxxx-xxxxxxxxxxxx", lower case)
+    // -----------------------------
+
+    public static boolean isUuidToken(@NonNull String s) {
+        if (s.length() != 36) return false;
+        for (int i = 0; i < 36; i++) {
+            char c = s.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') return false;
+            } else if (hexValue(c) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Most significant 64 bits; caller must have checked isUuidToken(). */
+    public static long parseHigh(@NonNull String s) {
+        return parseHex(s, 0, 19);
+    }
+
+    /** Least significant 64 bits; caller must have checked isUuidToken(). */
+    public static long parseLow(@NonNull String s) {
+        return parseHex(s, 19, 36);
+    }
+
+    private static long parseHex(String s, int from, int to) {
+        long v = 0L;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c == '-') continue;
+            v = (v << 4) | hexValue(c);
+        }
+        return v;
+    }
+
+    private static int hexValue(char c) {
+        if (c >= '0' && c <= '9') return c - '0';
+        if (c >= 'a' && c <= 'f') return c - 'a' + 10;
+        return -1; // no 'A'-'F': see class doc
+    }
+}
@@ -0,0 +1,74 @@
+package com.ergi.rusdihari.data;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+/**
+ * JobUpdates - hands the updates of an app-scoped background job to the screen showing it.
+ *
+ * The job publish()es from the main thread; a screen observe()s with its LifecycleOwner.
+ * The callback is only held between onStart and onStop, so a job outliving its screen never
+ * keeps that screen alive, and a recreated screen that observes again gets the latest update
+ * as soon as it starts. The final update is delivered once, to the first started observer.
+ * Main thread only.
+ */
+final class JobUpdates<T> {
+
+    interface Callback<T> {
+        void onUpdate(@NonNull T value, boolean finished);
+    }
+
+    @Nullable private T latest;
+    private boolean finished = false;
+    private boolean finishDelivered = false;
+    @Nullable private Callback<T> active;
+
+    @MainThread
+    void publish(@NonNull T value, boolean finished) {
+        latest = value;
+        this.finished = finished;
+        deliver();
+    }
+
+    /** False once the final update has reached a screen; the job can then be forgotten. */
+    @MainThread
+    boolean isPending() {
+        return !finishDelivered;
+    }
+
+    @MainThread
+    void observe(@NonNull LifecycleOwner owner, @NonNull Callback<T> callback) {
+        owner.getLifecycle().addObserver(new DefaultLifecycleObserver() {
+            @Override
+            public void onStart(@NonNull LifecycleOwner o) {
+                if (finishDelivered) return;
+                active = callback;
+                deliver();
+            }
+
+            @Override
+            public void onStop(@NonNull LifecycleOwner o) {
+                if (active == callback) active = null;
+            }
+
+            @Override
+            public void onDestroy(@NonNull LifecycleOwner o) {
+                o.getLifecycle().removeObserver(this);
+            }
+        });
+    }
+
+    private void deliver() {
+        Callback<T> c = active;
+        T value = latest;
+        if (c == null || value == null || finishDelivered) return;
+        if (finished) {
+            finishDelivered = true;
+            active = null;
+        }
+        c.onUpdate(value, finished);
+    }
+}
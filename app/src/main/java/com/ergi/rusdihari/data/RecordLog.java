@@ -0,0 +1,142 @@
+package com.ergi.rusdihari.data;
+
+import androidx.annotation.NonNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+/**
+ * RecordLog - append-only file of length-prefixed records.
+ *
+ * Record layout: [int length][int crc32(payload)][payload], big-endian.
+ * - append() writes one record at the end of the file: cost depends on the record, not on
+ *   how much is already stored.
+ * - read() streams records front to back through a small buffer. A torn or corrupt tail
+ *   (process killed mid-append) ends the stream; the next append() cuts it off first.
+ * - rewrite() replaces the whole file (temp file + fsync + rename), used for compaction.
+ *
+ * Not thread-safe: callers serialize access.
+ */
+public class RecordLog {
+
+    public interface Reader {
+        void onRecord(@NonNull byte[] payload) throws IOException;
+    }
+
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 1024 * 1024;
+
+    private final File file;
+    private long validLength = -1L; // end of the last intact record, known after read()
+
+    public RecordLog(@NonNull File file) {
+        this.file = file;
+    }
+
+    public boolean exists() {
+        return file.exists();
+    }
+
+    /** @return number of intact records passed to the reader */
+    public int read(@NonNull Reader reader) throws IOException {
+        if (!file.exists()) {
+            validLength = 0L;
+            return 0;
+        }
+        int count = 0;
+        long offset = 0L;
+        CRC32 crc = new CRC32();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            while (true) {
+                int length;
+                int checksum;
+                byte[] payload;
+                try {
+                    length = in.readInt();
+                    if (length < 0 || length > MAX_RECORD_BYTES) break;
+                    checksum = in.readInt();
+                    payload = new byte[length];
+                    in.readFully(payload);
+                } catch (EOFException eof) {
+                    break;
+                }
+                crc.reset();
+                crc.update(payload, 0, length);
+                if ((int) crc.getValue() != checksum) break;
+
+                reader.onRecord(payload);
+                offset += HEADER_BYTES + length;
+                count++;
+            }
+        }
+        validLength = offset;
+        return count;
+    }
+
+    public void append(@NonNull byte[] payload) throws IOException {
+        if (validLength < 0) read(p -> { });
+        byte[] record = frame(payload);
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            FileChannel ch = out.getChannel();
+            if (ch.size() > validLength) ch.truncate(validLength);
+            // Unbuffered write(): one syscall, the record is with the OS when this returns.
+            out.write(record);
+        }
+        validLength += record.length;
+    }
+
+    /** Atomically replaces the log with exactly these records. */
+    public void rewrite(@NonNull Iterable<byte[]> payloads) throws IOException {
+        File tmp = new File(file.getPath() + ".tmp");
+        long length = 0L;
+        FileOutputStream fos = new FileOutputStream(tmp, false);
+        try {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos));
+            for (byte[] p : payloads) {
+                byte[] record = frame(p);
+                out.write(record);
+                length += record.length;
+            }
+            out.flush();
+            fos.getFD().sync();
+        } finally {
+            fos.close();
+        }
+        if (!tmp.renameTo(file)) {
+            //noinspection ResultOfMethodCallIgnored
+            tmp.delete();
+            throw new IOException("Cannot replace " + file);
+        }
+        validLength = length;
+    }
+
+    @NonNull
+    private static byte[] frame(@NonNull byte[] payload) {
+        if (payload.length > MAX_RECORD_BYTES) throw new IllegalArgumentException("record too large");
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        int checksum = (int) crc.getValue();
+        int n = payload.length;
+
+        byte[] record = new byte[HEADER_BYTES + n];
+        record[0] = (byte) (n >>> 24);
+        record[1] = (byte) (n >>> 16);
+        record[2] = (byte) (n >>> 8);
+        record[3] = (byte) n;
+        record[4] = (byte) (checksum >>> 24);
+        record[5] = (byte) (checksum >>> 16);
+        record[6] = (byte) (checksum >>> 8);
+        record[7] = (byte) checksum;
+        System.arraycopy(payload, 0, record, HEADER_BYTES, n);
+        return record;
+    }
+}
@@ -0,0 +1,78 @@
+package com.ergi.rusdihari.data;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import androidx.annotation.NonNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * StatementCache - SQLiteStatement objects for hot writes, kept for the life of one SQLiteDatabase.
+ *
+ * - execute(sql, work) creates the SQLiteStatement for {@code sql} on first use, then hands the
+ *   same object to every later call with its bindings cleared, so hot writes skip building
+ *   SQL / ContentValues and a new statement object per call. Each execution still goes through
+ *   the connection's prepared-statement cache (keyed by SQL), which is where SQLite's compiled
+ *   form actually lives; this class does not hold it.
+ * - A statement is used by one thread at a time. execute() first joins (or opens) a
+ *   transaction, i.e. takes the database's write lock, and only then locks the statement;
+ *   every caller takes the two in that order, so a thread inside a longer transaction
+ *   (batch check-ins) can never deadlock against a single write waiting for the statement.
+ * - Writes only: each call holds the write connection. Lookups returning rows stay on
+ *   rawQuery() with constant SQL, which SQLite's per-connection statement cache already reuses.
+ */
+public final class StatementCache {
+
+    public interface Work<T> {
+        T run(@NonNull SQLiteStatement statement);
+    }
+
+    private final SQLiteDatabase db;
+    private final Map<String, SQLiteStatement> statements = new HashMap<>();
+    private boolean closed = false;
+
+    public StatementCache(@NonNull SQLiteDatabase db) {
+        this.db = db;
+    }
+
+    /** True if this cache was built for {@code other} (the helper may reopen the database). */
+    public boolean isFor(@NonNull SQLiteDatabase other) {
+        return db == other;
+    }
+
+    public <T> T execute(@NonNull String sql, @NonNull Work<T> work) {
+        // Nested inside the caller's transaction if there is one; a cheap one otherwise.
+        db.beginTransactionNonExclusive();
+        try {
+            SQLiteStatement st = statement(sql);
+            T result;
+            synchronized (st) {
+                st.clearBindings();
+                result = work.run(st);
+            }
+            db.setTransactionSuccessful();
+            return result;
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    public synchronized void close() {
+        closed = true;
+        for (SQLiteStatement st : statements.values()) st.close();
+        statements.clear();
+    }
+
+    @NonNull
+    private synchronized SQLiteStatement statement(@NonNull String sql) {
+        if (closed) throw new IllegalStateException("StatementCache closed");
+        SQLiteStatement st = statements.get(sql);
+        if (st == null) {
+            st = db.compileStatement(sql);
+            statements.put(sql, st);
+        }
+        return st;
+    }
+}
@@ -0,0 +1,64 @@
+package com.ergi.rusdihari.data;
+
+import androidx.annotation.NonNull;
+
+/**
+ * StorageProfile - SQLite connection settings applied by AppDatabase.onConfigure().
+ *
+ * - walEnabled: write-ahead log; readers (admin dashboard) no longer wait for the scanner's
+ *   writes, and a commit appends to the WAL instead of rewriting the rollback journal.
+ * - synchronous: "FULL" | "NORMAL" | "OFF". NORMAL is safe with WAL (a power cut may lose
+ *   the last commits, never corrupt the file) and skips the fsync on every commit.
+ *   Passed to the framework (OpenParams) on API 28+; older versions use the platform default.
+ * - pageSizeBytes: only takes effect for a database file that has no tables yet.
+ * - cacheSizeKib: page cache per connection (PRAGMA cache_size=-N).
+ * - mmapSizeBytes: memory-mapped I/O for reads, 0 = off.
+ *   Both apply to every pooled connection on API 30+, to the write connection only before.
+ * - walAutoCheckpointPages: WAL size (in pages) that triggers an automatic checkpoint.
+ */
+public class StorageProfile {
+
+    public boolean walEnabled;
+    public String synchronous;
+    public int pageSizeBytes;
+    public int cacheSizeKib;
+    public long mmapSizeBytes;
+    public int walAutoCheckpointPages;
+
+    /** What the app ships with. */
+    @NonNull
+    public static StorageProfile tuned() {
+        StorageProfile p = new StorageProfile();
+        p.walEnabled = true;
+        p.synchronous = "NORMAL";
+        p.pageSizeBytes = 4096;
+        p.cacheSizeKib = 8 * 1024;
+        p.mmapSizeBytes = 32L * 1024L * 1024L;
+        p.walAutoCheckpointPages = 1000;
+        return p;
+    }
+
+    /** The platform defaults the app used before (rollback journal, FULL sync); for benchmarks. */
+    @NonNull
+    public static StorageProfile legacy() {
+        StorageProfile p = new StorageProfile();
+        p.walEnabled = false;
+        p.synchronous = "FULL";
+        p.pageSizeBytes = 4096;
+        p.cacheSizeKib = 2 * 1024;
+        p.mmapSizeBytes = 0L;
+        p.walAutoCheckpointPages = 1000;
+        return p;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "StorageProfile{wal=" + walEnabled
+                + ", synchronous=" + synchronous
+                + ", pageSize=" + pageSizeBytes
+                + ", cacheKiB=" + cacheSizeKib
+                + ", mmap=" + mmapSizeBytes
+                + ", autoCheckpoint=" + walAutoCheckpointPages + "}";
+    }
+}
@@ -17,17 +17,21 @@ import android.widget.Toast;
 import com.ergi.rusdihari.AppDatabase;
 import com.ergi.rusdihari.R;
 import com.ergi.rusdihari.TicketActivity;
+import com.ergi.rusdihari.core.EventCodes;
+import com.ergi.rusdihari.data.AppRepository;
+import com.ergi.rusdihari.data.CallScope;
 import com.ergi.rusdihari.utils.TicketStorage;
 
 public class EnterCodeFragment extends Fragment {
 
-    private AppDatabase database;
+    private AppRepository repository;
+    private CallScope scope;
 
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
         View view = inflater.inflate(R.layout.fragment_enter_code, container, false);
 
-        database = new AppDatabase(requireContext());
+        repository = AppRepository.getInstance(requireContext());
 
         EditText eventCodeInput = view.findViewById(R.id.event_code_input);
         Button joinEventButton = view.findViewById(R.id.join_event_button);
@@ -39,65 +43,61 @@ public class EnterCodeFragment extends Fragment {
                 return;
             }
 
-            Long eventId = parseEventIdFromCode(code);
+            Long eventId = EventCodes.parseEventId(code);
             if (eventId == null || eventId <= 0) {
                 Toast.makeText(getContext(), "Invalid code format. Use EVENT_ID:<number>", Toast.LENGTH_LONG).show();
                 return;
             }
 
-            AppDatabase.Event event = database.getEventById(eventId);
-            if (event == null) {
-                Toast.makeText(getContext(), "Event not found for this code", Toast.LENGTH_SHORT).show();
-                return;
-            }
+            joinEventButton.setEnabled(false);
+            repository.getEventById(scope, eventId, event -> {
+                if (event == null) {
+                    joinEventButton.setEnabled(true);
+                    Toast.makeText(getContext(), "Event not found for this code", Toast.LENGTH_SHORT).show();
+                    return;
+                }
+                createTicket(eventId, joinEventButton);
+            });
+        });
 
-            // Create ticket (guest record) WITHOUT guest name (admin will fill later)
-            String token = database.generateToken();
+        return view;
+    }
 
-            AppDatabase.Guest g = new AppDatabase.Guest();
-            g.eventId = eventId;
-            g.name = null; // <- admin will set
-            g.token = token;
-            g.rsvpStatus = AppDatabase.RSVP_YES; // default YES (you can change)
-            g.menuChoice = null;
-            g.preferenceNote = null;
-            g.createdAt = System.currentTimeMillis();
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        scope = CallScope.bindTo(getViewLifecycleOwner());
+    }
 
-            long guestRowId = database.insertGuest(g);
-            if (guestRowId <= 0) {
+    private void createTicket(long eventId, @NonNull Button joinEventButton) {
+        // Create ticket (guest record) WITHOUT guest name (admin will fill later)
+        String token = AppDatabase.generateToken();
+
+        AppDatabase.Guest g = new AppDatabase.Guest();
+        g.eventId = eventId;
+        g.name = null; // <- admin will set
+        g.token = token;
+        g.rsvpStatus = AppDatabase.RSVP_YES; // default YES (you can change)
+        g.menuChoice = null;
+        g.preferenceNote = null;
+        g.createdAt = System.currentTimeMillis();
+
+        repository.write(scope, db -> {
+            long guestRowId = db.insertGuest(g);
+            if (guestRowId > 0) TicketStorage.saveToken(repository.getAppContext(), token, eventId);
+            return guestRowId;
+        }, guestRowId -> {
+            joinEventButton.setEnabled(true);
+            if (guestRowId == null || guestRowId <= 0) {
                 Toast.makeText(getContext(), "Failed to join (maybe token conflict). Try again.", Toast.LENGTH_SHORT).show();
                 return;
             }
 
-            TicketStorage.saveToken(requireContext(), token);
-
             Toast.makeText(getContext(), "Joined! Ticket created.", Toast.LENGTH_SHORT).show();
 
             Intent i = new Intent(requireActivity(), TicketActivity.class);
             i.putExtra(TicketActivity.EXTRA_TOKEN, token);
             startActivity(i);
         });
-
-        return view;
-    }
-
-    @Nullable
-    private Long parseEventIdFromCode(@NonNull String code) {
-        String c = code.trim();
-        if (c.startsWith("EVENT_ID:")) {
-            String rest = c.substring("EVENT_ID:".length()).trim();
-            try {
-                return Long.parseLong(rest);
-            } catch (Exception ignored) {
-                return null;
-            }
-        }
-
-        // allow plain numeric id too
-        try {
-            return Long.parseLong(c);
-        } catch (Exception ignored) {
-            return null;
-        }
     }
 }
\ No newline at end of file
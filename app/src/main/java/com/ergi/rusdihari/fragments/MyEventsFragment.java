@@ -4,6 +4,7 @@ import android.content.Intent;
 import android.os.Bundle;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
@@ -17,27 +18,31 @@ import com.ergi.rusdihari.AppDatabase;
 import com.ergi.rusdihari.R;
 import com.ergi.rusdihari.TicketActivity;
 import com.ergi.rusdihari.adapter.MyTicketsAdapter;
+import com.ergi.rusdihari.data.AppRepository;
+import com.ergi.rusdihari.data.CallScope;
+import com.ergi.rusdihari.data.DbCall;
 import com.ergi.rusdihari.utils.TicketStorage;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
 
 public class MyEventsFragment extends Fragment {
 
-    private AppDatabase database;
+    private AppRepository repository;
+    private CallScope scope;
+    private DbCall pendingLoad;
 
     private RecyclerView ticketsRecyclerView;
     private TextView noEventsText;
 
     private MyTicketsAdapter adapter;
-    private final List<MyTicketsAdapter.TicketRow> rows = new ArrayList<>();
+    private final List<AppDatabase.TicketRow> rows = new ArrayList<>();
 
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
         View view = inflater.inflate(R.layout.fragment_my_events, container, false);
 
-        database = new AppDatabase(requireContext());
+        repository = AppRepository.getInstance(requireContext());
 
         ticketsRecyclerView = view.findViewById(R.id.events_recycler_view);
         noEventsText = view.findViewById(R.id.no_events_text);
@@ -55,6 +60,12 @@ public class MyEventsFragment extends Fragment {
         return view;
     }
 
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        scope = CallScope.bindTo(getViewLifecycleOwner());
+    }
+
     @Override
     public void onResume() {
         super.onResume();
@@ -62,22 +73,16 @@ public class MyEventsFragment extends Fragment {
     }
 
     private void loadTickets() {
-        rows.clear();
-
-        Set<String> tokens = TicketStorage.getTokens(requireContext());
-        for (String token : tokens) {
-            AppDatabase.TicketBundle bundle = database.getTicketBundleByToken(token);
-            if (bundle == null || bundle.event == null || bundle.guest == null) continue;
-
-            MyTicketsAdapter.TicketRow r = new MyTicketsAdapter.TicketRow();
-            r.token = token;
-            r.eventTitle = bundle.event.title != null ? bundle.event.title : "Event";
-            r.eventWhenMillis = bundle.event.datetimeMillis;
-            r.checkedIn = bundle.guest.isCheckedIn();
-            r.guestHasName = bundle.guest.hasName();
+        if (pendingLoad != null) pendingLoad.cancel();
+        // One joined query for all tickets (sorted by event date), off the main thread.
+        pendingLoad = repository.read(scope,
+                db -> TicketStorage.getTicketRows(repository.getAppContext()),
+                this::renderTickets);
+    }
 
-            rows.add(r);
-        }
+    private void renderTickets(@NonNull List<AppDatabase.TicketRow> loaded) {
+        rows.clear();
+        rows.addAll(loaded);
 
         if (rows.isEmpty()) {
             noEventsText.setVisibility(View.VISIBLE);
@@ -89,4 +94,4 @@ public class MyEventsFragment extends Fragment {
 
         adapter.notifyDataSetChanged();
     }
-}
\ No newline at end of file
+}
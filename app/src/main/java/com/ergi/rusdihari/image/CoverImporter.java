@@ -0,0 +1,235 @@
+package com.ergi.rusdihari.image;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.net.Uri;
+import android.os.Build;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.DisplayMetrics;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * CoverImporter - turns a picked image into the CoverVariant files stored with an event.
+ *
+ * On a background thread:
+ * 1. one subsampled decode of the picked image, just large enough for the biggest variant;
+ * 2. EXIF rotation applied, so variants are upright;
+ * 3. per variant: center-crop to its aspect, scale to (screen width x heightDp), write WebP
+ *    to files/covers/.
+ *
+ * The 12 MP original is never kept; every later render decodes a file sized for its view.
+ */
+public class CoverImporter {
+
+    private static final String TAG = "CoverImporter";
+    private static final String DIR = "covers";
+    private static final int MAX_WIDTH_PX = 1440;
+    private static final int QUALITY = 80;
+
+    public interface Callback {
+        /** Main thread; null if the image could not be read. */
+        void onImported(@Nullable Result result);
+    }
+
+    /** File uris of the generated variants. */
+    public static class Result {
+        public final Map<CoverVariant, Uri> uris = new EnumMap<>(CoverVariant.class);
+
+        @Nullable
+        public Uri get(@NonNull CoverVariant v) {
+            return uris.get(v);
+        }
+
+        /** For saved instance state: variant name -> uri string. */
+        @NonNull
+        public Bundle toBundle() {
+            Bundle b = new Bundle();
+            for (Map.Entry<CoverVariant, Uri> e : uris.entrySet()) {
+                b.putString(e.getKey().name(), e.getValue().toString());
+            }
+            return b;
+        }
+
+        /** Inverse of toBundle(); null if {@code b} is null or holds no variant. */
+        @Nullable
+        public static Result fromBundle(@Nullable Bundle b) {
+            if (b == null) return null;
+            Result r = new Result();
+            for (CoverVariant v : CoverVariant.values()) {
+                String uri = b.getString(v.name());
+                if (uri != null) r.uris.put(v, Uri.parse(uri));
+            }
+            return r.uris.isEmpty() ? null : r;
+        }
+    }
+
+    private static CoverImporter instance;
+
+    private final ContentResolver resolver;
+    private final Context app; // files dir resolved on the import thread (StrictMode)
+    private final int widthPx;
+    private final float density;
+    private final ExecutorService executor;
+    private final Handler main = new Handler(Looper.getMainLooper());
+
+    @NonNull
+    public static synchronized CoverImporter getInstance(@NonNull Context context) {
+        if (instance == null) instance = new CoverImporter(context.getApplicationContext());
+        return instance;
+    }
+
+    private CoverImporter(@NonNull Context app) {
+        resolver = app.getContentResolver();
+        this.app = app;
+        DisplayMetrics dm = app.getResources().getDisplayMetrics();
+        widthPx = Math.min(MAX_WIDTH_PX, Math.min(dm.widthPixels, dm.heightPixels));
+        density = dm.density;
+        executor = Executors.newSingleThreadExecutor(r -> new Thread(() -> {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+            r.run();
+        }, "cover-import"));
+    }
+
+    public void importCover(@NonNull Uri source, @NonNull Callback callback) {
+        executor.execute(() -> {
+            Result result = null;
+            try {
+                result = generate(source);
+            } catch (Exception | OutOfMemoryError ex) {
+                Log.e(TAG, "Cover import failed: " + ex);
+            }
+            final Result r = result;
+            main.post(() -> callback.onImported(r));
+        });
+    }
+
+    /** Deletes the files of an import that ended up unused (picked another, or cancelled). */
+    public void discard(@Nullable Result result) {
+        if (result == null) return;
+        executor.execute(() -> {
+            for (Uri u : result.uris.values()) {
+                String path = u.getPath();
+                //noinspection ResultOfMethodCallIgnored
+                if (path != null) new File(path).delete();
+            }
+        });
+    }
+
+    // -----------------------------
+    // Generation (background)
+    // -----------------------------
+    @Nullable
+    private Result generate(@NonNull Uri source) throws IOException {
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        try (InputStream in = resolver.openInputStream(source)) {
+            if (in == null) return null;
+            BitmapFactory.decodeStream(in, null, bounds);
+        }
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) return null;
+
+        int rotation = ImageLoader.readRotation(resolver, source);
+        boolean swap = rotation == 90 || rotation == 270;
+        int srcW = swap ? bounds.outHeight : bounds.outWidth;
+        int srcH = swap ? bounds.outWidth : bounds.outHeight;
+
+        // Biggest crop any variant needs, expressed in source pixels.
+        int needW = widthPx;
+        int needH = 0;
+        for (CoverVariant v : CoverVariant.values()) needH = Math.max(needH, heightPx(v));
+
+        BitmapFactory.Options opts = new BitmapFactory.Options();
+        opts.inSampleSize = ImageLoader.sampleSize(srcW, srcH, needW, needH);
+        Bitmap decoded;
+        try (InputStream in = resolver.openInputStream(source)) {
+            if (in == null) return null;
+            decoded = BitmapFactory.decodeStream(in, null, opts);
+        }
+        if (decoded == null) return null;
+        if (rotation != 0) decoded = rotate(decoded, rotation);
+
+        File dir = new File(app.getFilesDir(), DIR);
+        if (!dir.exists() && !dir.mkdirs()) throw new IOException("Cannot create " + dir);
+        String stem = "cover_" + System.currentTimeMillis();
+        Result result = new Result();
+        try {
+            for (CoverVariant v : CoverVariant.values()) {
+                Bitmap out = cropToFill(decoded, widthPx, heightPx(v));
+                File f = new File(dir, stem + "_" + v.name().toLowerCase(Locale.ROOT) + ".webp");
+                write(out, f);
+                if (out != decoded) out.recycle();
+                result.uris.put(v, Uri.fromFile(f));
+            }
+        } catch (IOException ex) {
+            discard(result);
+            throw ex;
+        } finally {
+            decoded.recycle();
+        }
+        return result;
+    }
+
+    private int heightPx(@NonNull CoverVariant v) {
+        return Math.round(v.heightDp * density);
+    }
+
+    @NonNull
+    private static Bitmap rotate(@NonNull Bitmap src, int degrees) {
+        Matrix m = new Matrix();
+        m.postRotate(degrees);
+        Bitmap out = Bitmap.createBitmap(src, 0, 0, src.getWidth(), src.getHeight(), m, true);
+        if (out != src) src.recycle();
+        return out;
+    }
+
+    /**
+     * Center-crops src to the aspect of w x h and scales it to that size, like centerCrop.
+     * Never upscales: a small source yields a smaller variant with the same aspect.
+     */
+    @NonNull
+    private static Bitmap cropToFill(@NonNull Bitmap src, int w, int h) {
+        float scale = Math.max((float) w / src.getWidth(), (float) h / src.getHeight());
+        if (scale > 1f) {
+            w = Math.max(1, Math.round(w / scale));
+            h = Math.max(1, Math.round(h / scale));
+            scale = 1f;
+        }
+        int cropW = Math.min(src.getWidth(), Math.round(w / scale));
+        int cropH = Math.min(src.getHeight(), Math.round(h / scale));
+        int x = (src.getWidth() - cropW) / 2;
+        int y = (src.getHeight() - cropH) / 2;
+
+        Matrix m = new Matrix();
+        m.setScale((float) w / cropW, (float) h / cropH);
+        return Bitmap.createBitmap(src, x, y, cropW, cropH, m, true);
+    }
+
+    @SuppressWarnings("deprecation")
+    private static void write(@NonNull Bitmap bmp, @NonNull File f) throws IOException {
+        Bitmap.CompressFormat format = Build.VERSION.SDK_INT >= 30
+                ? Bitmap.CompressFormat.WEBP_LOSSY
+                : Bitmap.CompressFormat.WEBP;
+        try (FileOutputStream out = new FileOutputStream(f)) {
+            if (!bmp.compress(format, QUALITY, out)) throw new IOException("compress failed: " + f);
+        }
+    }
+}
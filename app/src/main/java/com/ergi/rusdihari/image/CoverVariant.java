@@ -0,0 +1,20 @@
+package com.ergi.rusdihari.image;
+
+/**
+ * CoverVariant - the pre-sized copies of an event cover made at import (CoverImporter).
+ *
+ * Each one is center-cropped to the aspect of the view it is made for: full screen width
+ * by heightDp. Declared from smallest to largest; when a variant is missing, renderers fall
+ * back to the next larger one, then to the event's original coverUri.
+ */
+public enum CoverVariant {
+    THUMB(120),   // admin event list row (item_event)
+    HERO(220),    // event detail header (activity_event_detail)
+    TICKET(240);  // ticket header (activity_ticket)
+
+    public final int heightDp;
+
+    CoverVariant(int heightDp) {
+        this.heightDp = heightDp;
+    }
+}
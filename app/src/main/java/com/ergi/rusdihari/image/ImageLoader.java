@@ -0,0 +1,338 @@
+package com.ergi.rusdihari.image;
+
+import android.app.ActivityManager;
+import android.content.ComponentCallbacks2;
+import android.content.ContentResolver;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.media.ExifInterface;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+import android.util.LruCache;
+import android.view.ViewTreeObserver;
+import android.widget.ImageView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.ergi.rusdihari.AppDatabase;
+import com.ergi.rusdihari.R;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ImageLoader - shared, asynchronous loader for event cover images.
+ *
+ * load(uri, imageView) / loadCover(event, variant, imageView):
+ * 1. waits until the view is laid out, so the bitmap is decoded at the size it is shown at;
+ * 2. memory LRU hit -> set immediately (no thread hop);
+ * 3. otherwise on a background thread: disk thumbnail cache, else decode the original with
+ *    inSampleSize (never full resolution) and downscale, then store in both caches;
+ * 4. the result is set on the main thread only if the view still wants this image.
+ *
+ * loadCover() tries the requested CoverVariant first, then larger variants, then the
+ * event's original cover, so events imported before variants existed still render.
+ *
+ * A view holds at most one request (kept in a view tag); loading something else into it,
+ * or calling cancel() (e.g. from onViewRecycled), cancels the previous one.
+ * Main thread only, except for the internal decode work.
+ */
+public class ImageLoader {
+
+    private static final String TAG = "ImageLoader";
+    private static final String DISK_DIR = "cover_thumbs";
+    private static final long DISK_MAX_BYTES = 32L * 1024L * 1024L;
+    private static final int DECODE_THREADS = 2;
+    /** Part of the cache keys; bump when decodeSampled() output changes (1 -> 2: EXIF rotation). */
+    private static final int DECODE_VERSION = 2;
+
+    public interface Listener {
+        void onLoaded(@NonNull ImageView view, @NonNull Bitmap bitmap);
+
+        default void onFailed(@NonNull ImageView view) {
+        }
+    }
+
+    private static ImageLoader instance;
+
+    private final ContentResolver resolver;
+    private final LruCache<String, Bitmap> memory;
+    private final Context app;
+    private ThumbnailDiskCache disk; // created by the first decode, see disk()
+    private final ExecutorService decoder;
+    private final Handler main = new Handler(Looper.getMainLooper());
+
+    @NonNull
+    public static synchronized ImageLoader getInstance(@NonNull Context context) {
+        if (instance == null) instance = new ImageLoader(context.getApplicationContext());
+        return instance;
+    }
+
+    private ImageLoader(@NonNull Context app) {
+        this.app = app;
+        resolver = app.getContentResolver();
+
+        // 1/8 of the app's heap budget for decoded bitmaps.
+        ActivityManager am = (ActivityManager) app.getSystemService(Context.ACTIVITY_SERVICE);
+        int memoryClassMb = am != null ? am.getMemoryClass() : 64;
+        int maxBytes = memoryClassMb * 1024 * 1024 / 8;
+        memory = new LruCache<String, Bitmap>(maxBytes) {
+            @Override
+            protected int sizeOf(@NonNull String key, @NonNull Bitmap value) {
+                return value.getAllocationByteCount();
+            }
+        };
+
+        AtomicInteger n = new AtomicInteger(1);
+        decoder = Executors.newFixedThreadPool(DECODE_THREADS, r -> new Thread(() -> {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+            r.run();
+        }, "image-decode-" + n.getAndIncrement()));
+    }
+
+    public void load(@Nullable String uri, @NonNull ImageView view) {
+        load(uri, view, null);
+    }
+
+    /** Clears the view, then loads {@code uri} into it. A null uri just clears it. */
+    public void load(@Nullable String uri, @NonNull ImageView view, @Nullable Listener listener) {
+        List<String> candidates = new ArrayList<>(1);
+        if (uri != null && !uri.trim().isEmpty()) candidates.add(uri);
+        load(candidates, view, listener);
+    }
+
+    /** Smallest adequate pre-sized cover for this view (see CoverVariant). */
+    public void loadCover(@NonNull AppDatabase.Event event, @NonNull CoverVariant variant,
+                          @NonNull ImageView view, @Nullable Listener listener) {
+        List<String> candidates = new ArrayList<>(4);
+        for (CoverVariant v : CoverVariant.values()) {
+            if (v.ordinal() < variant.ordinal()) continue;
+            String u = event.coverVariantUri(v);
+            if (u != null && !candidates.contains(u)) candidates.add(u);
+        }
+        if (event.coverUri != null && !candidates.contains(event.coverUri)) candidates.add(event.coverUri);
+        load(candidates, view, listener);
+    }
+
+    private void load(@NonNull List<String> candidates, @NonNull ImageView view, @Nullable Listener listener) {
+        cancel(view);
+        view.setImageDrawable(null);
+        if (candidates.isEmpty()) return;
+
+        Request req = new Request(candidates, view, listener);
+        view.setTag(R.id.image_loader_request, req);
+
+        if (view.getWidth() > 0 && view.getHeight() > 0) {
+            start(req);
+        } else {
+            req.waitForLayout();
+        }
+    }
+
+    /** Drops whatever request the view has; its result will never be set. */
+    public void cancel(@NonNull ImageView view) {
+        Object tag = view.getTag(R.id.image_loader_request);
+        if (tag instanceof Request) ((Request) tag).cancel();
+        view.setTag(R.id.image_loader_request, null);
+    }
+
+    /** Hook for Application.onTrimMemory(). */
+    public void trimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE) {
+            memory.evictAll();
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND) {
+            memory.trimToSize(memory.maxSize() / 2);
+        }
+    }
+
+    // -----------------------------
+    // Pipeline
+    // -----------------------------
+    private void start(@NonNull Request req) {
+        if (req.cancelled) return;
+        req.width = req.view.getWidth();
+        req.height = req.view.getHeight();
+
+        Bitmap cached = memory.get(req.keyFor(req.candidates.get(0)));
+        if (cached != null) {
+            deliver(req, cached);
+            return;
+        }
+        req.future = decoder.submit(() -> {
+            Bitmap bmp = null;
+            for (String uri : req.candidates) {
+                if (req.cancelled) return;
+                String key = req.keyFor(uri);
+                bmp = memory.get(key);
+                if (bmp != null) break;
+                bmp = disk().get(key);
+                if (bmp == null) {
+                    bmp = decodeSampled(uri, req.width, req.height);
+                    if (bmp != null) disk().put(key, bmp);
+                }
+                if (bmp != null) {
+                    memory.put(key, bmp);
+                    break;
+                }
+            }
+            final Bitmap result = bmp;
+            main.post(() -> deliver(req, result));
+        });
+    }
+
+    /** Decoder threads only: getCacheDir() touches the disk. */
+    @NonNull
+    private synchronized ThumbnailDiskCache disk() {
+        if (disk == null) disk = new ThumbnailDiskCache(new File(app.getCacheDir(), DISK_DIR), DISK_MAX_BYTES);
+        return disk;
+    }
+
+    private void deliver(@NonNull Request req, @Nullable Bitmap bmp) {
+        if (req.cancelled || req.view.getTag(R.id.image_loader_request) != req) return;
+        req.view.setTag(R.id.image_loader_request, null);
+        if (bmp == null) {
+            if (req.listener != null) req.listener.onFailed(req.view);
+            return;
+        }
+        req.view.setImageBitmap(bmp);
+        if (req.listener != null) req.listener.onLoaded(req.view, bmp);
+    }
+
+    /**
+     * Decodes at the smallest power-of-two subsample that still covers width x height
+     * (views use centerCrop), then scales down the rest of the way and applies the EXIF
+     * orientation (BitmapFactory ignores it; camera photos without variants need it).
+     */
+    @Nullable
+    private Bitmap decodeSampled(@NonNull String uriString, int width, int height) {
+        Uri uri = Uri.parse(uriString);
+        try {
+            BitmapFactory.Options bounds = new BitmapFactory.Options();
+            bounds.inJustDecodeBounds = true;
+            try (InputStream in = resolver.openInputStream(uri)) {
+                if (in == null) return null;
+                BitmapFactory.decodeStream(in, null, bounds);
+            }
+            if (bounds.outWidth <= 0 || bounds.outHeight <= 0) return null;
+
+            int rotation = readRotation(resolver, uri);
+            boolean swap = rotation == 90 || rotation == 270;
+            int srcW = swap ? bounds.outHeight : bounds.outWidth;
+            int srcH = swap ? bounds.outWidth : bounds.outHeight;
+
+            BitmapFactory.Options opts = new BitmapFactory.Options();
+            opts.inSampleSize = sampleSize(srcW, srcH, width, height);
+            opts.inPreferredConfig = Bitmap.Config.RGB_565; // covers are opaque photos
+            Bitmap decoded;
+            try (InputStream in = resolver.openInputStream(uri)) {
+                if (in == null) return null;
+                decoded = BitmapFactory.decodeStream(in, null, opts);
+            }
+            if (decoded == null) return null;
+
+            int shownW = swap ? decoded.getHeight() : decoded.getWidth();
+            int shownH = swap ? decoded.getWidth() : decoded.getHeight();
+            float scale = Math.min(1f, Math.max((float) width / shownW, (float) height / shownH));
+            if (scale >= 1f && rotation == 0) return decoded;
+            // One pass for both: scale, then rotate.
+            Matrix m = new Matrix();
+            m.postScale(scale, scale);
+            m.postRotate(rotation);
+            Bitmap out = Bitmap.createBitmap(decoded, 0, 0, decoded.getWidth(), decoded.getHeight(), m, true);
+            if (out != decoded) decoded.recycle();
+            return out;
+        } catch (SecurityException se) {
+            // Old picker URI without a persisted grant.
+            Log.w(TAG, "No permission for " + uriString);
+            return null;
+        } catch (Exception | OutOfMemoryError ex) {
+            Log.w(TAG, "Decode failed for " + uriString + ": " + ex);
+            return null;
+        }
+    }
+
+    static int sampleSize(int srcW, int srcH, int reqW, int reqH) {
+        int sample = 1;
+        while (srcW / (sample * 2) >= reqW && srcH / (sample * 2) >= reqH) sample *= 2;
+        return sample;
+    }
+
+    /** Clockwise rotation (0, 90, 180, 270) from the source's EXIF orientation. */
+    static int readRotation(@NonNull ContentResolver resolver, @NonNull Uri source) {
+        try (InputStream in = resolver.openInputStream(source)) {
+            if (in == null) return 0;
+            int o = new ExifInterface(in).getAttributeInt(
+                    ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL);
+            if (o == ExifInterface.ORIENTATION_ROTATE_90) return 90;
+            if (o == ExifInterface.ORIENTATION_ROTATE_180) return 180;
+            if (o == ExifInterface.ORIENTATION_ROTATE_270) return 270;
+        } catch (IOException | RuntimeException ignored) {
+            // Not a JPEG / no EXIF: keep as is.
+        }
+        return 0;
+    }
+
+    // -----------------------------
+    // Request
+    // -----------------------------
+    private final class Request implements ViewTreeObserver.OnPreDrawListener {
+        final List<String> candidates;
+        final ImageView view;
+        final Listener listener;
+        int width;
+        int height;
+        volatile boolean cancelled = false;
+        Future<?> future;
+        private boolean waiting = false;
+
+        Request(@NonNull List<String> candidates, @NonNull ImageView view, @Nullable Listener listener) {
+            this.candidates = candidates;
+            this.view = view;
+            this.listener = listener;
+        }
+
+        @NonNull
+        String keyFor(@NonNull String uri) {
+            return uri + "@" + width + "x" + height + "#" + DECODE_VERSION;
+        }
+
+        void waitForLayout() {
+            waiting = true;
+            view.getViewTreeObserver().addOnPreDrawListener(this);
+        }
+
+        @Override
+        public boolean onPreDraw() {
+            if (view.getWidth() <= 0 || view.getHeight() <= 0) return true;
+            stopWaiting();
+            start(this);
+            return true;
+        }
+
+        void cancel() {
+            cancelled = true;
+            stopWaiting();
+            Future<?> f = future;
+            if (f != null) f.cancel(false);
+        }
+
+        private void stopWaiting() {
+            if (!waiting) return;
+            waiting = false;
+            view.getViewTreeObserver().removeOnPreDrawListener(this);
+        }
+    }
+}
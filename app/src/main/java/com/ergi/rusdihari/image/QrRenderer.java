@@ -0,0 +1,142 @@
+package com.ergi.rusdihari.image;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+import android.util.LruCache;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * QrRenderer - QR bitmaps for tickets and invitations, off the main thread and cached.
+ *
+ * - Encodes at module resolution (one BitMatrix cell per module, e.g. 37x37 for a UUID),
+ *   instead of asking zxing for a 512x512 matrix.
+ * - Scales by a whole number of pixels per module (nearest neighbour, so edges stay sharp),
+ *   centred in a size x size bitmap; pixels are written one row at a time from a reused
+ *   int buffer, never with setPixel().
+ * - Results are kept in a byte-bounded LRU keyed by content/size/colors, so reopening a
+ *   ticket shows its QR immediately.
+ */
+public final class QrRenderer {
+
+    private static final String TAG = "QrRenderer";
+    private static final int CACHE_BYTES = 8 * 1024 * 1024;
+
+    public interface Callback {
+        /** Main thread; null if the content could not be encoded. */
+        void onRendered(@Nullable Bitmap bitmap);
+    }
+
+    private static QrRenderer instance;
+
+    private final LruCache<String, Bitmap> cache = new LruCache<String, Bitmap>(CACHE_BYTES) {
+        @Override
+        protected int sizeOf(@NonNull String key, @NonNull Bitmap value) {
+            return value.getAllocationByteCount();
+        }
+    };
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(() -> {
+        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+        r.run();
+    }, "qr-render"));
+    private final Handler main = new Handler(Looper.getMainLooper());
+
+    // Only touched on the render thread.
+    private int[] rowBuffer = new int[0];
+
+    @NonNull
+    public static synchronized QrRenderer getInstance() {
+        if (instance == null) instance = new QrRenderer();
+        return instance;
+    }
+
+    private QrRenderer() {
+    }
+
+    /**
+     * Delivers a sizePx x sizePx QR of {@code content}. A cached bitmap is delivered
+     * synchronously; otherwise it is rendered in the background.
+     */
+    public void render(@NonNull String content, int sizePx, @ColorInt int foreground,
+                       @ColorInt int background, @NonNull Callback callback) {
+        String key = content + "|" + sizePx + "|" + foreground + "|" + background;
+        Bitmap cached = cache.get(key);
+        if (cached != null) {
+            callback.onRendered(cached);
+            return;
+        }
+        executor.execute(() -> {
+            Bitmap bmp = cache.get(key);
+            if (bmp == null) {
+                bmp = renderNow(content, sizePx, foreground, background);
+                if (bmp != null) cache.put(key, bmp);
+            }
+            final Bitmap result = bmp;
+            main.post(() -> callback.onRendered(result));
+        });
+    }
+
+    /** Black modules on a transparent background. */
+    public void render(@NonNull String content, int sizePx, @NonNull Callback callback) {
+        render(content, sizePx, Color.BLACK, Color.TRANSPARENT, callback);
+    }
+
+    // -----------------------------
+    // Rendering (render thread)
+    // -----------------------------
+    @Nullable
+    private Bitmap renderNow(@NonNull String content, int sizePx, int fg, int bg) {
+        BitMatrix modules;
+        try {
+            Map<EncodeHintType, Object> hints = new EnumMap<>(EncodeHintType.class);
+            hints.put(EncodeHintType.MARGIN, 4); // quiet zone, in modules
+            // 0 x 0 = no upscaling by zxing: one matrix cell per module.
+            modules = new QRCodeWriter().encode(content, BarcodeFormat.QR_CODE, 0, 0, hints);
+        } catch (WriterException | IllegalArgumentException ex) {
+            Log.e(TAG, "QR encode failed: " + ex.getMessage());
+            return null;
+        }
+
+        int n = modules.getWidth();
+        int scale = Math.max(1, sizePx / n);
+        int size = Math.max(sizePx, n);
+        int offset = (size - n * scale) / 2;
+
+        if (rowBuffer.length < size) rowBuffer = new int[size];
+        int[] row = rowBuffer;
+
+        Bitmap bmp = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+        if (bg != Color.TRANSPARENT) bmp.eraseColor(bg);
+
+        for (int my = 0; my < n; my++) {
+            // Build one scaled pixel row for this module row...
+            for (int x = 0; x < size; x++) row[x] = bg;
+            for (int mx = 0; mx < n; mx++) {
+                if (!modules.get(mx, my)) continue;
+                int from = offset + mx * scale;
+                for (int x = from, end = from + scale; x < end; x++) row[x] = fg;
+            }
+            // ...and copy it into every pixel line of that module row.
+            int y0 = offset + my * scale;
+            for (int y = y0, end = y0 + scale; y < end; y++) bmp.setPixels(row, 0, size, 0, y, size, 1);
+        }
+        return bmp;
+    }
+}
@@ -0,0 +1,120 @@
+package com.ergi.rusdihari.image;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * ThumbnailDiskCache - already-downscaled bitmaps in cacheDir/cover_thumbs.
+ *
+ * - One file per (source uri, target size), named by a hash of that key.
+ * - Reading a file bumps its lastModified; trim() deletes the least recently used files
+ *   until the directory is under maxBytes.
+ * - Background threads only. Any IO error just means a cache miss.
+ */
+class ThumbnailDiskCache {
+
+    private static final String TAG = "ThumbnailDiskCache";
+
+    private final File dir;
+    private final long maxBytes;
+    private long approxBytes = -1L; // lazily measured, then tracked on put()
+
+    ThumbnailDiskCache(@NonNull File dir, long maxBytes) {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+    }
+
+    @Nullable
+    synchronized Bitmap get(@NonNull String key) {
+        File f = fileFor(key);
+        if (!f.exists()) return null;
+        Bitmap bmp = BitmapFactory.decodeFile(f.getAbsolutePath());
+        if (bmp == null) {
+            //noinspection ResultOfMethodCallIgnored
+            f.delete();
+            return null;
+        }
+        //noinspection ResultOfMethodCallIgnored
+        f.setLastModified(System.currentTimeMillis());
+        return bmp;
+    }
+
+    synchronized void put(@NonNull String key, @NonNull Bitmap bmp) {
+        if (!dir.exists() && !dir.mkdirs()) return;
+        File f = fileFor(key);
+        File tmp = new File(dir, f.getName() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tmp)) {
+            Bitmap.CompressFormat format = bmp.hasAlpha()
+                    ? Bitmap.CompressFormat.PNG : Bitmap.CompressFormat.JPEG;
+            bmp.compress(format, 85, out);
+        } catch (IOException ex) {
+            Log.w(TAG, "Thumbnail write failed: " + ex.getMessage());
+            //noinspection ResultOfMethodCallIgnored
+            tmp.delete();
+            return;
+        }
+        if (!tmp.renameTo(f)) {
+            //noinspection ResultOfMethodCallIgnored
+            tmp.delete();
+            return;
+        }
+        if (approxBytes < 0) approxBytes = measure();
+        else approxBytes += f.length();
+        if (approxBytes > maxBytes) trim();
+    }
+
+    private void trim() {
+        File[] files = dir.listFiles();
+        if (files == null) return;
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        long total = 0L;
+        for (File f : files) total += f.length();
+        // Trim to 80% so we don't trim again on the very next put.
+        long target = maxBytes * 8 / 10;
+        for (File f : files) {
+            if (total <= target) break;
+            long len = f.length();
+            if (f.delete()) total -= len;
+        }
+        approxBytes = total;
+    }
+
+    private long measure() {
+        File[] files = dir.listFiles();
+        long total = 0L;
+        if (files != null) for (File f : files) total += f.length();
+        return total;
+    }
+
+    @NonNull
+    private File fileFor(@NonNull String key) {
+        return new File(dir, hash(key));
+    }
+
+    @NonNull
+    private static String hash(@NonNull String key) {
+        try {
+            byte[] d = MessageDigest.getInstance("SHA-1").digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(d.length * 2);
+            for (byte b : d) {
+                sb.append(Character.forDigit((b >> 4) & 0xf, 16));
+                sb.append(Character.forDigit(b & 0xf, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException ex) {
+            return Integer.toHexString(key.hashCode());
+        }
+    }
+}
@@ -4,13 +4,22 @@ import android.app.NotificationChannel;
 import android.app.NotificationManager;
 import android.os.Build;
 
+import androidx.annotation.NonNull;
 import androidx.core.app.NotificationCompat;
 
+import com.ergi.rusdihari.startup.AppInitializers;
 import com.google.firebase.messaging.FirebaseMessagingService;
 import com.google.firebase.messaging.RemoteMessage;
 
 public class MyFirebaseMessagingService extends FirebaseMessagingService {
 
+    @Override
+    public void onNewToken(@NonNull String token) {
+        super.onNewToken(token);
+        // Topic subscriptions belong to the old token: subscribe again on next launch.
+        AppInitializers.getInstance(this).onMessagingTokenChanged();
+    }
+
     @Override
     public void onMessageReceived(RemoteMessage message) {
         super.onMessageReceived(message);
@@ -0,0 +1,248 @@
+package com.ergi.rusdihari.startup;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.content.pm.ApplicationInfo;
+import android.content.pm.PackageManager;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.AnyThread;
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+
+import com.ergi.rusdihari.BuildConfig;
+import com.google.android.libraries.places.api.Places;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.messaging.FirebaseMessaging;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * AppInitializers - lazy, dependency-aware setup of SDK components.
+ *
+ * Each Component names the components it needs and how to create itself. It is created
+ * once, on first get() (dependencies first), from whichever thread asks:
+ * - get():       blocking; on the main thread only for cheap or already created components;
+ * - getAsync():  created on the "init" thread, result or failure delivered on the main thread;
+ * - whenIdle():  created on the "init" thread once the main thread has nothing to do,
+ *                so warm-up never competes with the first frames.
+ *
+ * Every creation is timed (own cost, dependencies excluded) and logged under the "Startup"
+ * tag. A failed creation is not remembered: the next get() tries again.
+ *
+ * FirebaseApp itself is still created by Firebase's init provider at process start: the
+ * messaging service needs it when a push arrives with no activity running.
+ */
+public final class AppInitializers {
+
+    private static final String TAG = "Startup";
+    private static final String PREF = "startup_pref";
+    private static final String KEY_EVENTS_TOPIC = "events_topic_subscribed";
+    private static final String EVENTS_TOPIC = "events";
+
+    public interface Factory<T> {
+        @NonNull
+        T create(@NonNull AppInitializers init) throws Exception;
+    }
+
+    public interface Callback<T> {
+        /** Main thread. */
+        void onReady(@NonNull T value);
+    }
+
+    public interface ErrorCallback {
+        /** Main thread. */
+        void onFailed(@NonNull RuntimeException error);
+    }
+
+    public static final class Component<T> {
+        @NonNull final String name;
+        @NonNull final Component<?>[] dependencies;
+        @NonNull final Factory<T> factory;
+
+        Component(@NonNull String name, @NonNull Factory<T> factory, @NonNull Component<?>... dependencies) {
+            this.name = name;
+            this.factory = factory;
+            this.dependencies = dependencies;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    // -----------------------------
+    // Components
+    // -----------------------------
+    public static final Component<FirebaseApp> FIREBASE = new Component<>("firebase",
+            init -> {
+                FirebaseApp app = FirebaseApp.initializeApp(init.app);
+                return app != null ? app : FirebaseApp.getInstance();
+            });
+
+    public static final Component<FirebaseAuth> AUTH = new Component<>("auth",
+            init -> FirebaseAuth.getInstance(), FIREBASE);
+
+    public static final Component<FirebaseMessaging> MESSAGING = new Component<>("messaging",
+            init -> FirebaseMessaging.getInstance(), FIREBASE);
+
+    /** Subscribes to the "events" topic once per install (again after a token change). */
+    public static final Component<Boolean> EVENTS_TOPIC_SUBSCRIPTION = new Component<>("events-topic",
+            init -> {
+                SharedPreferences prefs = init.prefs();
+                if (prefs.getBoolean(KEY_EVENTS_TOPIC, false)) return Boolean.TRUE;
+                init.get(MESSAGING).subscribeToTopic(EVENTS_TOPIC)
+                        .addOnSuccessListener(unused -> prefs.edit().putBoolean(KEY_EVENTS_TOPIC, true).apply())
+                        .addOnFailureListener(e -> Log.w(TAG, "Topic subscription failed, retrying next launch", e));
+                if (BuildConfig.DEBUG) {
+                    init.get(MESSAGING).getToken()
+                            .addOnSuccessListener(token -> Log.d("FCM_TOKEN", token));
+                }
+                return Boolean.FALSE;
+            }, MESSAGING);
+
+    /** Places SDK with the manifest's maps key. */
+    public static final Component<Boolean> PLACES = new Component<>("places",
+            init -> {
+                if (!Places.isInitialized()) Places.initialize(init.app, init.mapsApiKey());
+                return Boolean.TRUE;
+            });
+
+    private static AppInitializers instance;
+
+    private final Context app;
+    private final Map<Component<?>, Object> values = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+    private final Handler main = new Handler(Looper.getMainLooper());
+
+    @NonNull
+    public static synchronized AppInitializers getInstance(@NonNull Context context) {
+        if (instance == null) instance = new AppInitializers(context.getApplicationContext());
+        return instance;
+    }
+
+    private AppInitializers(@NonNull Context app) {
+        this.app = app;
+        executor = Executors.newSingleThreadExecutor(r -> new Thread(() -> {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+            r.run();
+        }, "init"));
+    }
+
+    @NonNull
+    public Context getAppContext() {
+        return app;
+    }
+
+    /** The component, created (with its dependencies) on this thread if needed. */
+    @NonNull
+    public <T> T get(@NonNull Component<T> component) {
+        T value = peek(component);
+        if (value != null) return value;
+        synchronized (component) {
+            value = peek(component);
+            if (value != null) return value;
+            for (Component<?> dep : component.dependencies) get(dep);
+
+            long t0 = SystemClock.uptimeMillis();
+            try {
+                value = component.factory.create(this);
+            } catch (RuntimeException ex) {
+                throw ex;
+            } catch (Exception ex) {
+                throw new IllegalStateException("Cannot initialize " + component, ex);
+            }
+            long took = SystemClock.uptimeMillis() - t0;
+            Log.i(TAG, "Init " + component + ": " + took + " ms on " + Thread.currentThread().getName());
+            values.put(component, value);
+            return value;
+        }
+    }
+
+    @AnyThread
+    public boolean isInitialized(@NonNull Component<?> component) {
+        return values.containsKey(component);
+    }
+
+    /**
+     * Delivers the component on the main thread; immediately if it already exists. Exactly one
+     * of {@code callback} / {@code onError} runs.
+     */
+    @MainThread
+    public <T> void getAsync(@NonNull Component<T> component, @NonNull Callback<T> callback,
+                             @NonNull ErrorCallback onError) {
+        T value = peek(component);
+        if (value != null) {
+            callback.onReady(value);
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                T created = get(component);
+                main.post(() -> callback.onReady(created));
+            } catch (RuntimeException ex) {
+                Log.e(TAG, "Init " + component + " failed", ex);
+                main.post(() -> onError.onFailed(ex));
+            }
+        });
+    }
+
+    /** Creates the components in the background once the main thread goes idle. */
+    @MainThread
+    public void whenIdle(@NonNull Component<?>... components) {
+        Looper.getMainLooper().getQueue().addIdleHandler(() -> {
+            executor.execute(() -> {
+                for (Component<?> c : components) {
+                    try {
+                        get(c);
+                    } catch (RuntimeException ex) {
+                        Log.w(TAG, "Idle init " + c + " failed", ex);
+                    }
+                }
+            });
+            return false;
+        });
+    }
+
+    /** A new FCM token is not subscribed to anything yet: subscribe again on next use. */
+    @AnyThread
+    public void onMessagingTokenChanged() {
+        prefs().edit().remove(KEY_EVENTS_TOPIC).apply();
+        values.remove(EVENTS_TOPIC_SUBSCRIPTION);
+    }
+
+    // -----------------------------
+    // Internals
+    // -----------------------------
+    @SuppressWarnings("unchecked")
+    private <T> T peek(@NonNull Component<T> component) {
+        return (T) values.get(component);
+    }
+
+    @NonNull
+    private SharedPreferences prefs() {
+        return app.getSharedPreferences(PREF, Context.MODE_PRIVATE);
+    }
+
+    @NonNull
+    private String mapsApiKey() {
+        try {
+            ApplicationInfo info = app.getPackageManager()
+                    .getApplicationInfo(app.getPackageName(), PackageManager.GET_META_DATA);
+            String key = info.metaData != null ? info.metaData.getString("com.google.android.geo.API_KEY") : null;
+            return key != null ? key : "";
+        } catch (PackageManager.NameNotFoundException e) {
+            return "";
+        }
+    }
+}
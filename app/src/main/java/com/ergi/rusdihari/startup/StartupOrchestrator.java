@@ -0,0 +1,216 @@
+package com.ergi.rusdihari.startup;
+
+import android.app.Activity;
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.ergi.rusdihari.AppDatabase;
+import com.ergi.rusdihari.data.DbExecutors;
+import com.ergi.rusdihari.utils.TicketStorage;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * StartupOrchestrator - warms the app up while the splash is on screen.
+ *
+ * start() runs these tasks once per process, in parallel unless one waits for another:
+ * - database:         open AppDatabase (onCreate / onUpgrade = schema check) and
+ *                     ensureSeedDataIfEmpty(), on the DbExecutors writer;
+ * - ticket-migration: TicketStorage's one-time import of the old preference, also on the
+ *                     writer (it writes);
+ * - ticket-cache:     after ticket-migration, runs the "My tickets" query once on the
+ *                     DbExecutors read pool and drops the rows: only SQLite's page cache is
+ *                     warmed, so the tab's own query is quick.
+ *
+ * Firebase components are not part of it: AppInitializers creates them on first use or
+ * when MainActivity goes idle.
+ *
+ * whenReady() calls back on the main thread as soon as all of them are done (immediately if
+ * they already are). A failing task is logged and counts as done; it never blocks startup.
+ * An Error still propagates, but only after the task has been counted.
+ *
+ * Timings, in ms since process start, go to logcat (tag "Startup"):
+ * - first frame: splash drawn for the first time (trackFirstFrame);
+ * - ready:       all warm-up tasks finished;
+ * - interactive: first frame of MainActivity (trackInteractive, also reportFullyDrawn()).
+ */
+public final class StartupOrchestrator {
+
+    private static final String TAG = "Startup";
+
+    public interface Listener {
+        /** Main thread. */
+        void onReady(@NonNull Report report);
+    }
+
+    public static class Report {
+        public long firstFrameMillis = -1L;
+        public long readyMillis = -1L;
+        public long interactiveMillis = -1L;
+        /** Task name -> duration in ms, in start order. */
+        @NonNull public final Map<String, Long> taskMillis = new LinkedHashMap<>();
+
+        @NonNull
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(String.format(Locale.US,
+                    "first frame=%d ms, ready=%d ms, interactive=%d ms",
+                    firstFrameMillis, readyMillis, interactiveMillis));
+            for (Map.Entry<String, Long> e : taskMillis.entrySet()) {
+                sb.append(", ").append(e.getKey()).append('=').append(e.getValue()).append(" ms");
+            }
+            return sb.toString();
+        }
+    }
+
+    private static StartupOrchestrator instance;
+
+    private final Context app;
+    private final Handler main = new Handler(Looper.getMainLooper());
+    private final long processStart = Process.getStartUptimeMillis();
+
+    // Main thread only.
+    private final Report report = new Report();
+    private final List<Listener> listeners = new ArrayList<>();
+    private boolean started = false;
+    private boolean ready = false;
+
+    @NonNull
+    public static synchronized StartupOrchestrator getInstance(@NonNull Context context) {
+        if (instance == null) instance = new StartupOrchestrator(context.getApplicationContext());
+        return instance;
+    }
+
+    private StartupOrchestrator(@NonNull Context app) {
+        this.app = app;
+    }
+
+    /** Starts the warm-up tasks; later calls do nothing. */
+    @MainThread
+    public void start() {
+        if (started) return;
+        started = true;
+
+        AtomicInteger remaining = new AtomicInteger(3);
+        run("database", DbExecutors.writer(), remaining, () -> {
+            AppDatabase db = AppDatabase.getInstance(app);
+            db.getWritableDatabase();
+            db.ensureSeedDataIfEmpty();
+        });
+        run("ticket-migration", DbExecutors.writer(), remaining, () -> TicketStorage.migrateFromPrefs(app),
+                () -> run("ticket-cache", DbExecutors.reads(), remaining, () -> TicketStorage.getTicketRows(app)));
+    }
+
+    /** {@code listener} runs once, on the main thread, when start()'s tasks are done. */
+    @MainThread
+    public void whenReady(@NonNull Listener listener) {
+        if (ready) listener.onReady(report);
+        else listeners.add(listener);
+    }
+
+    @MainThread
+    public void removeListener(@NonNull Listener listener) {
+        listeners.remove(listener);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /** Records time-to-first-frame when {@code view} is about to be drawn for the first time. */
+    @MainThread
+    public void trackFirstFrame(@NonNull View view) {
+        if (report.firstFrameMillis >= 0) return;
+        onFirstDraw(view, () -> {
+            if (report.firstFrameMillis >= 0) return;
+            report.firstFrameMillis = sinceProcessStart();
+            Log.i(TAG, "First frame after " + report.firstFrameMillis + " ms");
+        });
+    }
+
+    /**
+     * Records time-to-interactive at {@code activity}'s first frame and tells the system
+     * (reportFullyDrawn). Only the first screen of a cold start counts.
+     */
+    @MainThread
+    public void trackInteractive(@NonNull Activity activity) {
+        if (report.interactiveMillis >= 0 || !started) return;
+        onFirstDraw(activity.getWindow().getDecorView(), () -> {
+            if (report.interactiveMillis >= 0) return;
+            report.interactiveMillis = sinceProcessStart();
+            activity.reportFullyDrawn();
+            Log.i(TAG, "Interactive: " + report);
+        });
+    }
+
+    // -----------------------------
+    // Internals
+    // -----------------------------
+    private void run(@NonNull String name, @NonNull Executor executor,
+                     @NonNull AtomicInteger remaining, @NonNull Runnable task) {
+        run(name, executor, remaining, task, null);
+    }
+
+    /** {@code then} starts once {@code task} has finished (or failed). */
+    private void run(@NonNull String name, @NonNull Executor executor, @NonNull AtomicInteger remaining,
+                     @NonNull Runnable task, @Nullable Runnable then) {
+        executor.execute(() -> {
+            long t0 = SystemClock.uptimeMillis();
+            try {
+                task.run();
+            } catch (RuntimeException ex) {
+                Log.w(TAG, "Warm-up task " + name + " failed", ex);
+            } finally {
+                // Also on an Error: the splash must not sit out its time cap.
+                long took = SystemClock.uptimeMillis() - t0;
+                main.post(() -> report.taskMillis.put(name, took));
+                try {
+                    if (then != null) then.run();
+                } finally {
+                    if (remaining.decrementAndGet() == 0) main.post(this::onAllDone);
+                }
+            }
+        });
+    }
+
+    private void onAllDone() {
+        ready = true;
+        report.readyMillis = sinceProcessStart();
+        Log.i(TAG, "Ready: " + report);
+        List<Listener> pending = new ArrayList<>(listeners);
+        listeners.clear();
+        for (Listener l : pending) l.onReady(report);
+    }
+
+    private long sinceProcessStart() {
+        return SystemClock.uptimeMillis() - processStart;
+    }
+
+    private static void onFirstDraw(@NonNull View view, @NonNull Runnable action) {
+        ViewTreeObserver.OnPreDrawListener listener = new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                view.getViewTreeObserver().removeOnPreDrawListener(this);
+                action.run();
+                return true;
+            }
+        };
+        view.getViewTreeObserver().addOnPreDrawListener(listener);
+    }
+}
@@ -2,58 +2,211 @@ package com.ergi.rusdihari.utils;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.util.Log;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+import androidx.annotation.WorkerThread;
+
+import com.ergi.rusdihari.data.RecordLog;
 import com.ergi.rusdihari.models.Event;
 
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+/**
+ * EventStorage - events the user RSVP'd "Yes" to, kept in files/my_events.log (RecordLog).
+ *
+ * - saveEvent() / removeEvent() append one small record (PUT / DELETE), instead of parsing
+ *   and rewriting a JSON array of every event on each save.
+ * - getEvents() streams the log once; a later PUT of the same event (name + date) replaces
+ *   the earlier one and moves it to the end.
+ * - When most records are superseded the log is compacted (rewritten with live events only).
+ * - The old JSON array in SharedPreferences "my_events" is imported on first use, then removed.
+ *
+ * File IO: call from a background thread.
+ */
 public class EventStorage {
 
+    private static final String TAG = "EventStorage";
+
+    // Legacy storage, read only for the one-time migration.
     private static final String PREF_NAME = "my_events";
     private static final String EVENTS_KEY = "events";
 
-    public static void saveEvent(Context context, Event event) {
-        SharedPreferences prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
-        String eventsJson = prefs.getString(EVENTS_KEY, "[]");
+    private static final String LOG_FILE = "my_events.log";
+    private static final byte OP_PUT = 1;
+    private static final byte OP_DELETE = 2;
+    private static final int COMPACT_MIN_RECORDS = 64;
+
+    private static RecordLog log;
+    private static int recordCount;
+    private static final Set<String> liveKeys = new HashSet<>();
 
+    @WorkerThread
+    public static synchronized void saveEvent(@NonNull Context context, @NonNull Event event) {
+        if (!open(context)) return;
         try {
-            JSONArray jsonArray = new JSONArray(eventsJson);
+            log.append(encode(OP_PUT, event));
+            recordCount++;
+            liveKeys.add(key(event));
+            maybeCompact();
+        } catch (IOException e) {
+            Log.e(TAG, "saveEvent failed: " + e.getMessage());
+        }
+    }
 
-            JSONObject obj = new JSONObject();
-            obj.put("name", event.getEventName());
-            obj.put("date", event.getEventDate());
+    @WorkerThread
+    public static synchronized void removeEvent(@NonNull Context context, @NonNull Event event) {
+        if (!open(context) || !liveKeys.contains(key(event))) return;
+        try {
+            log.append(encode(OP_DELETE, event));
+            recordCount++;
+            liveKeys.remove(key(event));
+            maybeCompact();
+        } catch (IOException e) {
+            Log.e(TAG, "removeEvent failed: " + e.getMessage());
+        }
+    }
 
-            jsonArray.put(obj);
+    @WorkerThread
+    @NonNull
+    public static synchronized ArrayList<Event> getEvents(@NonNull Context context) {
+        if (!open(context)) return new ArrayList<>();
+        try {
+            return new ArrayList<>(replay().values());
+        } catch (IOException e) {
+            Log.e(TAG, "getEvents failed: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
 
-            prefs.edit().putString(EVENTS_KEY, jsonArray.toString()).apply();
+    // -----------------------------
+    // Log
+    // -----------------------------
+    /** Forgets the open log, so the next call opens (and migrates) from disk again. */
+    @VisibleForTesting
+    static synchronized void reset() {
+        log = null;
+        recordCount = 0;
+        liveKeys.clear();
+    }
 
-        } catch (JSONException e) {
-            e.printStackTrace();
+    private static boolean open(@NonNull Context context) {
+        if (log != null) return true;
+        Context app = context.getApplicationContext();
+        RecordLog l = new RecordLog(new File(app.getFilesDir(), LOG_FILE));
+        try {
+            Map<String, Event> live = new LinkedHashMap<>();
+            SharedPreferences prefs = app.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+            String legacyJson = prefs.getString(EVENTS_KEY, null);
+            if (legacyJson != null) {
+                for (Event e : parseLegacy(legacyJson)) put(live, e);
+            }
+            recordCount = l.read(payload -> apply(live, payload));
+
+            if (legacyJson != null) {
+                // Legacy first, then anything already logged (a re-run after a crash
+                // collapses onto the same keys). Drop the pref only once the log is durable.
+                l.rewrite(encodeAll(live.values()));
+                recordCount = live.size();
+                prefs.edit().remove(EVENTS_KEY).commit();
+            }
+            liveKeys.clear();
+            liveKeys.addAll(live.keySet());
+        } catch (IOException e) {
+            Log.e(TAG, "Cannot open " + LOG_FILE + ": " + e.getMessage());
+            return false;
         }
+        log = l;
+        return true;
     }
 
-    public static ArrayList<Event> getEvents(Context context) {
-        ArrayList<Event> list = new ArrayList<>();
-        SharedPreferences prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
-        String eventsJson = prefs.getString(EVENTS_KEY, "[]");
+    @NonNull
+    private static Map<String, Event> replay() throws IOException {
+        Map<String, Event> live = new LinkedHashMap<>();
+        recordCount = log.read(payload -> apply(live, payload));
+        return live;
+    }
+
+    /** Superseded PUTs and DELETEs are dead weight; rewrite once they outnumber live events. */
+    private static void maybeCompact() throws IOException {
+        if (recordCount < COMPACT_MIN_RECORDS || recordCount <= 2 * liveKeys.size()) return;
+        Map<String, Event> live = replay();
+        log.rewrite(encodeAll(live.values()));
+        recordCount = live.size();
+        liveKeys.clear();
+        liveKeys.addAll(live.keySet());
+    }
+
+    private static void apply(@NonNull Map<String, Event> live, @NonNull byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte op = in.readByte();
+        Event e = new Event(in.readUTF(), in.readUTF());
+        if (op == OP_PUT) put(live, e);
+        else if (op == OP_DELETE) live.remove(key(e));
+    }
+
+    private static void put(@NonNull Map<String, Event> live, @NonNull Event e) {
+        String k = key(e);
+        live.remove(k); // re-insert so the latest save is last
+        live.put(k, e);
+    }
+
+    @NonNull
+    private static String key(@NonNull Event e) {
+        return nonNull(e.getEventName()) + '\u0000' + nonNull(e.getEventDate());
+    }
+
+    @NonNull
+    private static byte[] encode(byte op, @NonNull Event e) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(op);
+        out.writeUTF(nonNull(e.getEventName()));
+        out.writeUTF(nonNull(e.getEventDate()));
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    @NonNull
+    private static List<byte[]> encodeAll(@NonNull Iterable<Event> events) throws IOException {
+        List<byte[]> out = new ArrayList<>();
+        for (Event e : events) out.add(encode(OP_PUT, e));
+        return out;
+    }
 
+    @NonNull
+    private static List<Event> parseLegacy(@NonNull String json) {
+        List<Event> list = new ArrayList<>();
         try {
-            JSONArray jsonArray = new JSONArray(eventsJson);
+            JSONArray jsonArray = new JSONArray(json);
             for (int i = 0; i < jsonArray.length(); i++) {
                 JSONObject obj = jsonArray.getJSONObject(i);
-                list.add(new Event(
-                        obj.getString("name"),
-                        obj.getString("date")
-                ));
+                list.add(new Event(obj.optString("name"), obj.optString("date")));
             }
         } catch (JSONException e) {
-            e.printStackTrace();
+            Log.w(TAG, "Legacy events unreadable, skipped: " + e.getMessage());
         }
-
         return list;
     }
+
+    @NonNull
+    private static String nonNull(String s) {
+        return s == null ? "" : s;
+    }
 }
@@ -0,0 +1,76 @@
+package com.ergi.rusdihari.utils;
+
+/**
+ * ScanRateMeter - sliding-window throughput meter for the door scanner.
+ *
+ * Keeps the timestamps of the most recent scans in a fixed ring buffer, so recording
+ * a scan never allocates. Rates are reported in scans per minute:
+ * - windowRatePerMinute(): scans seen during the last WINDOW_MILLIS
+ * - sessionRatePerMinute(): average since the first scan of this session
+ *
+ * Timestamps should come from a monotonic clock (SystemClock.elapsedRealtime()).
+ */
+public class ScanRateMeter {
+
+    public static final long WINDOW_MILLIS = 60_000L;
+
+    private final long[] timestamps;
+    private int head = 0;   // next write position
+    private int size = 0;
+
+    private long firstScanAt = -1L;
+    private long totalScans = 0L;
+
+    public ScanRateMeter() {
+        this(512);
+    }
+
+    public ScanRateMeter(int capacity) {
+        this.timestamps = new long[Math.max(capacity, 16)];
+    }
+
+    public void record(long nowMillis) {
+        timestamps[head] = nowMillis;
+        head = (head + 1) % timestamps.length;
+        if (size < timestamps.length) size++;
+
+        if (firstScanAt < 0) firstScanAt = nowMillis;
+        totalScans++;
+    }
+
+    public long getTotalScans() {
+        return totalScans;
+    }
+
+    /**
+     * Scans per minute over the trailing window. While the session is younger than the
+     * window, the rate is extrapolated from the elapsed time instead of the full minute.
+     */
+    public double windowRatePerMinute(long nowMillis) {
+        if (size == 0) return 0d;
+
+        long from = nowMillis - WINDOW_MILLIS;
+        int inWindow = 0;
+        for (int i = 0; i < size; i++) {
+            int idx = (head - 1 - i + timestamps.length) % timestamps.length;
+            if (timestamps[idx] < from) break;
+            inWindow++;
+        }
+
+        long span = Math.min(WINDOW_MILLIS, Math.max(nowMillis - firstScanAt, 1_000L));
+        return inWindow * 60_000d / span;
+    }
+
+    public double sessionRatePerMinute(long nowMillis) {
+        if (totalScans == 0) return 0d;
+        long elapsed = Math.max(nowMillis - firstScanAt, 1_000L);
+        return totalScans * 60_000d / elapsed;
+    }
+
+    public void reset() {
+        head = 0;
+        size = 0;
+        firstScanAt = -1L;
+        totalScans = 0L;
+    }
+}
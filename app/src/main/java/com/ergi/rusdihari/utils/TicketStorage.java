@@ -2,48 +2,104 @@ package com.ergi.rusdihari.utils;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.util.Log;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.WorkerThread;
 
-import java.util.Collections;
-import java.util.HashSet;
+import com.ergi.rusdihari.AppDatabase;
+import com.ergi.rusdihari.data.DbExecutors;
+
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 
+/**
+ * TicketStorage - the tickets this device has joined, kept in AppDatabase.my_tickets.
+ *
+ * - Tokens used to live in a SharedPreferences StringSet (rewritten whole on every change,
+ *   unordered). migrateFromPrefs() copies that set into the table once and removes the
+ *   preference. It writes, so it runs on the DbExecutors writer: StartupOrchestrator
+ *   schedules it, and a reader that gets there first waits for the writer to do it.
+ * - All methods hit the database: call them from a background thread (AppRepository work);
+ *   the ones that change the table from the writer (AppRepository.write).
+ */
 public class TicketStorage {
 
+    private static final String TAG = "TicketStorage";
+
+    // Legacy storage, read only for the one-time migration.
     private static final String PREF = "guest_tickets_pref";
     private static final String KEY_TOKENS = "tokens_set";
 
-    public static void saveToken(@NonNull Context context, @NonNull String token) {
-        SharedPreferences sp = context.getSharedPreferences(PREF, Context.MODE_PRIVATE);
-        Set<String> old = sp.getStringSet(KEY_TOKENS, null);
-        Set<String> copy = (old == null) ? new HashSet<>() : new HashSet<>(old);
-        copy.add(token);
-        sp.edit().putStringSet(KEY_TOKENS, copy).apply();
+    private static volatile boolean migrated = false;
+
+    @WorkerThread
+    public static void saveToken(@NonNull Context context, @NonNull String token, long eventId) {
+        writeDb(context).addMyTicket(token, eventId, System.currentTimeMillis());
     }
 
+    /** Most recently joined first. */
+    @WorkerThread
     @NonNull
-    public static Set<String> getTokens(@NonNull Context context) {
-        SharedPreferences sp = context.getSharedPreferences(PREF, Context.MODE_PRIVATE);
-        Set<String> tokens = sp.getStringSet(KEY_TOKENS, null);
-        if (tokens == null) return Collections.emptySet();
-        return new HashSet<>(tokens);
+    public static List<String> getTokens(@NonNull Context context) {
+        return readDb(context).listMyTicketTokens();
     }
 
-    public static void removeToken(@NonNull Context context, @NonNull String token) {
-        SharedPreferences sp = context.getSharedPreferences(PREF, Context.MODE_PRIVATE);
-        Set<String> old = sp.getStringSet(KEY_TOKENS, null);
-        if (old == null) return;
+    /** Rows for the "My tickets" screen, ordered by event date. */
+    @WorkerThread
+    @NonNull
+    public static List<AppDatabase.TicketRow> getTicketRows(@NonNull Context context) {
+        return readDb(context).listMyTicketRows();
+    }
 
-        Set<String> copy = new HashSet<>(old);
-        copy.remove(token);
-        sp.edit().putStringSet(KEY_TOKENS, copy).apply();
+    @WorkerThread
+    public static void removeToken(@NonNull Context context, @NonNull String token) {
+        writeDb(context).removeMyTicket(token);
     }
 
+    @WorkerThread
     public static void clear(@NonNull Context context) {
-        context.getSharedPreferences(PREF, Context.MODE_PRIVATE)
-                .edit()
-                .remove(KEY_TOKENS)
-                .apply();
+        writeDb(context).clearMyTickets();
+    }
+
+    /** Imports the legacy preference once; later calls return at once. DbExecutors writer only. */
+    @WorkerThread
+    public static synchronized void migrateFromPrefs(@NonNull Context context) {
+        if (migrated) return;
+        SharedPreferences sp = context.getApplicationContext().getSharedPreferences(PREF, Context.MODE_PRIVATE);
+        Set<String> legacy = sp.getStringSet(KEY_TOKENS, null);
+        if (legacy != null) {
+            AppDatabase.getInstance(context).importMyTickets(legacy);
+            // Only after the rows are committed; a crash before this just re-runs the import.
+            sp.edit().remove(KEY_TOKENS).commit();
+        }
+        migrated = true;
+    }
+
+    /** Writer thread: migrate first, so a clear() or remove is not undone by a later import. */
+    @NonNull
+    private static AppDatabase writeDb(@NonNull Context context) {
+        if (!migrated) migrateFromPrefs(context);
+        return AppDatabase.getInstance(context);
+    }
+
+    /** Read threads: wait for the writer to run the migration rather than writing from here. */
+    @NonNull
+    private static AppDatabase readDb(@NonNull Context context) {
+        if (!migrated) {
+            if (DbExecutors.isWriterThread()) {
+                migrateFromPrefs(context);
+            } else {
+                try {
+                    DbExecutors.writer().submit(() -> migrateFromPrefs(context)).get();
+                } catch (ExecutionException e) {
+                    Log.e(TAG, "Ticket migration failed: " + e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        return AppDatabase.getInstance(context);
     }
-}
\ No newline at end of file
+}
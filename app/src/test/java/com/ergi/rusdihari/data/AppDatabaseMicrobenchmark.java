@@ -0,0 +1,183 @@
+package com.ergi.rusdihari.data;
+
+import android.app.Application;
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.ergi.rusdihari.AppDatabase;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.SQLiteMode;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
+
+/**
+ * AppDatabase hot paths on the JVM (Robolectric, native SQLite), per event size.
+ *
+ * For each size one event gets that many guests (plus EVENTS small events for search), then
+ * MicroBench measures ops/s and B/op for insertGuest, getGuestByToken, markCheckedIn,
+ * listEvents with a search query and the count queries.
+ *
+ * Skipped unless sizes are given; results are printed and written to
+ * app/build/reports/microbench/AppDatabaseMicrobenchmark.txt:
+ * ./gradlew :app:testDebugUnitTest --tests '*AppDatabaseMicrobenchmark' -PbenchSizes=1000,10000,100000
+ *
+ * Numbers are for comparing changes on the same machine; on-device figures come from the
+ * androidTest benchmarks and the :benchmark module.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34, application = Application.class)
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class AppDatabaseMicrobenchmark {
+
+    private static final String SIZES_PROPERTY = "rusdihari.bench.sizes";
+    private static final String DB_NAME = "microbench.db";
+    private static final int EVENTS = 500;
+    private static final int CHUNK = 1000;
+    private static final String[] WORDS = {
+            "launch", "gala", "wedding", "seminar", "workshop", "concert", "reunion", "meetup"
+    };
+
+    private Context ctx;
+    private AppDatabase db;
+
+    @Before
+    public void setUp() {
+        assumeFalse("set -PbenchSizes to run", sizes().isEmpty());
+        ctx = ApplicationProvider.getApplicationContext();
+    }
+
+    @After
+    public void tearDown() {
+        if (db != null) db.close();
+        if (ctx != null) ctx.deleteDatabase(DB_NAME);
+    }
+
+    @Test
+    public void hotPaths() throws Exception {
+        MicroBench bench = new MicroBench();
+        for (int size : sizes()) {
+            ctx.deleteDatabase(DB_NAME);
+            db = new AppDatabase(ctx, DB_NAME, StorageProfile.tuned());
+            seedEvents();
+            List<String> tokens = new ArrayList<>(size);
+            long eventId = seedGuests(size, tokens);
+            run(bench, size, eventId, tokens);
+            db.close();
+            db = null;
+        }
+        report(bench.results());
+    }
+
+    private void run(@NonNull MicroBench bench, int size, long eventId,
+                     @NonNull List<String> tokens) throws Exception {
+        Random random = new Random(42);
+
+        bench.measure("getGuestByToken", size, i ->
+                assertNotNull(db.getGuestByToken(tokens.get(random.nextInt(tokens.size())))));
+
+        bench.measure("markCheckedIn", size, i ->
+                assertTrue(db.markCheckedIn(tokens.get(i % tokens.size()), 1_700_000_000_000L + i, -6.2, 106.8)));
+
+        bench.measure("listEvents(search)", size, i ->
+                db.listEvents(WORDS[i % WORDS.length], AppDatabase.EventSortMode.DATE_ASC));
+
+        bench.measure("countInvited", size, i -> assertEquals(size, db.countInvited(eventId)));
+        bench.measure("countRsvpYes", size, i -> db.countRsvpYes(eventId));
+        bench.measure("countCheckedIn", size, i -> db.countCheckedIn(eventId));
+        bench.measure("getGuestStats", size, i -> db.getGuestStats(eventId));
+
+        // Last: it grows the table.
+        bench.measure("insertGuest", size, i -> assertTrue(db.insertGuest(guest(eventId, "New " + i)) > 0));
+    }
+
+    // -----------------------------
+    // Data
+    // -----------------------------
+    private void seedEvents() {
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < EVENTS; i++) {
+            AppDatabase.Event e = new AppDatabase.Event();
+            e.title = WORDS[i % WORDS.length] + " " + i;
+            e.description = "Seeded " + WORDS[(i * 3) % WORDS.length] + " event";
+            e.location = "Jakarta";
+            e.datetimeMillis = now + i * 3_600_000L;
+            e.createdAt = now;
+            db.insertEvent(e);
+        }
+    }
+
+    private long seedGuests(int size, @NonNull List<String> tokens) {
+        AppDatabase.Event e = new AppDatabase.Event();
+        e.title = "Benchmark event";
+        e.datetimeMillis = System.currentTimeMillis();
+        long eventId = db.insertEvent(e);
+
+        List<AppDatabase.Guest> chunk = new ArrayList<>(CHUNK);
+        for (int i = 0; i < size; i++) {
+            AppDatabase.Guest g = guest(eventId, "Guest " + i);
+            g.rsvpStatus = (i % 5 == 0) ? AppDatabase.RSVP_NO : AppDatabase.RSVP_YES;
+            tokens.add(g.token);
+            chunk.add(g);
+            if (chunk.size() == CHUNK) {
+                db.insertGuestsBatch(chunk);
+                chunk.clear();
+            }
+        }
+        db.insertGuestsBatch(chunk);
+        return eventId;
+    }
+
+    @NonNull
+    private static AppDatabase.Guest guest(long eventId, @NonNull String name) {
+        AppDatabase.Guest g = new AppDatabase.Guest();
+        g.eventId = eventId;
+        g.name = name;
+        g.token = AppDatabase.generateToken();
+        g.rsvpStatus = AppDatabase.RSVP_YES;
+        return g;
+    }
+
+    // -----------------------------
+    // Config / output
+    // -----------------------------
+    @NonNull
+    private static List<Integer> sizes() {
+        List<Integer> out = new ArrayList<>();
+        for (String s : System.getProperty(SIZES_PROPERTY, "").split(",")) {
+            if (!s.trim().isEmpty()) out.add(Integer.parseInt(s.trim()));
+        }
+        return out;
+    }
+
+    private static void report(@NonNull List<MicroBench.Result> results) throws IOException {
+        StringBuilder sb = new StringBuilder(MicroBench.HEADER).append('\n');
+        for (MicroBench.Result r : results) sb.append(r).append('\n');
+        System.out.print(sb);
+
+        File dir = new File("build/reports/microbench");
+        //noinspection ResultOfMethodCallIgnored
+        dir.mkdirs();
+        try (Writer w = new FileWriter(new File(dir, "AppDatabaseMicrobenchmark.txt"))) {
+            w.write(sb.toString());
+        }
+    }
+}
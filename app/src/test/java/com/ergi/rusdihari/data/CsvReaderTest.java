@@ -0,0 +1,157 @@
+package com.ergi.rusdihari.data;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * CsvReader on the JVM: quoting, line endings, BOM and line numbers.
+ */
+public class CsvReaderTest {
+
+    @Test
+    public void splitsPlainRecords() throws IOException {
+        assertEquals(Arrays.asList(
+                Arrays.asList("name", "rsvp"),
+                Arrays.asList("Ayu", "yes"),
+                Arrays.asList("Budi", "no")
+        ), readAll("name,rsvp\nAyu,yes\nBudi,no\n"));
+    }
+
+    @Test
+    public void keepsEmptyFields() throws IOException {
+        assertEquals(Arrays.asList(
+                Arrays.asList("Ayu", "", "", ""),
+                Arrays.asList("")
+        ), readAll("Ayu,,,\n\n"));
+    }
+
+    @Test
+    public void lastRecordNeedsNoLineBreak() throws IOException {
+        assertEquals(Arrays.asList(
+                Arrays.asList("Ayu", "yes"),
+                Arrays.asList("Budi", "no")
+        ), readAll("Ayu,yes\nBudi,no"));
+    }
+
+    @Test
+    public void acceptsCrlfAndCr() throws IOException {
+        List<List<String>> expected = Arrays.asList(
+                Arrays.asList("a", "b"),
+                Arrays.asList("c", "d"));
+        assertEquals(expected, readAll("a,b\r\nc,d\r\n"));
+        assertEquals(expected, readAll("a,b\rc,d\r"));
+    }
+
+    @Test
+    public void crlfSplitAcrossReadsIsOneLineBreak() throws IOException {
+        CsvReader reader = new CsvReader(new OneCharReader("a,b\r\nc,d\r\n"));
+        assertEquals(Arrays.asList("a", "b"), reader.next());
+        assertEquals(Arrays.asList("c", "d"), reader.next());
+        assertEquals(2, reader.recordLine());
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void unquotesFields() throws IOException {
+        assertEquals(Arrays.asList(
+                Arrays.asList("Lubis, Ayu", "She said \"hi\"", "", "x")
+        ), readAll("\"Lubis, Ayu\",\"She said \"\"hi\"\"\",\"\",x\n"));
+    }
+
+    @Test
+    public void keepsLineBreaksInsideQuotes() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader(
+                "Ayu,\"line one\nline two\r\nline three\"\nBudi,done\n"));
+
+        assertEquals(Arrays.asList("Ayu", "line one\nline two\r\nline three"), reader.next());
+        assertEquals(1, reader.recordLine());
+
+        assertEquals(Arrays.asList("Budi", "done"), reader.next());
+        assertEquals(4, reader.recordLine());
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void dropsLeadingBom() throws IOException {
+        assertEquals(Arrays.asList(
+                Arrays.asList("name", "rsvp"),
+                Arrays.asList("Ayu", "yes")
+        ), readAll("\uFEFFname,rsvp\nAyu,yes\n"));
+        assertEquals(Arrays.asList(Arrays.asList("name")), readAll(new OneCharReader("\uFEFFname")));
+    }
+
+    @Test
+    public void keepsBomAfterTheStart() throws IOException {
+        assertEquals(Arrays.asList(Arrays.asList("a", "\uFEFFb")), readAll("a,\uFEFFb"));
+    }
+
+    @Test
+    public void emptyInputHasNoRecords() throws IOException {
+        assertNull(new CsvReader(new StringReader("")).next());
+        assertNull(new CsvReader(new StringReader("\uFEFF")).next());
+    }
+
+    @Test
+    public void unterminatedQuoteFailsWithItsLine() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("Ayu,yes\nBudi,\"no\n"));
+        reader.next();
+        try {
+            reader.next();
+            fail("expected IOException");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().startsWith("Line 2:"));
+        }
+    }
+
+    // -----------------------------
+    // Helpers
+    // -----------------------------
+    @NonNull
+    private static List<List<String>> readAll(@NonNull String csv) throws IOException {
+        return readAll(new StringReader(csv));
+    }
+
+    @NonNull
+    private static List<List<String>> readAll(@NonNull Reader in) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (CsvReader reader = new CsvReader(in)) {
+            List<String> row;
+            while ((row = reader.next()) != null) records.add(new ArrayList<>(row)); // next() reuses the list
+        }
+        return records;
+    }
+
+    /** Hands out one char per read(), so every peek() crosses a buffer refill. */
+    private static final class OneCharReader extends Reader {
+        private final String s;
+        private int pos = 0;
+
+        OneCharReader(@NonNull String s) {
+            this.s = s;
+        }
+
+        @Override
+        public int read(@NonNull char[] cbuf, int off, int len) {
+            if (pos >= s.length()) return -1;
+            cbuf[off] = s.charAt(pos++);
+            return 1;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
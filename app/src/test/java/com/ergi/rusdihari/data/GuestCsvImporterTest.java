@@ -0,0 +1,168 @@
+package com.ergi.rusdihari.data;
+
+import androidx.annotation.NonNull;
+
+import com.ergi.rusdihari.AppDatabase;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * GuestCsvImporter row handling on the JVM: header detection, RSVP values, row validation.
+ */
+public class GuestCsvImporterTest {
+
+    // -----------------------------
+    // Columns.detect
+    // -----------------------------
+    @Test
+    public void headerlessRowIsPositional() {
+        GuestCsvImporter.Columns c = GuestCsvImporter.Columns.detect(row("Ayu", "yes", "Halal", "no nuts"));
+        assertFalse(c.header);
+        assertEquals(0, c.name);
+        assertEquals(1, c.rsvp);
+        assertEquals(2, c.menu);
+        assertEquals(3, c.note);
+    }
+
+    @Test
+    public void headerColumnsMatchInAnyOrder() {
+        GuestCsvImporter.Columns c = GuestCsvImporter.Columns.detect(row("Note", "MENU", " Name ", "RSVP"));
+        assertTrue(c.header);
+        assertEquals(2, c.name);
+        assertEquals(3, c.rsvp);
+        assertEquals(1, c.menu);
+        assertEquals(0, c.note);
+    }
+
+    @Test
+    public void headerAcceptsSpacedAndUnderscoredNames() {
+        GuestCsvImporter.Columns c = GuestCsvImporter.Columns.detect(
+                row("Guest Name", "rsvp_status", "Menu Choice", "preference_note"));
+        assertTrue(c.header);
+        assertEquals(0, c.name);
+        assertEquals(1, c.rsvp);
+        assertEquals(2, c.menu);
+        assertEquals(3, c.note);
+
+        assertTrue(GuestCsvImporter.Columns.detect(row("nama")).header);
+    }
+
+    @Test
+    public void headerWithoutOptionalColumnsMarksThemAbsent() {
+        GuestCsvImporter.Columns c = GuestCsvImporter.Columns.detect(row("email", "name"));
+        assertTrue(c.header);
+        assertEquals(1, c.name);
+        assertEquals(-1, c.rsvp);
+        assertEquals(-1, c.menu);
+        assertEquals(-1, c.note);
+    }
+
+    @Test
+    public void headerNeedsANameColumn() {
+        GuestCsvImporter.Columns c = GuestCsvImporter.Columns.detect(row("rsvp", "menu", "note"));
+        assertFalse(c.header);
+        assertEquals(0, c.name);
+    }
+
+    // -----------------------------
+    // parseRsvp
+    // -----------------------------
+    @Test
+    public void rsvpYesValues() {
+        for (String s : new String[]{"", "  ", "yes", "YES", " Yes ", "y", "ya", "true", "1"}) {
+            assertEquals(s, AppDatabase.RSVP_YES, GuestCsvImporter.parseRsvp(s));
+        }
+    }
+
+    @Test
+    public void rsvpNoValues() {
+        for (String s : new String[]{"no", "NO", " n ", "tidak", "false", "0"}) {
+            assertEquals(s, AppDatabase.RSVP_NO, GuestCsvImporter.parseRsvp(s));
+        }
+    }
+
+    @Test
+    public void rsvpUnknownValues() {
+        for (String s : new String[]{"maybe", "2", "yess", "-"}) {
+            assertNull(s, GuestCsvImporter.parseRsvp(s));
+        }
+    }
+
+    // -----------------------------
+    // parseRow
+    // -----------------------------
+    @Test
+    public void parsesPositionalRow() {
+        AppDatabase.Guest g = new AppDatabase.Guest();
+        assertNull(GuestCsvImporter.parseRow(row(" Ayu ", "no", "Halal", " no nuts "), positional(), g));
+        assertEquals("Ayu", g.name);
+        assertEquals(AppDatabase.RSVP_NO, g.rsvpStatus);
+        assertEquals("Halal", g.menuChoice);
+        assertEquals("no nuts", g.preferenceNote);
+    }
+
+    @Test
+    public void shortRowLeavesMissingFieldsEmpty() {
+        AppDatabase.Guest g = new AppDatabase.Guest();
+        assertNull(GuestCsvImporter.parseRow(row("Ayu"), positional(), g));
+        assertEquals("Ayu", g.name);
+        assertEquals(AppDatabase.RSVP_YES, g.rsvpStatus);
+        assertNull(g.menuChoice);
+        assertNull(g.preferenceNote);
+    }
+
+    @Test
+    public void parsesRowByHeader() {
+        GuestCsvImporter.Columns c = GuestCsvImporter.Columns.detect(row("email", "rsvp", "name"));
+        AppDatabase.Guest g = new AppDatabase.Guest();
+        assertNull(GuestCsvImporter.parseRow(row("ayu@example.com", "n", "Ayu"), c, g));
+        assertEquals("Ayu", g.name);
+        assertEquals(AppDatabase.RSVP_NO, g.rsvpStatus);
+        assertNull(g.menuChoice);
+    }
+
+    @Test
+    public void rejectsMissingName() {
+        AppDatabase.Guest g = new AppDatabase.Guest();
+        assertEquals("name is required", GuestCsvImporter.parseRow(row("  ", "yes"), positional(), g));
+        assertNull(g.name);
+    }
+
+    @Test
+    public void rejectsOverlongName() {
+        char[] name = new char[201];
+        Arrays.fill(name, 'a');
+        String error = GuestCsvImporter.parseRow(row(new String(name)), positional(), new AppDatabase.Guest());
+        assertNotNull(error);
+        assertTrue(error, error.startsWith("name longer than"));
+
+        Arrays.fill(name, 0, 1, ' '); // trimmed to 200
+        assertNull(GuestCsvImporter.parseRow(row(new String(name)), positional(), new AppDatabase.Guest()));
+    }
+
+    @Test
+    public void rejectsUnknownRsvp() {
+        AppDatabase.Guest g = new AppDatabase.Guest();
+        assertEquals("unknown RSVP \"maybe\"", GuestCsvImporter.parseRow(row("Ayu", " maybe "), positional(), g));
+        assertNull(g.name);
+    }
+
+    @NonNull
+    private static List<String> row(@NonNull String... cells) {
+        return Arrays.asList(cells);
+    }
+
+    @NonNull
+    private static GuestCsvImporter.Columns positional() {
+        return GuestCsvImporter.Columns.detect(row("x"));
+    }
+}
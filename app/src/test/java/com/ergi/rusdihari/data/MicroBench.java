@@ -0,0 +1,119 @@
+package com.ergi.rusdihari.data;
+
+import androidx.annotation.NonNull;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * MicroBench - minimal JMH-style harness for JVM (Robolectric) microbenchmarks.
+ *
+ * measure() runs an operation for WARMUP_ITERATIONS time-boxed warm-up rounds, then
+ * ITERATIONS measured rounds of ITERATION_MILLIS each, and reports:
+ * - ops/s: mean over the measured rounds, with the min..max spread;
+ * - B/op:  Java heap allocated by the calling thread per operation (HotSpot's per-thread
+ *          counter; native SQLite memory is not included).
+ *
+ * The operation gets a running counter, so it can walk through distinct keys.
+ */
+final class MicroBench {
+
+    static final int WARMUP_ITERATIONS = 3;
+    static final int ITERATIONS = 5;
+    static final long ITERATION_MILLIS = 500L;
+
+    interface Op {
+        void run(int i) throws Exception;
+    }
+
+    static final class Result {
+        final String name;
+        final int size;
+        final long ops;
+        final double opsPerSecond;
+        final double minOpsPerSecond;
+        final double maxOpsPerSecond;
+        final double bytesPerOp;
+
+        Result(String name, int size, long ops, double opsPerSecond,
+               double minOpsPerSecond, double maxOpsPerSecond, double bytesPerOp) {
+            this.name = name;
+            this.size = size;
+            this.ops = ops;
+            this.opsPerSecond = opsPerSecond;
+            this.minOpsPerSecond = minOpsPerSecond;
+            this.maxOpsPerSecond = maxOpsPerSecond;
+            this.bytesPerOp = bytesPerOp;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%-28s %8d %14.1f  (%.1f .. %.1f) %12.1f",
+                    name, size, opsPerSecond, minOpsPerSecond, maxOpsPerSecond, bytesPerOp);
+        }
+    }
+
+    static final String HEADER = String.format(Locale.US, "%-28s %8s %14s  %-20s %12s",
+            "benchmark", "guests", "ops/s", "(min .. max)", "B/op");
+
+    private final List<Result> results = new ArrayList<>();
+    private int counter = 0;
+
+    @NonNull
+    Result measure(@NonNull String name, int size, @NonNull Op op) throws Exception {
+        for (int w = 0; w < WARMUP_ITERATIONS; w++) runFor(op);
+
+        long totalOps = 0L;
+        long totalNanos = 0L;
+        double min = Double.MAX_VALUE;
+        double max = 0d;
+        long allocBefore = allocatedBytes();
+        for (int it = 0; it < ITERATIONS; it++) {
+            long t0 = System.nanoTime();
+            long ops = runFor(op);
+            long nanos = System.nanoTime() - t0;
+            double rate = ops * 1e9 / nanos;
+            min = Math.min(min, rate);
+            max = Math.max(max, rate);
+            totalOps += ops;
+            totalNanos += nanos;
+        }
+        long allocAfter = allocatedBytes();
+
+        Result r = new Result(name, size, totalOps, totalOps * 1e9 / totalNanos, min, max,
+                allocBefore < 0 ? Double.NaN : (double) (allocAfter - allocBefore) / totalOps);
+        results.add(r);
+        return r;
+    }
+
+    @NonNull
+    List<Result> results() {
+        return results;
+    }
+
+    private long runFor(@NonNull Op op) throws Exception {
+        long deadline = System.nanoTime() + ITERATION_MILLIS * 1_000_000L;
+        long ops = 0L;
+        do {
+            op.run(counter++);
+            ops++;
+        } while (System.nanoTime() < deadline);
+        return ops;
+    }
+
+    /** Bytes allocated so far by this thread, or -1 if the JVM cannot tell. */
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) bean;
+            if (hotspot.isThreadAllocatedMemorySupported() && hotspot.isThreadAllocatedMemoryEnabled()) {
+                return hotspot.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1L;
+    }
+}
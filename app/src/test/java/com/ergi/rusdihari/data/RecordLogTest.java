@@ -0,0 +1,169 @@
+package com.ergi.rusdihari.data;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * RecordLog on the JVM: framing, torn and corrupt tails, rewrite().
+ */
+public class RecordLogTest {
+
+    private static final int HEADER_BYTES = 8;
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private File file;
+
+    @Before
+    public void setUp() {
+        file = new File(tmp.getRoot(), "test.log");
+    }
+
+    @Test
+    public void missingFileHasNoRecords() throws IOException {
+        RecordLog log = new RecordLog(file);
+        assertFalse(log.exists());
+        assertEquals(Arrays.asList(), readAll(log));
+    }
+
+    @Test
+    public void appendsAndReadsBackInOrder() throws IOException {
+        RecordLog log = new RecordLog(file);
+        log.append(bytes("one"));
+        log.append(bytes(""));
+        log.append(bytes("three"));
+
+        assertEquals(Arrays.asList("one", "", "three"), readAll(new RecordLog(file)));
+        assertEquals(3 * HEADER_BYTES + 3 + 5, file.length());
+    }
+
+    @Test
+    public void truncatedLastFrameIsDroppedAndCutOnNextAppend() throws IOException {
+        RecordLog log = new RecordLog(file);
+        log.append(bytes("one"));
+        log.append(bytes("two"));
+        long intact = file.length();
+        log.append(bytes("three"));
+        truncate(file.length() - 2); // killed mid-append
+
+        RecordLog reopened = new RecordLog(file);
+        assertEquals(Arrays.asList("one", "two"), readAll(reopened));
+
+        reopened.append(bytes("four"));
+        assertEquals(intact + HEADER_BYTES + 4, file.length());
+        assertEquals(Arrays.asList("one", "two", "four"), readAll(new RecordLog(file)));
+    }
+
+    @Test
+    public void tornHeaderIsCutWithoutAPriorRead() throws IOException {
+        RecordLog log = new RecordLog(file);
+        log.append(bytes("one"));
+        long intact = file.length();
+        log.append(bytes("two"));
+        truncate(intact + 3); // only part of the length field made it
+
+        new RecordLog(file).append(bytes("three")); // append() finds the tail itself
+        assertEquals(Arrays.asList("one", "three"), readAll(new RecordLog(file)));
+    }
+
+    @Test
+    public void corruptedPayloadEndsTheStream() throws IOException {
+        RecordLog log = new RecordLog(file);
+        log.append(bytes("one"));
+        long second = file.length();
+        log.append(bytes("two"));
+        log.append(bytes("three"));
+        flipByte(second + HEADER_BYTES); // first payload byte of "two"
+
+        RecordLog reopened = new RecordLog(file);
+        assertEquals(Arrays.asList("one"), readAll(reopened));
+
+        reopened.append(bytes("four"));
+        assertEquals(Arrays.asList("one", "four"), readAll(new RecordLog(file)));
+    }
+
+    @Test
+    public void implausibleLengthEndsTheStream() throws IOException {
+        RecordLog log = new RecordLog(file);
+        log.append(bytes("one"));
+        long second = file.length();
+        log.append(bytes("two"));
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(second);
+            raf.writeInt(-1);
+        }
+        assertEquals(Arrays.asList("one"), readAll(new RecordLog(file)));
+    }
+
+    @Test
+    public void rewriteReplacesEverything() throws IOException {
+        RecordLog log = new RecordLog(file);
+        for (int i = 0; i < 10; i++) log.append(bytes("old" + i));
+
+        log.rewrite(Arrays.asList(bytes("a"), bytes("b")));
+        assertEquals(Arrays.asList("a", "b"), readAll(new RecordLog(file)));
+        assertEquals(2 * (HEADER_BYTES + 1), file.length());
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+
+        log.append(bytes("c")); // continues after the rewritten records
+        assertEquals(Arrays.asList("a", "b", "c"), readAll(new RecordLog(file)));
+    }
+
+    @Test
+    public void rewriteWithNothingLeavesAnEmptyLog() throws IOException {
+        RecordLog log = new RecordLog(file);
+        log.append(bytes("one"));
+        log.rewrite(new ArrayList<>());
+        assertTrue(log.exists());
+        assertEquals(0, file.length());
+        assertEquals(Arrays.asList(), readAll(new RecordLog(file)));
+    }
+
+    // -----------------------------
+    // Helpers
+    // -----------------------------
+    @NonNull
+    private static byte[] bytes(@NonNull String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @NonNull
+    private static List<String> readAll(@NonNull RecordLog log) throws IOException {
+        List<String> out = new ArrayList<>();
+        int count = log.read(p -> out.add(new String(p, StandardCharsets.UTF_8)));
+        assertEquals(out.size(), count);
+        return out;
+    }
+
+    private void truncate(long length) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(length);
+        }
+    }
+
+    private void flipByte(long offset) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(offset);
+            int b = raf.read();
+            raf.seek(offset);
+            raf.write(b ^ 0xFF);
+        }
+    }
+}
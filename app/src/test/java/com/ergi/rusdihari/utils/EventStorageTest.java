@@ -0,0 +1,177 @@
+package com.ergi.rusdihari.utils;
+
+import android.app.Application;
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.annotation.NonNull;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.ergi.rusdihari.data.RecordLog;
+import com.ergi.rusdihari.models.Event;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * EventStorage on the JVM (Robolectric): PUT / DELETE replay, compaction, legacy migration.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34, application = Application.class)
+public class EventStorageTest {
+
+    private static final String LEGACY_JSON = "[{\"name\":\"Gala\",\"date\":\"2026-01-01\"},"
+            + "{\"name\":\"Expo\",\"date\":\"2026-02-02\"}]";
+
+    private Context ctx;
+    private File logFile;
+    private SharedPreferences legacy;
+
+    @Before
+    public void setUp() {
+        ctx = ApplicationProvider.getApplicationContext();
+        logFile = new File(ctx.getFilesDir(), "my_events.log");
+        legacy = ctx.getSharedPreferences("my_events", Context.MODE_PRIVATE);
+        clean();
+    }
+
+    @After
+    public void tearDown() {
+        clean();
+    }
+
+    @Test
+    public void putThenDeleteSurvivesReopen() {
+        EventStorage.saveEvent(ctx, new Event("Gala", "2026-01-01"));
+        EventStorage.saveEvent(ctx, new Event("Expo", "2026-02-02"));
+        EventStorage.removeEvent(ctx, new Event("Gala", "2026-01-01"));
+        assertEquals(Arrays.asList("Expo"), names());
+
+        EventStorage.reset();
+        assertEquals(Arrays.asList("Expo"), names());
+        assertEquals(3, recordsOnDisk());
+    }
+
+    @Test
+    public void laterSaveReplacesAndMovesToTheEnd() {
+        EventStorage.saveEvent(ctx, new Event("Gala", "2026-01-01"));
+        EventStorage.saveEvent(ctx, new Event("Expo", "2026-02-02"));
+        EventStorage.saveEvent(ctx, new Event("Gala", "2026-01-01"));
+
+        EventStorage.reset();
+        assertEquals(Arrays.asList("Expo", "Gala"), names());
+    }
+
+    @Test
+    public void removingAnUnknownEventWritesNothing() {
+        EventStorage.saveEvent(ctx, new Event("Gala", "2026-01-01"));
+        EventStorage.removeEvent(ctx, new Event("Gala", "2027-01-01"));
+        assertEquals(1, recordsOnDisk());
+    }
+
+    @Test
+    public void compactsOnceDeadRecordsReachTheThreshold() {
+        Event gala = new Event("Gala", "2026-01-01");
+        for (int i = 0; i < 63; i++) EventStorage.saveEvent(ctx, gala);
+        assertEquals(63, recordsOnDisk()); // below 64 records: never compacted
+
+        EventStorage.saveEvent(ctx, gala);
+        assertEquals(1, recordsOnDisk());
+        assertEquals(Arrays.asList("Gala"), names());
+    }
+
+    @Test
+    public void compactionKeepsTheLiveSetInOrder() {
+        Event a = new Event("A", "d");
+        EventStorage.saveEvent(ctx, a);
+        EventStorage.saveEvent(ctx, new Event("B", "d"));
+        EventStorage.saveEvent(ctx, new Event("C", "d"));
+        EventStorage.removeEvent(ctx, new Event("B", "d"));
+        for (int i = 0; i < 61; i++) EventStorage.saveEvent(ctx, a); // compacts at the 64th record
+
+        assertEquals(3, recordsOnDisk()); // C, A, then one more save of A
+        EventStorage.reset();
+        assertEquals(Arrays.asList("C", "A"), names());
+    }
+
+    @Test
+    public void doesNotCompactWhileMostRecordsAreLive() {
+        for (int i = 0; i < 40; i++) EventStorage.saveEvent(ctx, new Event("E" + i, "d"));
+        for (int i = 0; i < 30; i++) EventStorage.saveEvent(ctx, new Event("E" + i, "d"));
+        assertEquals(70, recordsOnDisk()); // 70 records <= 2 x 40 live
+        assertEquals(40, names().size());
+    }
+
+    @Test
+    public void migratesLegacyJsonOnce() {
+        legacy.edit().putString("events", LEGACY_JSON).commit();
+
+        assertEquals(Arrays.asList("Gala", "Expo"), names());
+        assertFalse(legacy.contains("events"));
+        assertEquals(2, recordsOnDisk());
+
+        EventStorage.saveEvent(ctx, new Event("Fair", "2026-03-03"));
+        EventStorage.reset();
+        assertEquals(Arrays.asList("Gala", "Expo", "Fair"), names());
+        assertEquals(3, recordsOnDisk());
+    }
+
+    @Test
+    public void migrationRerunAfterACrashDoesNotDuplicate() {
+        legacy.edit().putString("events", LEGACY_JSON).commit();
+        assertEquals(Arrays.asList("Gala", "Expo"), names());
+
+        // Killed after the log was written but before the pref was removed.
+        legacy.edit().putString("events", LEGACY_JSON).commit();
+        EventStorage.reset();
+
+        assertEquals(Arrays.asList("Gala", "Expo"), names());
+        assertEquals(2, recordsOnDisk());
+        assertFalse(legacy.contains("events"));
+    }
+
+    @Test
+    public void unreadableLegacyJsonIsDropped() {
+        legacy.edit().putString("events", "{not json").commit();
+        assertEquals(Arrays.asList(), names());
+        assertFalse(legacy.contains("events"));
+    }
+
+    // -----------------------------
+    // Helpers
+    // -----------------------------
+    @NonNull
+    private List<String> names() {
+        List<String> out = new ArrayList<>();
+        for (Event e : EventStorage.getEvents(ctx)) out.add(e.getEventName());
+        return out;
+    }
+
+    private int recordsOnDisk() {
+        try {
+            return new RecordLog(logFile).read(p -> { });
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private void clean() {
+        EventStorage.reset();
+        //noinspection ResultOfMethodCallIgnored
+        logFile.delete();
+        legacy.edit().clear().commit();
+    }
+}
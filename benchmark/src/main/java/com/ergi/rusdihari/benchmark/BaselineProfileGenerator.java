@@ -0,0 +1,50 @@
+package com.ergi.rusdihari.benchmark;
+
+import androidx.benchmark.macro.junit4.BaselineProfileRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+
+import kotlin.Unit;
+
+/**
+ * Generates the baseline profile shipped as app/src/main/baseline-prof.txt.
+ *
+ * Walks the hot paths: cold start to MainActivity, dashboard scrolling, opening a ticket and
+ * a scanner check-in loop. Needs API 33+ (or a rooted API 28+ device):
+ * ./gradlew :benchmark:connectedBenchmarkAndroidTest -Pandroid.testInstrumentationRunnerArguments.class=com.ergi.rusdihari.benchmark.BaselineProfileGenerator
+ * then copy BaselineProfileGenerator_generate-baseline-prof.txt from
+ * benchmark/build/outputs/connected_android_test_additional_output/ over
+ * app/src/main/baseline-prof.txt.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BaselineProfileGenerator {
+
+    @Rule
+    public BaselineProfileRule rule = new BaselineProfileRule();
+
+    @Test
+    public void generate() throws IOException {
+        long eventId = Journeys.seed(300, 2000);
+        int[] nextGuest = {1}; // guest 0 is the ticket opened below
+
+        rule.collect(Journeys.PACKAGE, scope -> {
+            scope.pressHome();
+            Journeys.coldStartToMain(scope);
+
+            Journeys.openDashboard(scope);
+            Journeys.scrollDashboard(scope);
+
+            Journeys.openTicket(scope, Journeys.token(0));
+
+            Journeys.openScanner(scope, eventId);
+            Journeys.checkIn(scope, eventId, nextGuest[0], 20);
+            nextGuest[0] += 20;
+            return Unit.INSTANCE;
+        });
+    }
+}
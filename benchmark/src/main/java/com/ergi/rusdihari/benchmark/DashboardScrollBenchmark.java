@@ -0,0 +1,60 @@
+package com.ergi.rusdihari.benchmark;
+
+import androidx.benchmark.macro.BaselineProfileMode;
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.FrameTimingMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import kotlin.Unit;
+
+/**
+ * Frame timing while flinging through the admin dashboard's event list (300 events).
+ * ./gradlew :benchmark:connectedBenchmarkAndroidTest -Pandroid.testInstrumentationRunnerArguments.class=com.ergi.rusdihari.benchmark.DashboardScrollBenchmark
+ */
+@RunWith(AndroidJUnit4.class)
+public class DashboardScrollBenchmark {
+
+    private static final int EVENTS = 300;
+    private static final int ITERATIONS = 10;
+
+    @Rule
+    public MacrobenchmarkRule rule = new MacrobenchmarkRule();
+
+    @BeforeClass
+    public static void seed() throws IOException {
+        Journeys.seed(EVENTS, 0);
+    }
+
+    @Test
+    public void scrollNoCompilation() {
+        scroll(new CompilationMode.None());
+    }
+
+    @Test
+    public void scrollBaselineProfile() {
+        scroll(new CompilationMode.Partial(BaselineProfileMode.Require, 0));
+    }
+
+    private void scroll(CompilationMode mode) {
+        rule.measureRepeated(Journeys.PACKAGE, Collections.singletonList(new FrameTimingMetric()),
+                mode, null, ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    Journeys.openDashboard(scope);
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    Journeys.scrollDashboard(scope);
+                    return Unit.INSTANCE;
+                });
+    }
+}
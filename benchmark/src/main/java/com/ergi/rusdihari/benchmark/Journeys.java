@@ -0,0 +1,129 @@
+package com.ergi.rusdihari.benchmark;
+
+import android.content.ComponentName;
+import android.content.Intent;
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+import androidx.benchmark.macro.MacrobenchmarkScope;
+import androidx.test.platform.app.InstrumentationRegistry;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.Direction;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.UiObject2;
+import androidx.test.uiautomator.Until;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Journeys - user flows shared by the macrobenchmarks and BaselineProfileGenerator.
+ *
+ * Data comes from the app's BenchmarkFixtureReceiver (benchmark build type only): seed()
+ * broadcasts to it and waits until it is done. Admin screens are opened directly by intent;
+ * the benchmark manifest exports them, so no Firebase login is involved.
+ */
+final class Journeys {
+
+    static final String PACKAGE = "com.ergi.rusdihari";
+    static final long TIMEOUT_MS = 10_000L;
+
+    // Same as BenchmarkFixtureReceiver.TOKEN_HIGH.
+    private static final long TOKEN_HIGH = 0x42454E4348000000L;
+    private static final Pattern RESULT_DATA = Pattern.compile("data=\"(-?\\d+)\"");
+
+    private Journeys() { }
+
+    // -----------------------------
+    // Fixtures
+    // -----------------------------
+
+    /** Makes sure {@code events} events exist and recreates the scanner event; returns its id. */
+    static long seed(int events, int guests) throws IOException {
+        UiDevice device = UiDevice.getInstance(InstrumentationRegistry.getInstrumentation());
+        String out = device.executeShellCommand(String.format(Locale.US,
+                "am broadcast -n %s/.BenchmarkFixtureReceiver --ei events %d --ei guests %d",
+                PACKAGE, events, guests));
+        Matcher m = RESULT_DATA.matcher(out);
+        if (!m.find()) throw new IllegalStateException("Fixture broadcast failed: " + out);
+        return Long.parseLong(m.group(1));
+    }
+
+    /** Token of seeded scanner guest {@code i}. */
+    @NonNull
+    static String token(int i) {
+        return new UUID(TOKEN_HIGH, i).toString();
+    }
+
+    // -----------------------------
+    // Flows
+    // -----------------------------
+
+    /** Launcher icon -> splash -> MainActivity showing its tabs. */
+    static void coldStartToMain(@NonNull MacrobenchmarkScope scope) {
+        scope.startActivityAndWait();
+        scope.getDevice().wait(Until.hasObject(By.res(PACKAGE, "tab_layout")), TIMEOUT_MS);
+    }
+
+    static void openDashboard(@NonNull MacrobenchmarkScope scope) {
+        scope.startActivityAndWait(component("AdminDashboardActivity"));
+        scope.getDevice().wait(Until.hasObject(By.res(PACKAGE, "eventsRecyclerView")), TIMEOUT_MS);
+    }
+
+    static void scrollDashboard(@NonNull MacrobenchmarkScope scope) {
+        UiDevice device = scope.getDevice();
+        UiObject2 list = device.findObject(By.res(PACKAGE, "eventsRecyclerView"));
+        // Keep flings away from the system gesture areas.
+        list.setGestureMargin(device.getDisplayWidth() / 5);
+        for (int i = 0; i < 3; i++) {
+            list.fling(Direction.DOWN);
+            device.waitForIdle();
+        }
+        list.fling(Direction.UP);
+        device.waitForIdle();
+    }
+
+    /** Opens a ticket through its deep link and waits for the guest name. */
+    static void openTicket(@NonNull MacrobenchmarkScope scope, @NonNull String token) {
+        Intent i = new Intent(Intent.ACTION_VIEW, Uri.parse("rusdihari://ticket?token=" + Uri.encode(token)));
+        i.setPackage(PACKAGE);
+        scope.startActivityAndWait(i);
+        scope.getDevice().wait(Until.hasObject(By.res(PACKAGE, "tvGuestName").textContains("Guest")), TIMEOUT_MS);
+    }
+
+    /** Opens the scanner and waits until its roster is loaded. */
+    static void openScanner(@NonNull MacrobenchmarkScope scope, long eventId) {
+        Intent i = component("ScannerActivity");
+        i.putExtra("extra_event_id", eventId);
+        scope.startActivityAndWait(i);
+        scope.getDevice().wait(Until.hasObject(By.res(PACKAGE, "eventLabelTextView").textContains("Scanner")),
+                TIMEOUT_MS);
+    }
+
+    /** Feeds {@code count} seeded tokens to the open scanner, starting at guest {@code first}. */
+    static void checkIn(@NonNull MacrobenchmarkScope scope, long eventId, int first, int count) {
+        UiDevice device = scope.getDevice();
+        try {
+            for (int g = first; g < first + count; g++) {
+                // 0x20000000 = FLAG_ACTIVITY_SINGLE_TOP: delivered to ScannerActivity.onNewIntent().
+                device.executeShellCommand(String.format(Locale.US,
+                        "am start -f 0x20000000 -n %s/.ScannerActivity --el extra_event_id %d --es extra_simulated_scan %s",
+                        PACKAGE, eventId, token(g)));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        device.waitForIdle();
+    }
+
+    @NonNull
+    private static Intent component(@NonNull String activity) {
+        Intent i = new Intent();
+        i.setComponent(new ComponentName(PACKAGE, PACKAGE + "." + activity));
+        return i;
+    }
+}
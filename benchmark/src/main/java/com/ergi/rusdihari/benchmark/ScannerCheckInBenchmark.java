@@ -0,0 +1,69 @@
+package com.ergi.rusdihari.benchmark;
+
+import androidx.benchmark.macro.BaselineProfileMode;
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.FrameTimingMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import kotlin.Unit;
+
+/**
+ * Door check-in loop: SCANS tokens per iteration fed to ScannerActivity without a camera
+ * (EXTRA_SIMULATED_SCAN, benchmark builds only), on a 2000-guest event. Each iteration
+ * checks in guests not seen before, so every scan takes the full check-in path.
+ * ./gradlew :benchmark:connectedBenchmarkAndroidTest -Pandroid.testInstrumentationRunnerArguments.class=com.ergi.rusdihari.benchmark.ScannerCheckInBenchmark
+ */
+@RunWith(AndroidJUnit4.class)
+public class ScannerCheckInBenchmark {
+
+    private static final int GUESTS = 2000;
+    private static final int SCANS = 50;
+    private static final int ITERATIONS = 10;
+
+    @Rule
+    public MacrobenchmarkRule rule = new MacrobenchmarkRule();
+
+    private long eventId;
+    private int nextGuest;
+
+    @Before
+    public void seed() throws IOException {
+        // Fresh event per test: nobody checked in yet.
+        eventId = Journeys.seed(0, GUESTS);
+        nextGuest = 0;
+    }
+
+    @Test
+    public void checkInNoCompilation() {
+        checkIn(new CompilationMode.None());
+    }
+
+    @Test
+    public void checkInBaselineProfile() {
+        checkIn(new CompilationMode.Partial(BaselineProfileMode.Require, 0));
+    }
+
+    private void checkIn(CompilationMode mode) {
+        rule.measureRepeated(Journeys.PACKAGE, Collections.singletonList(new FrameTimingMetric()),
+                mode, null, ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    Journeys.openScanner(scope, eventId);
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    Journeys.checkIn(scope, eventId, nextGuest, SCANS);
+                    nextGuest += SCANS;
+                    return Unit.INSTANCE;
+                });
+    }
+}
@@ -0,0 +1,54 @@
+package com.ergi.rusdihari.benchmark;
+
+import androidx.benchmark.macro.BaselineProfileMode;
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+
+import kotlin.Unit;
+
+/**
+ * Cold start, launcher icon -> SplashActivity -> MainActivity tabs, without and with the
+ * baseline profile. timeToInitialDisplayMs covers the splash; timeToFullDisplayMs ends at
+ * MainActivity's reportFullyDrawn() (StartupOrchestrator).
+ * ./gradlew :benchmark:connectedBenchmarkAndroidTest -Pandroid.testInstrumentationRunnerArguments.class=com.ergi.rusdihari.benchmark.StartupBenchmark
+ */
+@RunWith(AndroidJUnit4.class)
+public class StartupBenchmark {
+
+    private static final int ITERATIONS = 10;
+
+    @Rule
+    public MacrobenchmarkRule rule = new MacrobenchmarkRule();
+
+    @Test
+    public void coldStartNoCompilation() {
+        coldStart(new CompilationMode.None());
+    }
+
+    @Test
+    public void coldStartBaselineProfile() {
+        coldStart(new CompilationMode.Partial(BaselineProfileMode.Require, 0));
+    }
+
+    private void coldStart(CompilationMode mode) {
+        rule.measureRepeated(Journeys.PACKAGE, Collections.singletonList(new StartupTimingMetric()),
+                mode, StartupMode.COLD, ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    Journeys.coldStartToMain(scope);
+                    return Unit.INSTANCE;
+                });
+    }
+}
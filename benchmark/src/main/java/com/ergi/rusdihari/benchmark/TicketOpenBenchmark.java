@@ -0,0 +1,63 @@
+package com.ergi.rusdihari.benchmark;
+
+import androidx.benchmark.macro.BaselineProfileMode;
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.FrameTimingMetric;
+import androidx.benchmark.macro.Metric;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import kotlin.Unit;
+
+/**
+ * Opening a ticket from its deep link (rusdihari://ticket?token=...) in a cold process:
+ * startup timing until the guest name shows, plus frame timing for the cover and QR code.
+ * ./gradlew :benchmark:connectedBenchmarkAndroidTest -Pandroid.testInstrumentationRunnerArguments.class=com.ergi.rusdihari.benchmark.TicketOpenBenchmark
+ */
+@RunWith(AndroidJUnit4.class)
+public class TicketOpenBenchmark {
+
+    private static final int ITERATIONS = 10;
+
+    @Rule
+    public MacrobenchmarkRule rule = new MacrobenchmarkRule();
+
+    @BeforeClass
+    public static void seed() throws IOException {
+        Journeys.seed(0, 100);
+    }
+
+    @Test
+    public void openTicketNoCompilation() {
+        openTicket(new CompilationMode.None());
+    }
+
+    @Test
+    public void openTicketBaselineProfile() {
+        openTicket(new CompilationMode.Partial(BaselineProfileMode.Require, 0));
+    }
+
+    private void openTicket(CompilationMode mode) {
+        List<Metric> metrics = Arrays.asList(new StartupTimingMetric(), new FrameTimingMetric());
+        rule.measureRepeated(Journeys.PACKAGE, metrics, mode, StartupMode.COLD, ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    Journeys.openTicket(scope, Journeys.token(0));
+                    return Unit.INSTANCE;
+                });
+    }
+}
@@ -1,5 +1,6 @@
 plugins {
     id("com.android.application") version "8.13.2" apply false
+    alias(libs.plugins.android.test) apply false
     alias(libs.plugins.google.gms.google.services) apply false
     id("com.google.android.libraries.mapsplatform.secrets-gradle-plugin") version "2.0.1" apply false
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+plugins {
+    `java-library`
+}
+
+// Plain Java: tickets, tokens and check-in rules, with no Android dependency, so they can
+// be unit-tested, benchmarked and load-simulated on any JVM.
+java {
+    sourceCompatibility = JavaVersion.VERSION_17
+    targetCompatibility = JavaVersion.VERSION_17
+}
+
+dependencies {
+    implementation(libs.annotation)
+
+    testImplementation(libs.junit)
+}
+
+// Door simulation on the JVM: ./gradlew :core:simulateDoor -Pguests=20000 -Pdoors=16
+tasks.register<JavaExec>("simulateDoor") {
+    group = "verification"
+    description = "Simulates concurrent door scans against the in-memory guest store."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.ergi.rusdihari.core.DoorSimulation")
+    args(
+        (project.findProperty("guests") ?: "10000").toString(),
+        (project.findProperty("doors") ?: "8").toString()
+    )
+}
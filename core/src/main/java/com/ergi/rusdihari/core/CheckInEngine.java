@@ -0,0 +1,84 @@
+package com.ergi.rusdihari.core;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * CheckInEngine - the door's rules for one scan at one event.
+ *
+ * scan() turns QR content into an Outcome:
+ * 1. no token in the content                 -> INVALID_CONTENT
+ * 2. no guest with that token                -> NOT_FOUND
+ * 3. guest belongs to another event          -> WRONG_EVENT
+ * 4. already checked in                      -> ALREADY_CHECKED_IN
+ * 5. ticket without a name (joined by code)  -> NAME_REQUIRED (admin fills it in, then admit())
+ * 6. otherwise the guest is checked in       -> CHECKED_IN
+ *
+ * decide() is the same rule set on plain facts, for callers that look guests up their own
+ * way (the scanner's in-memory roster). Thread-safe as long as the GuestStore is: the final
+ * check-in is the store's atomic markCheckedInIfNotYet().
+ */
+public final class CheckInEngine {
+
+    public enum Outcome {
+        INVALID_CONTENT,
+        NOT_FOUND,
+        WRONG_EVENT,
+        ALREADY_CHECKED_IN,
+        NAME_REQUIRED,
+        CHECKED_IN
+    }
+
+    public static final class Result {
+        @NonNull public final Outcome outcome;
+        @Nullable public final String token;
+        @Nullable public final Guest guest;
+
+        Result(@NonNull Outcome outcome, @Nullable String token, @Nullable Guest guest) {
+            this.outcome = outcome;
+            this.token = token;
+            this.guest = guest;
+        }
+    }
+
+    private final GuestStore store;
+    private final long eventId;
+
+    public CheckInEngine(@NonNull GuestStore store, long eventId) {
+        this.store = store;
+        this.eventId = eventId;
+    }
+
+    public long getEventId() {
+        return eventId;
+    }
+
+    @NonNull
+    public Result scan(@NonNull String qrContent, long now, @Nullable Double lat, @Nullable Double lng) {
+        String token = TicketTokens.fromQrContent(qrContent);
+        if (token == null) return new Result(Outcome.INVALID_CONTENT, null, null);
+
+        Guest guest = store.findByToken(token);
+        Outcome outcome = guest == null
+                ? Outcome.NOT_FOUND
+                : decide(guest.eventId == eventId, guest.isCheckedIn(), guest.hasName());
+        if (outcome == Outcome.CHECKED_IN) outcome = admit(token, now, lat, lng);
+        return new Result(outcome, token, guest);
+    }
+
+    /** Checks in a ticket that already passed the rules (e.g. after NAME_REQUIRED was resolved). */
+    @NonNull
+    public Outcome admit(@NonNull String token, long now, @Nullable Double lat, @Nullable Double lng) {
+        // Another door may have won in between: the store decides atomically.
+        return store.markCheckedInIfNotYet(token, now, lat, lng) ? Outcome.CHECKED_IN : Outcome.ALREADY_CHECKED_IN;
+    }
+
+    /** Rules 3-6 for a guest that was found. CHECKED_IN here means "admit". */
+    @NonNull
+    public static Outcome decide(boolean sameEvent, boolean checkedIn, boolean hasName) {
+        if (!sameEvent) return Outcome.WRONG_EVENT;
+        if (checkedIn) return Outcome.ALREADY_CHECKED_IN;
+        if (!hasName) return Outcome.NAME_REQUIRED;
+        return Outcome.CHECKED_IN;
+    }
+}
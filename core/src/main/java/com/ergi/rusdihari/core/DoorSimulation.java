@@ -0,0 +1,157 @@
+package com.ergi.rusdihari.core;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * DoorSimulation - many doors scanning one event at once, against InMemoryGuestStore.
+ *
+ * Every door scans every ticket (in its own random order) plus a few unknown tokens and
+ * garbage, so each ticket is raced by all doors; exactly one scan per ticket may win.
+ *
+ * ./gradlew :core:simulateDoor -Pguests=20000 -Pdoors=16
+ */
+public final class DoorSimulation {
+
+    private static final long EVENT_ID = 1L;
+    private static final long OTHER_EVENT_ID = 2L;
+
+    public static final class Report {
+        public final int guests;
+        public final int doors;
+        public long scans;
+        public long elapsedNanos;
+        public long p50Nanos;
+        public long p99Nanos;
+        @NonNull public final Map<CheckInEngine.Outcome, Long> outcomes = new EnumMap<>(CheckInEngine.Outcome.class);
+        /** NAME_REQUIRED scans that then won the check-in. */
+        public long admittedAfterNaming;
+        public int checkedIn;
+
+        Report(int guests, int doors) {
+            this.guests = guests;
+            this.doors = doors;
+        }
+
+        public double scansPerSecond() {
+            return elapsedNanos <= 0 ? 0d : scans * 1e9 / elapsedNanos;
+        }
+
+        public long count(@NonNull CheckInEngine.Outcome outcome) {
+            Long n = outcomes.get(outcome);
+            return n != null ? n : 0L;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "%d guests, %d doors: %d scans in %.1f ms = %.0f scans/s, p50 %.1f us, p99 %.1f us, "
+                            + "checked in %d, outcomes %s",
+                    guests, doors, scans, elapsedNanos / 1e6, scansPerSecond(),
+                    p50Nanos / 1e3, p99Nanos / 1e3, checkedIn, outcomes);
+        }
+    }
+
+    private DoorSimulation() { }
+
+    public static void main(String[] args) throws InterruptedException {
+        int guests = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int doors = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        run(guests, doors, 42L); // warm-up
+        System.out.println(run(guests, doors, 7L));
+    }
+
+    @NonNull
+    public static Report run(int guests, int doors, long seed) throws InterruptedException {
+        InMemoryGuestStore store = new InMemoryGuestStore(guests + 100);
+        List<String> contents = new ArrayList<>(guests + 300);
+        for (int i = 0; i < guests; i++) {
+            String token = TicketTokens.newToken();
+            // Every 50th ticket was joined by code and has no name yet.
+            store.addGuest(EVENT_ID, token, i % 50 == 0 ? null : "Guest " + i, true);
+            contents.add(i % 2 == 0 ? token : TicketTokens.link(token));
+        }
+        for (int i = 0; i < 100; i++) {
+            String other = TicketTokens.newToken();
+            store.addGuest(OTHER_EVENT_ID, other, "Other " + i, true);
+            contents.add(other);
+            contents.add(TicketTokens.newToken()); // unknown
+            contents.add(i % 2 == 0 ? "   " : TicketTokens.LINK_PREFIX + "?foo=bar"); // garbage
+        }
+
+        CheckInEngine engine = new CheckInEngine(store, EVENT_ID);
+        Report report = new Report(guests, doors);
+        AtomicLongArray counts = new AtomicLongArray(CheckInEngine.Outcome.values().length);
+        AtomicLong admittedAfterNaming = new AtomicLong();
+        long[][] latencies = new long[doors][];
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>(doors);
+
+        for (int d = 0; d < doors; d++) {
+            final int door = d;
+            List<String> order = new ArrayList<>(contents);
+            Collections.shuffle(order, new Random(seed + d));
+            latencies[door] = new long[order.size()];
+            Thread t = new Thread(() -> {
+                long[] lat = latencies[door];
+                long[] local = new long[counts.length()];
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < order.size(); i++) {
+                    long t0 = System.nanoTime();
+                    CheckInEngine.Result r = engine.scan(order.get(i), System.currentTimeMillis(), null, null);
+                    if (r.outcome == CheckInEngine.Outcome.NAME_REQUIRED) {
+                        // The admin types the name in; then the ticket goes through.
+                        store.updateName(r.token, "Named at door " + door);
+                        if (engine.admit(r.token, System.currentTimeMillis(), null, null)
+                                == CheckInEngine.Outcome.CHECKED_IN) {
+                            admittedAfterNaming.incrementAndGet();
+                        }
+                    }
+                    lat[i] = System.nanoTime() - t0;
+                    local[r.outcome.ordinal()]++;
+                }
+                for (int o = 0; o < local.length; o++) counts.addAndGet(o, local[o]);
+            }, "door-" + d);
+            threads.add(t);
+            t.start();
+        }
+
+        long t0 = System.nanoTime();
+        start.countDown();
+        for (Thread t : threads) t.join();
+        report.elapsedNanos = System.nanoTime() - t0;
+
+        for (CheckInEngine.Outcome o : CheckInEngine.Outcome.values()) {
+            report.outcomes.put(o, counts.get(o.ordinal()));
+            report.scans += counts.get(o.ordinal());
+        }
+        long[] all = new long[(int) report.scans];
+        int n = 0;
+        for (long[] lat : latencies) {
+            System.arraycopy(lat, 0, all, n, lat.length);
+            n += lat.length;
+        }
+        Arrays.sort(all);
+        report.p50Nanos = all[all.length / 2];
+        report.p99Nanos = all[(int) (all.length * 0.99)];
+        report.admittedAfterNaming = admittedAfterNaming.get();
+        report.checkedIn = store.countCheckedIn(EVENT_ID);
+        return report;
+    }
+}
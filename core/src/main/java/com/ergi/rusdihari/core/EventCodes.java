@@ -0,0 +1,31 @@
+package com.ergi.rusdihari.core;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * EventCodes - the join code guests type in: {@code EVENT_ID:<number>} or just the number.
+ */
+public final class EventCodes {
+
+    public static final String PREFIX = "EVENT_ID:";
+
+    private EventCodes() { }
+
+    @NonNull
+    public static String codeFor(long eventId) {
+        return PREFIX + eventId;
+    }
+
+    /** The event id, or null if the code is not a number in either form. */
+    @Nullable
+    public static Long parseEventId(@NonNull String code) {
+        String c = code.trim();
+        if (c.startsWith(PREFIX)) c = c.substring(PREFIX.length()).trim();
+        try {
+            return Long.parseLong(c);
+        } catch (NumberFormatException ignored) {
+            return null;
+        }
+    }
+}
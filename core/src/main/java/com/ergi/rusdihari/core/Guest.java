@@ -0,0 +1,36 @@
+package com.ergi.rusdihari.core;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Guest - what the check-in rules need to know about one ticket holder (a snapshot).
+ */
+public final class Guest {
+
+    public final long id;
+    public final long eventId;
+    @NonNull public final String token;
+    @Nullable public final String name;
+    public final boolean rsvpYes;
+    /** Epoch millis, or 0 if not checked in. */
+    public final long checkedInAt;
+
+    public Guest(long id, long eventId, @NonNull String token, @Nullable String name,
+                 boolean rsvpYes, long checkedInAt) {
+        this.id = id;
+        this.eventId = eventId;
+        this.token = token;
+        this.name = name;
+        this.rsvpYes = rsvpYes;
+        this.checkedInAt = checkedInAt;
+    }
+
+    public boolean isCheckedIn() {
+        return checkedInAt > 0;
+    }
+
+    public boolean hasName() {
+        return name != null && !name.trim().isEmpty();
+    }
+}
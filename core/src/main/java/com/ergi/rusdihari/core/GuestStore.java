@@ -0,0 +1,23 @@
+package com.ergi.rusdihari.core;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * GuestStore - the storage CheckInEngine runs against.
+ *
+ * Implementations must be safe to call from many threads at once (several doors scanning).
+ * In the app this is AppDatabase (DatabaseGuestStore); InMemoryGuestStore is for tests and
+ * simulations.
+ */
+public interface GuestStore {
+
+    @Nullable
+    Guest findByToken(@NonNull String token);
+
+    /**
+     * Checks the guest in unless already checked in, atomically: of two doors scanning the
+     * same ticket at once, exactly one gets true.
+     */
+    boolean markCheckedInIfNotYet(@NonNull String token, long checkedInAt, @Nullable Double lat, @Nullable Double lng);
+}
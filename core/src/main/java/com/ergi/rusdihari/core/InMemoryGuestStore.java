@@ -0,0 +1,84 @@
+package com.ergi.rusdihari.core;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * InMemoryGuestStore - GuestStore on a ConcurrentHashMap, for tests and load simulations.
+ *
+ * Check-in is a compare-and-set on the guest's check-in time, so concurrent doors behave like
+ * AppDatabase's conditional UPDATE: exactly one scan of a ticket wins.
+ */
+public final class InMemoryGuestStore implements GuestStore {
+
+    private static final class Entry {
+        final long id;
+        final long eventId;
+        final String token;
+        volatile String name;
+        final boolean rsvpYes;
+        final AtomicLong checkedInAt = new AtomicLong(0L);
+
+        Entry(long id, long eventId, String token, String name, boolean rsvpYes) {
+            this.id = id;
+            this.eventId = eventId;
+            this.token = token;
+            this.name = name;
+            this.rsvpYes = rsvpYes;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Entry> byToken;
+    private final AtomicLong nextId = new AtomicLong(1L);
+
+    public InMemoryGuestStore() {
+        this(16);
+    }
+
+    public InMemoryGuestStore(int expectedGuests) {
+        byToken = new ConcurrentHashMap<>(Math.max(16, expectedGuests * 2));
+    }
+
+    /** Adds a guest; returns its id, or -1 if the token is taken. */
+    public long addGuest(long eventId, @NonNull String token, @Nullable String name, boolean rsvpYes) {
+        long id = nextId.getAndIncrement();
+        return byToken.putIfAbsent(token, new Entry(id, eventId, token, name, rsvpYes)) == null ? id : -1L;
+    }
+
+    public boolean updateName(@NonNull String token, @NonNull String name) {
+        Entry e = byToken.get(token);
+        if (e == null) return false;
+        e.name = name;
+        return true;
+    }
+
+    public int size() {
+        return byToken.size();
+    }
+
+    public int countCheckedIn(long eventId) {
+        int n = 0;
+        for (Entry e : byToken.values()) {
+            if (e.eventId == eventId && e.checkedInAt.get() > 0) n++;
+        }
+        return n;
+    }
+
+    @Nullable
+    @Override
+    public Guest findByToken(@NonNull String token) {
+        Entry e = byToken.get(token);
+        if (e == null) return null;
+        return new Guest(e.id, e.eventId, e.token, e.name, e.rsvpYes, e.checkedInAt.get());
+    }
+
+    @Override
+    public boolean markCheckedInIfNotYet(@NonNull String token, long checkedInAt,
+                                         @Nullable Double lat, @Nullable Double lng) {
+        Entry e = byToken.get(token);
+        return e != null && e.checkedInAt.compareAndSet(0L, Math.max(1L, checkedInAt));
+    }
+}
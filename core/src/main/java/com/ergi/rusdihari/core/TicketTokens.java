@@ -0,0 +1,99 @@
+package com.ergi.rusdihari.core;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * TicketTokens - ticket token format, links and QR content.
+ *
+ * - A token is a random UUID string (newToken()).
+ * - Tickets are shared as {@code rusdihari://ticket?token=<token>}; the QR code holds either
+ *   that link or the bare token.
+ */
+public final class TicketTokens {
+
+    public static final String LINK_PREFIX = "rusdihari://ticket";
+
+    private TicketTokens() { }
+
+    @NonNull
+    public static String newToken() {
+        return UUID.randomUUID().toString();
+    }
+
+    @NonNull
+    public static String link(@NonNull String token) {
+        return LINK_PREFIX + "?token=" + encode(token);
+    }
+
+    /**
+     * Token from scanned QR content: the "token" parameter of a ticket link, otherwise the
+     * trimmed content itself. Null for blank content or a ticket link without a token.
+     */
+    @Nullable
+    public static String fromQrContent(@NonNull String content) {
+        String trimmed = content.trim();
+        if (trimmed.isEmpty()) return null;
+        if (!trimmed.startsWith(LINK_PREFIX)) return trimmed;
+
+        String token = queryParameter(trimmed, "token");
+        if (token == null) return null;
+        token = token.trim();
+        return token.isEmpty() ? null : token;
+    }
+
+    /** First 8 hex digits, upper case, for showing on screen ("A1B2C3D4"). */
+    @NonNull
+    public static String formatShort(@NonNull String token) {
+        String t = token.replace("-", "");
+        if (t.length() <= 8) return t;
+        return t.substring(0, 8).toUpperCase(Locale.US);
+    }
+
+    // -----------------------------
+    // Query parsing (no android.net.Uri here)
+    // -----------------------------
+    @Nullable
+    private static String queryParameter(@NonNull String link, @NonNull String name) {
+        int q = link.indexOf('?');
+        if (q < 0) return null;
+        int end = link.indexOf('#', q);
+        String query = link.substring(q + 1, end < 0 ? link.length() : end);
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            if (!decode(key).equals(name)) continue;
+            return eq < 0 ? "" : decode(pair.substring(eq + 1));
+        }
+        return null;
+    }
+
+    // The Charset overloads of URLDecoder / URLEncoder are API 33+ on Android (minSdk is 26).
+
+    /** Percent-decoding only; '+' stays '+' (as with Uri.getQueryParameter). */
+    @NonNull
+    private static String decode(@NonNull String s) {
+        try {
+            return URLDecoder.decode(s.replace("+", "%2B"), "UTF-8");
+        } catch (IllegalArgumentException malformed) {
+            return s;
+        } catch (UnsupportedEncodingException e) {
+            throw new AssertionError(e); // UTF-8 is always supported
+        }
+    }
+
+    @NonNull
+    private static String encode(@NonNull String s) {
+        try {
+            return URLEncoder.encode(s, "UTF-8").replace("+", "%20");
+        } catch (UnsupportedEncodingException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.ergi.rusdihari.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class CheckInEngineTest {
+
+    private static final long EVENT = 1L;
+
+    @Test
+    public void rulesApplyInOrder() {
+        InMemoryGuestStore store = new InMemoryGuestStore();
+        store.addGuest(EVENT, "named", "Ana", true);
+        store.addGuest(EVENT, "unnamed", null, true);
+        store.addGuest(2L, "elsewhere", "Budi", true);
+        CheckInEngine engine = new CheckInEngine(store, EVENT);
+
+        assertEquals(CheckInEngine.Outcome.INVALID_CONTENT, engine.scan(" ", 1L, null, null).outcome);
+        assertEquals(CheckInEngine.Outcome.NOT_FOUND, engine.scan("nobody", 1L, null, null).outcome);
+        assertEquals(CheckInEngine.Outcome.WRONG_EVENT, engine.scan("elsewhere", 1L, null, null).outcome);
+        assertEquals(CheckInEngine.Outcome.NAME_REQUIRED, engine.scan("unnamed", 1L, null, null).outcome);
+        assertEquals(CheckInEngine.Outcome.CHECKED_IN, engine.scan("named", 1L, null, null).outcome);
+        assertEquals(CheckInEngine.Outcome.ALREADY_CHECKED_IN, engine.scan("named", 2L, null, null).outcome);
+
+        store.updateName("unnamed", "Citra");
+        assertEquals(CheckInEngine.Outcome.CHECKED_IN, engine.scan("unnamed", 3L, null, null).outcome);
+        assertEquals(2, store.countCheckedIn(EVENT));
+    }
+
+    @Test
+    public void concurrentDoorsCheckEachGuestInExactlyOnce() throws InterruptedException {
+        DoorSimulation.Report r = DoorSimulation.run(5_000, 8, 1L);
+        assertEquals(5_000, r.checkedIn);
+        // One winning scan per ticket, whether it went straight through or after naming.
+        assertEquals(5_000, r.count(CheckInEngine.Outcome.CHECKED_IN) + r.admittedAfterNaming);
+        assertEquals(r.scans, 8L * (5_000 + 300));
+    }
+}
@@ -0,0 +1,22 @@
+package com.ergi.rusdihari.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class EventCodesTest {
+
+    @Test
+    public void eventCodesAcceptPrefixOrNumber() {
+        assertEquals(Long.valueOf(42L), EventCodes.parseEventId("EVENT_ID: 42"));
+        assertEquals(Long.valueOf(7L), EventCodes.parseEventId(" 7 "));
+        assertEquals(Long.valueOf(9L), EventCodes.parseEventId(EventCodes.codeFor(9L)));
+    }
+
+    @Test
+    public void otherContentIsRejected() {
+        assertNull(EventCodes.parseEventId("EVENT_ID:x"));
+        assertNull(EventCodes.parseEventId("party"));
+    }
+}
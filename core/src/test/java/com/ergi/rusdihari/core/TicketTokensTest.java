@@ -0,0 +1,39 @@
+package com.ergi.rusdihari.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class TicketTokensTest {
+
+    @Test
+    public void tokensComeFromLinksOrBareContent() {
+        String token = TicketTokens.newToken();
+        assertEquals(token, TicketTokens.fromQrContent("  " + token + "\n"));
+        assertEquals(token, TicketTokens.fromQrContent(TicketTokens.link(token)));
+        assertEquals("a b", TicketTokens.fromQrContent("rusdihari://ticket?x=1&token=a%20b#frag"));
+    }
+
+    @Test
+    public void blankOrMissingTokensAreRejected() {
+        assertNull(TicketTokens.fromQrContent("   "));
+        assertNull(TicketTokens.fromQrContent("rusdihari://ticket?token="));
+        assertNull(TicketTokens.fromQrContent("rusdihari://ticket"));
+    }
+
+    @Test
+    public void linksRoundTripReservedCharacters() {
+        assertEquals("rusdihari://ticket?token=a%20b%26c", TicketTokens.link("a b&c"));
+        assertEquals("a b&c", TicketTokens.fromQrContent(TicketTokens.link("a b&c")));
+        // '+' is literal, as with Uri.getQueryParameter; malformed escapes are kept as-is.
+        assertEquals("a+b", TicketTokens.fromQrContent("rusdihari://ticket?token=a+b"));
+        assertEquals("a%zz", TicketTokens.fromQrContent("rusdihari://ticket?token=a%zz"));
+    }
+
+    @Test
+    public void shortFormIsFirstEightHexDigits() {
+        assertEquals("A1B2C3D4", TicketTokens.formatShort("a1b2c3d4-0000-0000-0000-000000000000"));
+        assertEquals("abc", TicketTokens.formatShort("abc"));
+    }
+}
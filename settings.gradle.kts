@@ -15,4 +15,6 @@ dependencyResolutionManagement {
 }
 
 rootProject.name = "rusdihari"
-include(":app")
\ No newline at end of file
+include(":app")
+include(":core")
+include(":benchmark")
\ No newline at end of file